@@ -0,0 +1,86 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+package ksoap2.generator.gradle;
+
+import org.gradle.api.GradleException;
+
+import javax.inject.Inject;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Runs the generator in the worker of a {@link Wsdl2KsoapTask}, in a class
+ * loader of the generator classpath. The generator is called by reflection:
+ * it is built by the project, after this build logic.
+ *
+ */
+public class Wsdl2KsoapAction implements Runnable {
+
+    /**
+     * The HTTP transport class of the generated services.
+     */
+    private final String httpTransport;
+
+    /**
+     * The arguments of the generator.
+     */
+    private final String [] args;
+
+    /**
+     * Constructor.
+     *
+     * @param httpTransport
+     *              The HTTP transport class of the generated services.
+     * @param args
+     *              The arguments of the generator.
+     */
+    @Inject
+    public Wsdl2KsoapAction(final String httpTransport, final String [] args) {
+        this.httpTransport = httpTransport;
+        this.args = args;
+    }
+
+    @Override
+    public void run() {
+        ClassLoader loader = getClass().getClassLoader();
+        Thread thread = Thread.currentThread();
+        ClassLoader prevCl = thread.getContextClassLoader();
+        // axis and wsdl4j look up their factories in the context class loader
+        thread.setContextClassLoader(loader);
+        try {
+            Class<?> generatorClass = Class.forName("ksoap2.generator.Wsdl2J2me", true, loader);
+            Object generator = generatorClass.getConstructor(String [].class, String.class)
+                    .newInstance(args, httpTransport);
+            generatorClass.getMethod("run").invoke(generator);
+        } catch (InvocationTargetException e) {
+            throw new GradleException("cannot generate the ksoap2 client", e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new GradleException("the generator is not in the classpath of the task", e);
+        } finally {
+            thread.setContextClassLoader(prevCl);
+        }
+    }
+}
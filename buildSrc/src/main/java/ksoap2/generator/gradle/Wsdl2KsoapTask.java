@@ -0,0 +1,265 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+package ksoap2.generator.gradle;
+
+import org.gradle.api.Action;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.Task;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.specs.Spec;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.IsolationMode;
+import org.gradle.workers.WorkerConfiguration;
+import org.gradle.workers.WorkerExecutor;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Task generating the ksoap2 client of a WSDL document, for example:
+ * <pre>
+ * task wsdl2ksoap(type: ksoap2.generator.gradle.Wsdl2KsoapTask) {
+ *     classpath = sourceSets.main.runtimeClasspath
+ *     wsdl = "$projectDir/wsdl/powertool.wsdl"
+ *     outputDir = file("$buildDir/generated")
+ * }
+ * </pre>
+ * The generator runs in the Gradle process, through the worker API, in a
+ * class loader of its classpath. When the WSDL document is a local file,
+ * the task is up to date and cacheable as long as the document, the local
+ * documents it imports, found with wsdl4j, the generator and the options
+ * are unchanged. The <tt>wsdlFiles</tt> declare the other files the
+ * generation depends on, if any. A remote document is checked
+ * at each build by the generator itself, which revalidates it with the WSDL
+ * cache and skips the generation if nothing changed.
+ *
+ */
+@CacheableTask
+public class Wsdl2KsoapTask extends DefaultTask {
+
+    /**
+     * The worker executor.
+     */
+    private final WorkerExecutor workerExecutor;
+
+    /**
+     * The classpath of the generator.
+     */
+    private FileCollection classpath;
+
+    /**
+     * The file path or the URL of the WSDL document, as configured.
+     */
+    private String wsdl;
+
+    /**
+     * The WSDL document given to the generator, with an absolute path: the
+     * worker doesn't run in the project folder.
+     */
+    private String wsdlLocation;
+
+    /**
+     * The other local files the generation depends on.
+     */
+    private FileCollection wsdlFiles;
+
+    /**
+     * The local documents imported by the local WSDL document, found once.
+     */
+    private Set<File> imports;
+
+    /**
+     * Whether the client is generated for Android or J2ME.
+     */
+    private boolean android = true;
+
+    /**
+     * The other options of the generator.
+     */
+    private List<String> options = new ArrayList<String>();
+
+    /**
+     * The generated folder.
+     */
+    private File outputDir;
+
+    /**
+     * Constructor.
+     *
+     * @param workerExecutor
+     *              The worker executor.
+     */
+    @Inject
+    public Wsdl2KsoapTask(final WorkerExecutor workerExecutor) {
+        this.workerExecutor = workerExecutor;
+        Spec<Task> local = new Spec<Task>() {
+            @Override
+            public boolean isSatisfiedBy(final Task task) {
+                return isLocal();
+            }
+        };
+        // the changes of a remote document are not seen by Gradle
+        getOutputs().upToDateWhen(local);
+        getOutputs().cacheIf(local);
+    }
+
+    /**
+     * Generates the client.
+     */
+    @TaskAction
+    public void generate() {
+        final List<String> args = new ArrayList<String>();
+        args.add("-w");
+        args.add(wsdlLocation);
+        args.add("-g");
+        args.add(outputDir.getAbsolutePath());
+        args.addAll(options);
+        final String httpTransport = android ? "HttpTransportSE" : "HttpTransport";
+        workerExecutor.submit(Wsdl2KsoapAction.class, new Action<WorkerConfiguration>() {
+            @Override
+            public void execute(final WorkerConfiguration config) {
+                config.setDisplayName("ksoap2 client of " + wsdl);
+                config.setIsolationMode(IsolationMode.CLASSLOADER);
+                config.classpath(classpath);
+                config.params(httpTransport, args.toArray(new String[args.size()]));
+            }
+        });
+    }
+
+    /**
+     *
+     * @return <tt>true</tt> if the WSDL document is a local file.
+     */
+    private boolean isLocal() {
+        return !wsdl.matches("[a-zA-Z][a-zA-Z0-9+.-]+:.*") || wsdl.startsWith("file:");
+    }
+
+    /**
+     *
+     * @return The local documents imported by the local WSDL document.
+     */
+    private Set<File> getImports() {
+        if (imports == null) {
+            imports = WsdlImports.find(getWsdlFile());
+        }
+        return imports;
+    }
+
+    @Classpath
+    public FileCollection getClasspath() {
+        return classpath;
+    }
+
+    public void setClasspath(final FileCollection classpath) {
+        this.classpath = classpath;
+    }
+
+    @Input
+    public String getWsdl() {
+        return wsdl;
+    }
+
+    public void setWsdl(final Object wsdl) {
+        this.wsdl = wsdl.toString();
+        this.wsdlLocation = isLocal() && !this.wsdl.startsWith("file:")
+                ? getProject().file(wsdl).getAbsolutePath() : this.wsdl;
+    }
+
+    /**
+     *
+     * @return The WSDL document if it is a local file, else <tt>null</tt>.
+     */
+    @InputFile
+    @PathSensitive(PathSensitivity.RELATIVE)
+    @Optional
+    public File getWsdlFile() {
+        if (!isLocal()) {
+            return null;
+        }
+        return wsdl.startsWith("file:") ? new File(URI.create(wsdl)) : new File(wsdlLocation);
+    }
+
+    /**
+     *
+     * @return The local documents imported by the local WSDL document and
+     *              the configured files.
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    @Optional
+    public FileCollection getWsdlFiles() {
+        if (!isLocal()) {
+            return wsdlFiles;
+        }
+        FileCollection files = getProject().files(getImports());
+        return (wsdlFiles == null) ? files : files.plus(wsdlFiles);
+    }
+
+    public void setWsdlFiles(final FileCollection wsdlFiles) {
+        this.wsdlFiles = wsdlFiles;
+    }
+
+    @Input
+    public boolean isAndroid() {
+        return android;
+    }
+
+    public void setAndroid(final boolean android) {
+        this.android = android;
+    }
+
+    @Input
+    public List<String> getOptions() {
+        return options;
+    }
+
+    public void setOptions(final List<String> options) {
+        this.options = options;
+    }
+
+    @OutputDirectory
+    public File getOutputDir() {
+        return outputDir;
+    }
+
+    public void setOutputDir(final File outputDir) {
+        this.outputDir = outputDir;
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+package ksoap2.generator.gradle;
+
+import org.gradle.api.GradleException;
+
+import javax.wsdl.Definition;
+import javax.wsdl.Import;
+import javax.wsdl.Types;
+import javax.wsdl.WSDLException;
+import javax.wsdl.extensions.schema.Schema;
+import javax.wsdl.extensions.schema.SchemaReference;
+import javax.wsdl.factory.WSDLFactory;
+import javax.wsdl.xml.WSDLReader;
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the local WSDL documents and schemas a local WSDL document imports
+ * or includes, directly or not, so that a {@link Wsdl2KsoapTask} declares
+ * them as inputs. The remote documents are left to the WSDL cache of the
+ * generator.
+ *
+ */
+final class WsdlImports {
+
+    /**
+     * Prohibits instantiation.
+     */
+    private WsdlImports() {
+    }
+
+    /**
+     * Finds the documents imported by a WSDL document.
+     *
+     * @param wsdl
+     *              The WSDL document.
+     * @return The local files of the imported documents, without the WSDL
+     *              document itself.
+     */
+    static Set<File> find(final File wsdl) {
+        Definition definition;
+        try {
+            WSDLReader reader = WSDLFactory.newInstance().newWSDLReader();
+            reader.setFeature("javax.wsdl.verbose", false);
+            reader.setFeature("javax.wsdl.importDocuments", true);
+            definition = reader.readWSDL(wsdl.toURI().toString());
+        } catch (WSDLException e) {
+            throw new GradleException("cannot read the imports of " + wsdl, e);
+        }
+        Set<File> files = new LinkedHashSet<File>();
+        addDefinition(files, definition, new HashSet<Object>());
+        files.remove(wsdl.getAbsoluteFile());
+        return files;
+    }
+
+    /**
+     * Adds the files of the documents the definition imports.
+     *
+     * @param files
+     *              The files.
+     * @param def
+     *              The definition.
+     * @param visited
+     *              The definitions and schemas already visited.
+     */
+    @SuppressWarnings("unchecked")
+    private static void addDefinition(final Set<File> files, final Definition def, final Set<Object> visited) {
+        if (!visited.add(def)) {
+            return;
+        }
+        addFile(files, def.getDocumentBaseURI());
+        Types types = def.getTypes();
+        if (types != null) {
+            for (Object extension : types.getExtensibilityElements()) {
+                if (extension instanceof Schema) {
+                    addSchema(files, (Schema) extension, visited);
+                }
+            }
+        }
+        for (List<Import> imports : ((Map<String, List<Import>>) def.getImports()).values()) {
+            for (Import imported : imports) {
+                if (imported.getDefinition() != null) {
+                    addDefinition(files, imported.getDefinition(), visited);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the files of the schemas the schema imports, includes or
+     * redefines.
+     *
+     * @param files
+     *              The files.
+     * @param schema
+     *              The schema.
+     * @param visited
+     *              The definitions and schemas already visited.
+     */
+    @SuppressWarnings("unchecked")
+    private static void addSchema(final Set<File> files, final Schema schema, final Set<Object> visited) {
+        if (!visited.add(schema)) {
+            return;
+        }
+        addFile(files, schema.getDocumentBaseURI());
+        List<SchemaReference> references = new ArrayList<SchemaReference>(schema.getIncludes());
+        references.addAll(schema.getRedefines());
+        for (List<SchemaReference> imports : ((Map<String, List<SchemaReference>>) schema.getImports()).values()) {
+            references.addAll(imports);
+        }
+        for (SchemaReference reference : references) {
+            if (reference.getReferencedSchema() != null) {
+                addSchema(files, reference.getReferencedSchema(), visited);
+            }
+        }
+    }
+
+    /**
+     *
+     * @param files
+     *              The files.
+     * @param uri
+     *              The URL of the document, ignored if <tt>null</tt> or
+     *              remote.
+     */
+    private static void addFile(final Set<File> files, final String uri) {
+        if ((uri != null) && uri.startsWith("file:")) {
+            files.add(new File(URI.create(uri)).getAbsoluteFile());
+        }
+    }
+}
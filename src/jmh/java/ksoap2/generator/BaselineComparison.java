@@ -0,0 +1,136 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+package ksoap2.generator;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares the JSON results of the benchmarks with a stored baseline, and
+ * fails if a benchmark is slower than the baseline by more than the
+ * threshold. Usage:
+ * <pre>
+ *     BaselineComparison &lt;results.json&gt; &lt;baseline.json&gt; [threshold, 0.10 by default]
+ * </pre>
+ *
+ */
+public final class BaselineComparison {
+
+    /**
+     * Prohibits instantiation.
+     */
+    private BaselineComparison() {
+    }
+
+    /**
+     * Loads the scores of a JSON result file of JMH.
+     *
+     * @param file
+     *              The result file.
+     * @return The scores by benchmark and parameters.
+     * @throws IOException
+     *              The exception.
+     */
+    private static Map<String, JsonObject> load(final File file) throws IOException {
+        Map<String, JsonObject> results = new LinkedHashMap<String, JsonObject>();
+        Reader reader = new InputStreamReader(Files.newInputStream(file.toPath()), StandardCharsets.UTF_8);
+        try {
+            for (JsonElement element : new JsonParser().parse(reader).getAsJsonArray()) {
+                JsonObject result = element.getAsJsonObject();
+                StringBuilder key = new StringBuilder(result.get("benchmark").getAsString());
+                if (result.has("params")) {
+                    // sorted, so that the key doesn't depend on the order
+                    Map<String, String> params = new TreeMap<String, String>();
+                    for (Map.Entry<String, JsonElement> param : result.getAsJsonObject("params").entrySet()) {
+                        params.put(param.getKey(), param.getValue().getAsString());
+                    }
+                    key.append(' ').append(params);
+                }
+                results.put(key.toString(), result);
+            }
+        } finally {
+            reader.close();
+        }
+        return results;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: BaselineComparison <results.json> <baseline.json> [threshold]");
+            System.exit(2);
+        }
+        File baselineFile = new File(args[1]);
+        if (!baselineFile.isFile()) {
+            System.out.println("no baseline " + baselineFile + ", run the jmhBaseline task to store one");
+            return;
+        }
+        double threshold = (args.length > 2) ? Double.parseDouble(args[2]) : 0.10;
+        Map<String, JsonObject> results = load(new File(args[0]));
+        Map<String, JsonObject> baseline = load(baselineFile);
+        int regressions = 0;
+        for (Map.Entry<String, JsonObject> entry : results.entrySet()) {
+            JsonObject previous = baseline.get(entry.getKey());
+            JsonObject metric = entry.getValue().getAsJsonObject("primaryMetric");
+            double score = metric.get("score").getAsDouble();
+            String unit = metric.get("scoreUnit").getAsString();
+            if (previous == null) {
+                System.out.println(String.format("  new        %s: %.3f %s", entry.getKey(), score, unit));
+                continue;
+            }
+            double base = previous.getAsJsonObject("primaryMetric").get("score").getAsDouble();
+            // the higher the better for the throughput, the lower for times
+            boolean throughput = "thrpt".equals(entry.getValue().get("mode").getAsString());
+            double change = (base == 0) ? 0 : (score - base) / base;
+            double slowdown = throughput ? -change : change;
+            String status = "  ok        ";
+            if (slowdown > threshold) {
+                status = "  REGRESSION";
+                regressions++;
+            } else if (slowdown < -threshold) {
+                status = "  faster    ";
+            }
+            System.out.println(String.format("%s %s: %.3f -> %.3f %s (%+.1f%%)", status, entry.getKey(),
+                    base, score, unit, change * 100));
+        }
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) slower than the baseline by more than "
+                    + Math.round(threshold * 100) + "%");
+            System.exit(1);
+        }
+    }
+}
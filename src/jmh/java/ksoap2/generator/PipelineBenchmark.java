@@ -0,0 +1,287 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+package ksoap2.generator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.xml.namespace.QName;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of each phase of the generation, run on the bundled WSDL
+ * documents. The inputs of each phase are prepared once per trial by
+ * running the phases before it, so a benchmark measures its phase only.
+ * The paths are relative to the project folder, where the jmh task runs.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PipelineBenchmark {
+
+    /**
+     * The WSDL document.
+     */
+    @Param({"wsdl/powertool.wsdl",
+            "src/test/resources/ForBoolean.wsdl",
+            "src/test/resources/ForByte.wsdl",
+            "src/test/resources/ForComplex.wsdl",
+            "src/test/resources/ForDouble.wsdl",
+            "src/test/resources/ForFloat.wsdl",
+            "src/test/resources/ForImport.wsdl",
+            "src/test/resources/ForInt.wsdl",
+            "src/test/resources/ForLong.wsdl",
+            "src/test/resources/ForString.wsdl"})
+    public String wsdl;
+
+    /**
+     * The work folder of the trial.
+     */
+    private Path workFolder;
+
+    /**
+     * The folder of the outputs of the benchmarks, emptied after each
+     * iteration.
+     */
+    private Path runFolder;
+
+    /**
+     * The number of the next output.
+     */
+    private int runs;
+
+    /**
+     * The WSDL document read.
+     */
+    private WsdlDocument document;
+
+    /**
+     * The operations of the WSDL document.
+     */
+    private SoapOperationIndex operations;
+
+    /**
+     * The port types of the web services interfaces.
+     */
+    private Map<String, QName> portTypes;
+
+    /**
+     * The folder of the code generated by axis.
+     */
+    private String sourceFolder;
+
+    /**
+     * The folder of the classes compiled from the axis code.
+     */
+    private String classFolder;
+
+    /**
+     * The jar of the classes compiled from the axis code.
+     */
+    private String jar;
+
+    /**
+     * The model built from the axis classes.
+     */
+    private ClientModel model;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        workFolder = Files.createTempDirectory("ksoap2-jmh");
+        runFolder = workFolder.resolve("runs");
+        document = WsdlDocument.read(wsdl);
+        operations = SoapOperationIndex.of(document.getDefinition());
+        sourceFolder = createFolder(workFolder.resolve("axis-sources"));
+        portTypes = AxisWsdl2Java.generate(sourceFolder, document);
+        classFolder = createFolder(workFolder.resolve("axis-classes"));
+        new WsCompiler(sourceFolder, classFolder).run();
+        jar = workFolder.resolve("axis.jar").toString();
+        CreatingJar.run(classFolder, jar);
+        model = ReflectionModelBuilder.build(load(), sourceFolder, operations, portTypes);
+        if (model == null) {
+            throw new IllegalStateException("no model for " + wsdl);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeRuns() throws Exception {
+        FileManager.removeFolder(runFolder.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        FileManager.removeFolder(workFolder.toString());
+    }
+
+    /**
+     * Reads the WSDL document: DOM and wsdl4j definition.
+     */
+    @Benchmark
+    public WsdlDocument parse() throws Exception {
+        return WsdlDocument.read(wsdl);
+    }
+
+    /**
+     * Builds the model from the WSDL document. For the documents which are
+     * generated through axis, measures the detection of the unsupported
+     * construct.
+     */
+    @Benchmark
+    public ClientModel buildModel() throws Exception {
+        try {
+            return new WsdlModelBuilder(document.getDefinition()).build();
+        } catch (UnsupportedWsdlException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Generates the J2SE code with axis WSDL2Java.
+     */
+    @Benchmark
+    public String emitJ2se() throws Exception {
+        String folder = nextFolder();
+        AxisWsdl2Java.generate(folder, document);
+        return folder;
+    }
+
+    /**
+     * Compiles the axis code to a folder.
+     */
+    @Benchmark
+    public String compile() throws Exception {
+        String folder = nextFolder();
+        new WsCompiler(sourceFolder, folder).run();
+        return folder;
+    }
+
+    /**
+     * Compiles the axis code in memory.
+     */
+    @Benchmark
+    public ClassLoader compileInMemory() throws Exception {
+        return new WsCompiler(sourceFolder).runInMemory(getClass().getClassLoader());
+    }
+
+    /**
+     * Packages the compiled axis classes in a jar.
+     */
+    @Benchmark
+    public String jar() throws Exception {
+        String file = nextFolder() + ".jar";
+        CreatingJar.run(classFolder, file);
+        return file;
+    }
+
+    /**
+     * Loads the axis classes from the jar and builds the model by
+     * reflection.
+     */
+    @Benchmark
+    public ClientModel loadAndReflect() throws Exception {
+        return ReflectionModelBuilder.build(load(), sourceFolder, operations, portTypes);
+    }
+
+    /**
+     * Generates the ksoap2 code of the services and the complex types in
+     * memory, without writing it.
+     */
+    @Benchmark
+    public void emitKsoap2(final Blackhole blackhole) throws Exception {
+        for (ServiceModel service : model.getServices()) {
+            Writer writer = new Writer();
+            new ServiceClientGenerator(service, writer, null).run();
+            blackhole.consume(writer.toString());
+        }
+        for (BeanModel bean : model.getBeans()) {
+            Writer writer = new Writer();
+            new ComplexTypeGenerator(bean, writer, null).run();
+            blackhole.consume(writer.toString());
+        }
+    }
+
+    /**
+     * Generates the ksoap2 code and writes it to a new folder.
+     */
+    @Benchmark
+    public String writeKsoap2() throws Exception {
+        String folder = nextFolder();
+        WsClientGenerator generator = new WsClientGenerator(model, folder);
+        generator.setHttpTransport(ServiceClientGenerator.HTTP_TRANSPORT_ANDROID);
+        generator.run();
+        return folder;
+    }
+
+    /**
+     *
+     * @return A new class loader of the jar of the axis classes.
+     */
+    private ClassLoader load() throws Exception {
+        return new URLClassLoader(new URL[] {new File(jar).toURI().toURL()}, getClass().getClassLoader());
+    }
+
+    /**
+     *
+     * @return A new empty folder for the output of a benchmark.
+     */
+    private String nextFolder() throws Exception {
+        return createFolder(runFolder.resolve(String.valueOf(runs++)));
+    }
+
+    /**
+     *
+     * @param folder
+     *              The folder.
+     * @return The path of the folder, created.
+     */
+    private static String createFolder(final Path folder) throws Exception {
+        FileManager.createFolder(folder.toString());
+        return folder.toString();
+    }
+}
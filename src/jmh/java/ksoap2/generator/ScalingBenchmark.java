@@ -0,0 +1,243 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+package ksoap2.generator;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the whole generation on synthetic WSDL documents of growing sizes
+ * (see {@link SyntheticWsdl}) and prints the time of each phase and the
+ * peak heap for each size, from the report of the run (see
+ * {@link GenerationReport}). The exponent is the slope of the time against
+ * the size between two sizes: about 1 when the generation scales linearly,
+ * 2 when it is quadratic. Usage:
+ * <pre>
+ *     ScalingBenchmark &lt;work folder&gt; [sizes, 10,100,1000 by default] [native|axis] [repetitions, 3]
+ * </pre>
+ * A document of size <tt>n</tt> has <tt>n</tt> operations and <tt>n</tt>
+ * complex types of 8 fields, 2 of them repeated, nested 4 levels deep. The
+ * best of the repetitions is kept.
+ *
+ */
+public final class ScalingBenchmark {
+
+    /**
+     * The engine, reused by all the runs.
+     */
+    private static final GeneratorEngine ENGINE = new GeneratorEngine();
+
+    /**
+     * Prohibits instantiation.
+     */
+    private ScalingBenchmark() {
+    }
+
+    /**
+     * Result of the generation of a size.
+     */
+    private static final class Result {
+
+        /**
+         * The size.
+         */
+        private int size;
+
+        /**
+         * The wall time of the run, in milliseconds.
+         */
+        private double wallMillis = Double.MAX_VALUE;
+
+        /**
+         * The wall time of each phase, in milliseconds.
+         */
+        private Map<String, Double> phases;
+
+        /**
+         * The peak heap of the run, in bytes.
+         */
+        private long peakHeapBytes;
+    }
+
+    /**
+     * Generates the code of a WSDL document once.
+     *
+     * @param wsdl
+     *              The WSDL document.
+     * @param work
+     *              The work folder.
+     * @param axis
+     *              Whether the code is generated through axis.
+     * @param result
+     *              The result, updated if the run is faster.
+     * @throws Exception
+     *              The exception.
+     */
+    private static void generate(final Path wsdl, final Path work, final boolean axis, final Result result)
+            throws Exception {
+        Path generated = work.resolve("generated");
+        Path report = work.resolve("report.json");
+        FileManager.removeFolder(generated.toString());
+        GeneratorOptions options = new GeneratorOptions.Builder()
+                .addWsdl(wsdl.toString(), generated.toString())
+                .setCacheFolder(null)
+                .setReport(report.toString())
+                .setAxis(axis)
+                .build();
+        System.gc();
+        long start = System.nanoTime();
+        ENGINE.generate(options);
+        double wallMillis = (System.nanoTime() - start) / 1e6;
+        if (wallMillis >= result.wallMillis) {
+            return;
+        }
+        result.wallMillis = wallMillis;
+        result.phases = new LinkedHashMap<String, Double>();
+        result.peakHeapBytes = 0;
+        Reader reader = new InputStreamReader(Files.newInputStream(report), StandardCharsets.UTF_8);
+        try {
+            JsonObject document = new JsonParser().parse(reader).getAsJsonObject()
+                    .getAsJsonArray("documents").get(0).getAsJsonObject();
+            for (JsonElement element : document.getAsJsonArray("phases")) {
+                JsonObject phase = element.getAsJsonObject();
+                result.phases.put(phase.get("name").getAsString(), phase.get("wallMillis").getAsDouble());
+                result.peakHeapBytes = Math.max(result.peakHeapBytes, phase.get("peakHeapBytes").getAsLong());
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     *
+     * @param previous
+     *              The previous time, or <tt>null</tt>.
+     * @param previousSize
+     *              The previous size.
+     * @param time
+     *              The time, or <tt>null</tt>.
+     * @param size
+     *              The size.
+     * @return The slope of the time against the size, formatted.
+     */
+    private static String exponent(final Double previous, final int previousSize, final Double time, final int size) {
+        if ((previous == null) || (time == null) || (previous <= 0) || (size == previousSize)) {
+            return "-";
+        }
+        return String.format("%.2f", Math.log(time / previous) / Math.log((double) size / previousSize));
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: ScalingBenchmark <work folder> [sizes] [native|axis] [repetitions]");
+            System.exit(2);
+        }
+        Path work = Paths.get(args[0]).toAbsolutePath();
+        String [] sizes = ((args.length > 1) ? args[1] : "10,100,1000").split(",");
+        boolean axis = (args.length > 2) && "axis".equals(args[2]);
+        int repetitions = (args.length > 3) ? Integer.parseInt(args[3]) : 3;
+        Logger root = Logger.getLogger("");
+        root.setLevel(Level.WARNING);
+        for (Handler handler : root.getHandlers()) {
+            handler.setLevel(Level.WARNING);
+        }
+        Files.createDirectories(work);
+
+        List<Result> results = new ArrayList<Result>();
+        for (int i = 0; i < sizes.length; i++) {
+            Result result = new Result();
+            result.size = Integer.parseInt(sizes[i].trim());
+            SyntheticWsdl synthetic = new SyntheticWsdl();
+            synthetic.setOperations(result.size);
+            synthetic.setTypes(result.size);
+            synthetic.setDepth(4);
+            synthetic.setArrays(2);
+            synthetic.setFields(8);
+            Path wsdl = work.resolve("synthetic-" + result.size + ".wsdl");
+            synthetic.write(wsdl);
+            if (i == 0) {
+                // warms up the JIT and loads the classes of the generation
+                generate(wsdl, work, axis, new Result());
+            }
+            for (int r = 0; r < repetitions; r++) {
+                generate(wsdl, work, axis, result);
+            }
+            results.add(result);
+            System.out.println(String.format("size %d: %.1f ms", result.size, result.wallMillis));
+        }
+        FileManager.removeFolder(work.resolve("generated").toString());
+
+        List<String> phases = new ArrayList<String>();
+        for (Result result : results) {
+            for (String phase : result.phases.keySet()) {
+                if (!phases.contains(phase)) {
+                    phases.add(phase);
+                }
+            }
+        }
+        System.out.println();
+        System.out.println(String.format("%-14s%12s%12s%12s", "phase", "size", "ms", "exponent"));
+        for (String phase : phases) {
+            Result previous = null;
+            for (Result result : results) {
+                Double time = result.phases.get(phase);
+                System.out.println(String.format("%-14s%12d%12s%12s", phase, result.size,
+                        (time == null) ? "-" : String.format("%.1f", time),
+                        exponent((previous == null) ? null : previous.phases.get(phase),
+                                (previous == null) ? 0 : previous.size, time, result.size)));
+                previous = result;
+            }
+        }
+        System.out.println();
+        System.out.println(String.format("%-14s%12s%12s%12s%16s", "total", "size", "ms", "exponent", "peak heap MB"));
+        Result previous = null;
+        for (Result result : results) {
+            System.out.println(String.format("%-14s%12d%12.1f%12s%16.1f", "", result.size, result.wallMillis,
+                    exponent((previous == null) ? null : previous.wallMillis, (previous == null) ? 0 : previous.size,
+                            result.wallMillis, result.size),
+                    result.peakHeapBytes / (1024.0 * 1024.0)));
+            previous = result;
+        }
+        System.out.println();
+        System.out.println("work folder: " + work);
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+package ksoap2.generator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures the startup of the generator: each WSDL document is generated by
+ * a new JVM, with the class-data sharing archive of the JDK only, without
+ * any archive, and with the archive of the generator dumped by
+ * "gradlew cdsArchive". The runs of the three modes are interleaved, and
+ * the best and median wall times of each mode are printed with the gain of
+ * the generator archive. Usage:
+ * <pre>
+ *     StartupBenchmark &lt;java&gt; &lt;jar&gt; &lt;archive&gt; &lt;work folder&gt; &lt;runs&gt; &lt;wsdl&gt;...
+ * </pre>
+ *
+ */
+public final class StartupBenchmark {
+
+    /**
+     * The names of the modes.
+     */
+    private static final String [] MODES = {"JDK archive", "no archive", "generator archive"};
+
+    /**
+     * Prohibits instantiation.
+     */
+    private StartupBenchmark() {
+    }
+
+    /**
+     * Generates the code of a WSDL document in a new JVM.
+     *
+     * @param command
+     *              The command running the generator, without the WSDL
+     *              document.
+     * @param wsdl
+     *              The WSDL document.
+     * @param work
+     *              The work folder.
+     * @return The wall time, in milliseconds.
+     * @throws Exception
+     *              The exception.
+     */
+    private static double generate(final List<String> command, final String wsdl, final File work)
+            throws Exception {
+        File generated = new File(work, "generated");
+        FileManager.removeFolder(generated.getPath());
+        List<String> arguments = new ArrayList<String>(command);
+        arguments.addAll(Arrays.asList("-w", wsdl, "-g", generated.getPath(), "--no-cache"));
+        ProcessBuilder builder = new ProcessBuilder(arguments);
+        builder.redirectErrorStream(true);
+        builder.redirectOutput(new File(work, "output.log"));
+        long start = System.nanoTime();
+        int status = builder.start().waitFor();
+        double wallMillis = (System.nanoTime() - start) / 1e6;
+        if (status != 0) {
+            throw new IllegalStateException("the generation of " + wsdl + " failed, see "
+                    + new File(work, "output.log"));
+        }
+        return wallMillis;
+    }
+
+    /**
+     * @param times
+     *              The times, sorted.
+     * @return The median of the times.
+     */
+    private static double median(final List<Double> times) {
+        int middle = times.size() / 2;
+        return ((times.size() % 2) == 1) ? times.get(middle) : (times.get(middle - 1) + times.get(middle)) / 2;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 6) {
+            System.err.println("usage: StartupBenchmark <java> <jar> <archive> <work folder> <runs> <wsdl>...");
+            System.exit(2);
+        }
+        String java = args[0];
+        String jar = args[1];
+        String archive = args[2];
+        File work = new File(args[3]).getAbsoluteFile();
+        int runs = Integer.parseInt(args[4]);
+        work.mkdirs();
+
+        List<List<String>> commands = new ArrayList<List<String>>();
+        commands.add(Arrays.asList(java, "-cp", jar, "ksoap2.generator.Wsdl2Android"));
+        commands.add(Arrays.asList(java, "-Xshare:off", "-cp", jar, "ksoap2.generator.Wsdl2Android"));
+        commands.add(Arrays.asList(java, "-XX:SharedArchiveFile=" + archive, "-cp", jar,
+                "ksoap2.generator.Wsdl2Android"));
+        System.out.println(String.format("%-24s%-20s%12s%12s%10s", "wsdl", "mode", "best ms", "median ms", "gain"));
+        for (int i = 5; i < args.length; i++) {
+            String wsdl = new File(args[i]).getAbsolutePath();
+            List<List<Double>> times = new ArrayList<List<Double>>();
+            for (int m = 0; m < commands.size(); m++) {
+                // warms up the file system cache
+                generate(commands.get(m), wsdl, work);
+                times.add(new ArrayList<Double>());
+            }
+            for (int r = 0; r < runs; r++) {
+                for (int m = 0; m < commands.size(); m++) {
+                    times.get(m).add(generate(commands.get(m), wsdl, work));
+                }
+            }
+            double reference = 0;
+            for (int m = 0; m < commands.size(); m++) {
+                List<Double> sorted = times.get(m);
+                Collections.sort(sorted);
+                if (m == 0) {
+                    reference = median(sorted);
+                }
+                System.out.println(String.format("%-24s%-20s%12.1f%12.1f%9.1f%%", new File(wsdl).getName(),
+                        MODES[m], sorted.get(0), median(sorted), 100 * (reference - median(sorted)) / reference));
+            }
+        }
+        FileManager.removeFolder(new File(work, "generated").getPath());
+    }
+}
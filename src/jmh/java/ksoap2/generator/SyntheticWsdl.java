@@ -0,0 +1,283 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+package ksoap2.generator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Synthesizes a document/literal wrapped WSDL document of any size, to
+ * measure how the generation scales. Usage:
+ * <pre>
+ *     SyntheticWsdl &lt;file&gt; [operations] [types] [depth] [arrays] [fields]
+ * </pre>
+ * The complex types form chains of <tt>depth</tt> types, each one having a
+ * field of the next type of its chain. Each type has <tt>fields</tt>
+ * fields, <tt>arrays</tt> of them repeated. Each operation takes the root
+ * of a chain and returns the root of the next one, so all the types are
+ * reached when there are at least <tt>types / depth / 2</tt> operations.
+ *
+ */
+public final class SyntheticWsdl {
+
+    /**
+     * The target namespace, which the package <tt>ksoap2.generator.synthetic</tt>
+     * is derived from.
+     */
+    public static final String NAMESPACE = "http://synthetic.generator.ksoap2";
+
+    /**
+     * The built-in types of the simple fields.
+     */
+    private static final String [] SIMPLE_TYPES = {"string", "int", "long", "boolean", "double", "float"};
+
+    /**
+     * The number of operations.
+     */
+    private int operations = 10;
+
+    /**
+     * The number of complex types.
+     */
+    private int types = 10;
+
+    /**
+     * The number of types of a chain of nested types.
+     */
+    private int depth = 3;
+
+    /**
+     * The number of repeated fields of a type.
+     */
+    private int arrays = 1;
+
+    /**
+     * The number of fields of a type.
+     */
+    private int fields = 5;
+
+    /**
+     *
+     * @param operations
+     *              The number of operations, at least 1.
+     */
+    public void setOperations(final int operations) {
+        this.operations = Math.max(1, operations);
+    }
+
+    /**
+     *
+     * @param types
+     *              The number of complex types, at least 1.
+     */
+    public void setTypes(final int types) {
+        this.types = Math.max(1, types);
+    }
+
+    /**
+     *
+     * @param depth
+     *              The number of types of a chain of nested types, 1 for
+     *              no nesting.
+     */
+    public void setDepth(final int depth) {
+        this.depth = Math.max(1, depth);
+    }
+
+    /**
+     *
+     * @param arrays
+     *              The number of repeated fields of a type.
+     */
+    public void setArrays(final int arrays) {
+        this.arrays = Math.max(0, arrays);
+    }
+
+    /**
+     *
+     * @param fields
+     *              The number of fields of a type, at least 1.
+     */
+    public void setFields(final int fields) {
+        this.fields = Math.max(1, fields);
+    }
+
+    /**
+     *
+     * @param index
+     *              The index of a type.
+     * @return The index of the type nested in it, or -1 if it ends its
+     *              chain.
+     */
+    private int nested(final int index) {
+        return ((index % depth == depth - 1) || (index + 1 >= types)) ? -1 : index + 1;
+    }
+
+    /**
+     * Appends the complex types.
+     *
+     * @param wsdl
+     *              The WSDL document.
+     */
+    private void appendTypes(final StringBuilder wsdl) {
+        for (int i = 0; i < types; i++) {
+            int nested = nested(i);
+            wsdl.append("   <complexType name=\"Type").append(i).append("\">\n    <sequence>\n");
+            for (int k = 0; k < fields; k++) {
+                String type = "xsd:" + SIMPLE_TYPES[(i + k) % SIMPLE_TYPES.length];
+                if ((k == 0) && (nested >= 0)) {
+                    type = "impl:Type" + nested;
+                }
+                wsdl.append("     <element name=\"field").append(k).append('"');
+                if (k >= fields - arrays) {
+                    wsdl.append(" minOccurs=\"0\" maxOccurs=\"unbounded\"");
+                }
+                wsdl.append(" nillable=\"true\" type=\"").append(type).append("\"/>\n");
+            }
+            wsdl.append("    </sequence>\n   </complexType>\n");
+        }
+    }
+
+    /**
+     * Appends the wrapper elements of the operations.
+     *
+     * @param wsdl
+     *              The WSDL document.
+     */
+    private void appendElements(final StringBuilder wsdl) {
+        for (int j = 0; j < operations; j++) {
+            // the roots of the chains, one after the other
+            int chains = (types + depth - 1) / depth;
+            int input = ((2 * j) % chains) * depth;
+            int output = ((2 * j + 1) % chains) * depth;
+            wsdl.append("   <element name=\"operation").append(j).append("\">\n    <complexType>\n     <sequence>\n")
+                    .append("      <element name=\"id\" type=\"xsd:int\"/>\n")
+                    .append("      <element name=\"value\" nillable=\"true\" type=\"impl:Type").append(input)
+                    .append("\"/>\n     </sequence>\n    </complexType>\n   </element>\n");
+            wsdl.append("   <element name=\"operation").append(j).append("Response\">\n    <complexType>\n")
+                    .append("     <sequence>\n      <element name=\"operation").append(j)
+                    .append("Return\" nillable=\"true\" type=\"impl:Type").append(output)
+                    .append("\"/>\n     </sequence>\n    </complexType>\n   </element>\n");
+        }
+    }
+
+    /**
+     * Builds the WSDL document.
+     *
+     * @return The WSDL document.
+     */
+    public String build() {
+        StringBuilder wsdl = new StringBuilder(1024 * (operations + types));
+        wsdl.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<wsdl:definitions targetNamespace=\"").append(NAMESPACE).append("\" xmlns:impl=\"")
+                .append(NAMESPACE).append("\" xmlns:wsdl=\"http://schemas.xmlsoap.org/wsdl/\"")
+                .append(" xmlns:wsdlsoap=\"http://schemas.xmlsoap.org/wsdl/soap/\"")
+                .append(" xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\">\n")
+                .append(" <wsdl:types>\n  <schema elementFormDefault=\"qualified\" targetNamespace=\"")
+                .append(NAMESPACE).append("\" xmlns=\"http://www.w3.org/2001/XMLSchema\">\n");
+        appendTypes(wsdl);
+        appendElements(wsdl);
+        wsdl.append("  </schema>\n </wsdl:types>\n");
+        for (int j = 0; j < operations; j++) {
+            wsdl.append(" <wsdl:message name=\"operation").append(j).append("Request\">\n")
+                    .append("  <wsdl:part element=\"impl:operation").append(j).append("\" name=\"parameters\"/>\n")
+                    .append(" </wsdl:message>\n")
+                    .append(" <wsdl:message name=\"operation").append(j).append("Response\">\n")
+                    .append("  <wsdl:part element=\"impl:operation").append(j)
+                    .append("Response\" name=\"parameters\"/>\n </wsdl:message>\n");
+        }
+        wsdl.append(" <wsdl:portType name=\"Synthetic\">\n");
+        for (int j = 0; j < operations; j++) {
+            wsdl.append("  <wsdl:operation name=\"operation").append(j).append("\">\n")
+                    .append("   <wsdl:input message=\"impl:operation").append(j).append("Request\" name=\"operation")
+                    .append(j).append("Request\"/>\n")
+                    .append("   <wsdl:output message=\"impl:operation").append(j)
+                    .append("Response\" name=\"operation").append(j).append("Response\"/>\n")
+                    .append("  </wsdl:operation>\n");
+        }
+        wsdl.append(" </wsdl:portType>\n")
+                .append(" <wsdl:binding name=\"SyntheticSoapBinding\" type=\"impl:Synthetic\">\n")
+                .append("  <wsdlsoap:binding style=\"document\" transport=\"http://schemas.xmlsoap.org/soap/http\"/>\n");
+        for (int j = 0; j < operations; j++) {
+            wsdl.append("  <wsdl:operation name=\"operation").append(j).append("\">\n")
+                    .append("   <wsdlsoap:operation soapAction=\"\"/>\n")
+                    .append("   <wsdl:input name=\"operation").append(j).append("Request\">\n")
+                    .append("    <wsdlsoap:body use=\"literal\"/>\n   </wsdl:input>\n")
+                    .append("   <wsdl:output name=\"operation").append(j).append("Response\">\n")
+                    .append("    <wsdlsoap:body use=\"literal\"/>\n   </wsdl:output>\n")
+                    .append("  </wsdl:operation>\n");
+        }
+        wsdl.append(" </wsdl:binding>\n")
+                .append(" <wsdl:service name=\"SyntheticService\">\n")
+                .append("  <wsdl:port binding=\"impl:SyntheticSoapBinding\" name=\"Synthetic\">\n")
+                .append("   <wsdlsoap:address location=\"http://localhost:8080/synthetic/services/Synthetic\"/>\n")
+                .append("  </wsdl:port>\n </wsdl:service>\n</wsdl:definitions>\n");
+        return wsdl.toString();
+    }
+
+    /**
+     * Writes the WSDL document.
+     *
+     * @param file
+     *              The file of the WSDL document.
+     * @throws IOException
+     *              The exception.
+     */
+    public void write(final Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, build().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: SyntheticWsdl <file> [operations] [types] [depth] [arrays] [fields]");
+            System.exit(2);
+        }
+        SyntheticWsdl wsdl = new SyntheticWsdl();
+        if (args.length > 1) {
+            wsdl.setOperations(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            wsdl.setTypes(Integer.parseInt(args[2]));
+        }
+        if (args.length > 3) {
+            wsdl.setDepth(Integer.parseInt(args[3]));
+        }
+        if (args.length > 4) {
+            wsdl.setArrays(Integer.parseInt(args[4]));
+        }
+        if (args.length > 5) {
+            wsdl.setFields(Integer.parseInt(args[5]));
+        }
+        wsdl.write(Paths.get(args[0]));
+    }
+}
@@ -27,10 +27,7 @@
 
 package ksoap2.generator;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Abstract class to generate classes in J2ME based on them in J2SE.
@@ -41,10 +38,10 @@ import java.util.List;
 public abstract class AbstractGenerator {
 
     /**
-     * Attribute to contain class input.
+     * Attribute to contain the fully qualified name of the generated class.
      */
-    private Class <?> clazz;
-	List<String> serviceClasses;
+    private String className;
+
     /**
      * Attribute to contain the writer.
      */
@@ -55,34 +52,29 @@ public abstract class AbstractGenerator {
      */
     private String generatedFolder;
 
+    /**
+     * The source archive which the code is added to instead of the generated
+     * folder, or <tt>null</tt>.
+     */
+    private SourceArchive archive;
+
     /**
      * Public constructor.
      *
-     * @param serviceClasses
-     * @param clazz
-     *              The class.
+     * @param className
+     *              The fully qualified name of the generated class.
      * @param writer
- *              The writer.
+     *              The writer.
      * @param generatedFolder
+     *              The generated folder, or <tt>null</tt> to write the code
+     *              to the writer only.
      */
-    public AbstractGenerator(List<String> serviceClasses, final Class<?> clazz, Writer writer, final String generatedFolder) {
-        this.clazz = clazz;
+    public AbstractGenerator(final String className, Writer writer, final String generatedFolder) {
+        this.className = className;
         this.writer = writer;
         this.generatedFolder = generatedFolder;
-	    getClassNames(serviceClasses);
     }
 
-	private void getClassNames(List<String> classFiles) {
-
-		this.serviceClasses = new ArrayList<String>();
-
-		for (String serviceClass : classFiles) {
-			String[] split = serviceClass.split("\\\\");
-			String fileName = split[split.length - 1];
-			serviceClasses.add(fileName.replace(".java", ""));
-		}
-	}
-
 	/**
      * Runs this method to generate classes in J2ME based on them in J2SE.
      *
@@ -90,15 +82,25 @@ public abstract class AbstractGenerator {
      *              The generation exception.
      */
     protected void run() throws GeneratorException {
-        Util.checkNull(clazz, writer);
-        writePackage(clazz);
-        writeImportedClasses(clazz, writer);
-        writeClassDeclaration(clazz);
-        writeAttributes(clazz.getDeclaredFields());
-        writeClass(clazz);
+        Util.checkNull(className, writer);
+        long start = System.nanoTime();
+        writePackage(className);
+        writeImportedClasses(writer);
+        writeClassDeclaration(getSimpleName());
+        writeAttributes();
+        writeClass();
 	    writeCustomMethods(writer);
         writeClassClose();
-        FileManager.createFileInJ2me(clazz, writer, generatedFolder);
+        long emitted = System.nanoTime();
+        if (archive != null) {
+            writer.close();
+            archive.add(className, writer.toString());
+        } else if (generatedFolder == null) {
+            writer.close();
+        } else {
+            FileManager.createFileInJ2me(className, writer, generatedFolder);
+        }
+        GenerationReport.typeGenerated(className, emitted - start, System.nanoTime() - emitted);
     }
 
 	protected void writeCustomMethods(Writer writer){
@@ -108,11 +110,10 @@ public abstract class AbstractGenerator {
 	/**
      * Outs class's package.
      *
-     * @param clazz
-     *              The class.
+     * @param classname
+     *              The fully qualified class name.
      */
-    private void writePackage(final Class <?> clazz) {
-        String classname = clazz.getName();
+    private void writePackage(final String classname) {
         int index = classname.lastIndexOf('.');
         if (index >= 0) {
             String packageName = classname.substring(0, index);
@@ -123,43 +124,33 @@ public abstract class AbstractGenerator {
     /**
      * Outs imported classes.
      *
-     * @param clazz
-     *              The class.
      * @param writer
      *              The writer.
      * @throws GeneratorException
      *              The generation exception.
      */
-    protected abstract void writeImportedClasses(final Class <?> clazz, Writer writer) throws GeneratorException;
+    protected abstract void writeImportedClasses(Writer writer) throws GeneratorException;
 
     /**
      * Declares the class.
      *
-     * @param clazz
-     *              The class which is taken by Java reflection API.
+     * @param simpleName
+     *              The simple name of the class.
      * @throws GeneratorException
      *              The generation exception.
      */
-    protected void writeClassDeclaration(final Class <?> clazz) throws GeneratorException {
-        Util.checkNull(clazz);
-        writer.append("public final class " + clazz.getSimpleName() + " {\n\n");
+    protected void writeClassDeclaration(final String simpleName) throws GeneratorException {
+        Util.checkNull(simpleName);
+        writer.append("public final class " + simpleName + " {\n\n");
     }
 
     /**
-     * Outs the declared attributes.
+     * Outs the declared attributes, the generated class has none by default.
      *
-     * @param declaredFields
-     *              The declared fields.
      * @throws GeneratorException
      *              The generation exception.
      */
-    protected void writeAttributes(final Field declaredFields []) throws GeneratorException {
-        Util.checkNull(declaredFields);
-        for (Field declaredField : declaredFields) {
-            writer.append(getModifier(declaredField.getModifiers())
-                    + declaredField.getType().getCanonicalName()
-                    + " " + declaredField.getName() + ";\n");
-        }
+    protected void writeAttributes() throws GeneratorException {
     }
 
     /**
@@ -183,12 +174,10 @@ public abstract class AbstractGenerator {
      * Implements this method to generate classes in J2Me based on them in J2SE.
      * What we have to implement is the constructor(s) and the method(s).
      *
-     * @param clazz
-     *              The class.
      * @throws GeneratorException
      *              The generation exception.
      */
-    protected abstract void writeClass(final Class <?> clazz) throws GeneratorException;
+    protected abstract void writeClass() throws GeneratorException;
 
     /**
      * Outs the class's close.
@@ -199,10 +188,18 @@ public abstract class AbstractGenerator {
 
     /**
      *
-     * @return The input class of the constructor.
+     * @return The fully qualified name of the generated class.
      */
-    public final Class<?> getClazz() {
-        return clazz;
+    public final String getClassName() {
+        return className;
+    }
+
+    /**
+     *
+     * @return The simple name of the generated class.
+     */
+    public final String getSimpleName() {
+        return className.substring(className.lastIndexOf('.') + 1);
     }
 
     /**
@@ -220,4 +217,24 @@ public abstract class AbstractGenerator {
     public final String getGeneratedFolder() {
         return this.generatedFolder;
     }
+
+    /**
+     * Sets the source archive which the code is added to, instead of a file
+     * of the generated folder.
+     *
+     * @param archive
+     *              The source archive, or <tt>null</tt>.
+     */
+    public final void setArchive(final SourceArchive archive) {
+        this.archive = archive;
+    }
+
+    /**
+     *
+     * @return The source archive which the code is added to, or
+     *              <tt>null</tt>.
+     */
+    public final SourceArchive getArchive() {
+        return archive;
+    }
 }
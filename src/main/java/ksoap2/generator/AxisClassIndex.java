@@ -0,0 +1,186 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+package ksoap2.generator;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.rmi.Remote;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Index of the classes generated by axis, built in a single pass over the
+ * generated sources. Each class is loaded once and classified: service
+ * interface, stub, locator or bean. A WSDL document may have several
+ * services.
+ *
+ */
+final class AxisClassIndex {
+
+    /**
+     * The kind of a generated class.
+     */
+    enum Kind {
+
+        /**
+         * A service interface, extending {@link Remote}.
+         */
+        SERVICE,
+
+        /**
+         * A stub, implementing service interfaces.
+         */
+        STUB,
+
+        /**
+         * A service locator or its interface.
+         */
+        LOCATOR,
+
+        /**
+         * A bean, generated as a complex type.
+         */
+        BEAN
+    }
+
+    /**
+     * The classes of each kind, sorted by name.
+     */
+    private final Map<Kind, List<Class<?>>> classes = new EnumMap<Kind, List<Class<?>>>(Kind.class);
+
+    /**
+     * The simple names of all the generated classes.
+     */
+    private final Set<String> simpleNames = new HashSet<String>();
+
+    /**
+     * Private constructor.
+     */
+    private AxisClassIndex() {
+        for (Kind kind : Kind.values()) {
+            classes.put(kind, new ArrayList<Class<?>>());
+        }
+    }
+
+    /**
+     * Indexes the classes generated by axis.
+     *
+     * @param sourceFolder
+     *              The folder of the code generated by axis.
+     * @param loader
+     *              The class loader of the classes compiled from the code.
+     * @return The index.
+     * @throws GeneratorException
+     *              The exception if the folder cannot be read or a class
+     *              cannot be loaded.
+     */
+    static AxisClassIndex scan(final String sourceFolder, final ClassLoader loader) throws GeneratorException {
+        Util.checkNull(sourceFolder, loader);
+        final Path root = Paths.get(sourceFolder);
+        final Map<String, String> names = new TreeMap<String, String>();
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+                    String name = file.getFileName().toString();
+                    if (attributes.isRegularFile() && name.endsWith(".java")) {
+                        StringBuilder className = new StringBuilder();
+                        for (Path part : root.relativize(file.getParent())) {
+                            className.append(part).append('.');
+                        }
+                        String simpleName = name.substring(0, name.length() - ".java".length());
+                        names.put(className.append(simpleName).toString(), simpleName);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new GeneratorException(e);
+        }
+        AxisClassIndex index = new AxisClassIndex();
+        for (Map.Entry<String, String> name : names.entrySet()) {
+            Class<?> clazz;
+            try {
+                clazz = loader.loadClass(name.getKey());
+            } catch (ClassNotFoundException e) {
+                throw new GeneratorException(e);
+            }
+            index.simpleNames.add(name.getValue());
+            index.classes.get(classify(clazz)).add(clazz);
+        }
+        return index;
+    }
+
+    /**
+     *
+     * @param clazz
+     *              The generated class.
+     * @return The kind of the class.
+     */
+    private static Kind classify(final Class<?> clazz) {
+        if (clazz.isInterface() && Remote.class.isAssignableFrom(clazz)) {
+            return Kind.SERVICE;
+        }
+        if (org.apache.axis.client.Stub.class.isAssignableFrom(clazz)) {
+            return Kind.STUB;
+        }
+        if (javax.xml.rpc.Service.class.isAssignableFrom(clazz)
+                || org.apache.axis.client.Service.class.isAssignableFrom(clazz)) {
+            return Kind.LOCATOR;
+        }
+        return Kind.BEAN;
+    }
+
+    /**
+     *
+     * @param kind
+     *              The kind.
+     * @return The classes of the kind, sorted by name.
+     */
+    List<Class<?>> get(final Kind kind) {
+        return Collections.unmodifiableList(classes.get(kind));
+    }
+
+    /**
+     *
+     * @return The simple names of all the generated classes.
+     */
+    Set<String> getSimpleNames() {
+        return Collections.unmodifiableSet(simpleNames);
+    }
+}
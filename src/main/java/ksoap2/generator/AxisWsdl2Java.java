@@ -0,0 +1,168 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import org.apache.axis.wsdl.WSDL2Java;
+import org.apache.axis.wsdl.gen.Generator;
+import org.apache.axis.wsdl.gen.NoopGenerator;
+import org.apache.axis.wsdl.gen.Parser;
+import org.apache.axis.wsdl.symbolTable.BindingEntry;
+import org.apache.axis.wsdl.symbolTable.PortTypeEntry;
+import org.apache.axis.wsdl.symbolTable.SymbolTable;
+import org.apache.axis.wsdl.toJava.Emitter;
+import org.apache.axis.wsdl.toJava.JavaBindingWriter;
+import org.apache.axis.wsdl.toJava.JavaGeneratorFactory;
+
+import javax.wsdl.Binding;
+import javax.wsdl.Service;
+import javax.xml.namespace.QName;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs the axis WSDL2Java emitter on a WSDL document already read, instead
+ * of letting axis fetch and parse it again.
+ * <p>
+ * Only the service interfaces and the types they use (beans, holders and
+ * faults) are emitted: the model of the client is built from them alone, so
+ * the stubs, the service interfaces and their locators are neither written
+ * nor compiled.
+ *
+ */
+final class AxisWsdl2Java extends WSDL2Java {
+
+    /**
+     * Constructor.
+     */
+    private AxisWsdl2Java() {
+        super();
+    }
+
+    @Override
+    protected Parser createParser() {
+        Emitter emitter = new Emitter();
+        emitter.setFactory(new TypesOnlyFactory(emitter));
+        return emitter;
+    }
+
+    /**
+     * Generates the code in J2SE.
+     *
+     * @param outputFolder
+     *              The folder to store the generated code.
+     * @param wsdl
+     *              The WSDL document.
+     * @return The port types by name of the web services interfaces.
+     * @throws GeneratorException
+     *              The exception if axis fails.
+     */
+    static Map<String, QName> generate(final String outputFolder, final WsdlDocument wsdl) throws GeneratorException {
+        // the emitter is run directly: WSDL2.run() parses a command line,
+        // sets the default authenticator of the JVM and exits on a failure
+        Emitter emitter = (Emitter) new AxisWsdl2Java().getParser();
+        emitter.setOutputDir(outputFolder);
+        SharedWsdlFactory.bind(wsdl);
+        try {
+            emitter.run(wsdl.getUri(), wsdl.getDocument());
+        } catch (Exception e) {
+            throw new GeneratorException(e);
+        } finally {
+            SharedWsdlFactory.unbind();
+        }
+        return getPortTypes(emitter.getSymbolTable(), wsdl);
+    }
+
+    /**
+     * Gets the port type of each web services interface, named as axis does:
+     * the name chosen for the binding if any, else the one of its port type.
+     *
+     * @param symbolTable
+     *              The symbol table of the emitter.
+     * @param wsdl
+     *              The WSDL document.
+     * @return The port types by name of the web services interfaces.
+     */
+    private static Map<String, QName> getPortTypes(final SymbolTable symbolTable, final WsdlDocument wsdl) {
+        Map<String, QName> portTypes = new HashMap<String, QName>();
+        for (Object value : wsdl.getDefinition().getAllBindings().values()) {
+            Binding binding = (Binding) value;
+            BindingEntry bindingEntry = symbolTable.getBindingEntry(binding.getQName());
+            if ((bindingEntry == null) || (binding.getPortType() == null)) {
+                continue;
+            }
+            QName portType = binding.getPortType().getQName();
+            String name = (String) bindingEntry.getDynamicVar(JavaBindingWriter.INTERFACE_NAME);
+            if (name == null) {
+                PortTypeEntry portTypeEntry = symbolTable.getPortTypeEntry(portType);
+                if (portTypeEntry == null) {
+                    continue;
+                }
+                name = portTypeEntry.getName();
+            }
+            if (!portTypes.containsKey(name)) {
+                portTypes.put(name, portType);
+            }
+        }
+        return portTypes;
+    }
+
+    /**
+     * Generator factory emitting the service interfaces and the types only.
+     */
+    private static final class TypesOnlyFactory extends JavaGeneratorFactory {
+
+        /**
+         * Constructor.
+         *
+         * @param emitter
+         *              The emitter.
+         */
+        TypesOnlyFactory(final Emitter emitter) {
+            super(emitter);
+        }
+
+        @Override
+        public Generator getGenerator(final Binding binding, final SymbolTable symbolTable) {
+            if (!include(binding.getQName())) {
+                return new NoopGenerator();
+            }
+            return new JavaBindingWriter(emitter, binding, symbolTable) {
+                @Override
+                protected Generator getJavaStubWriter(final Emitter emitter, final BindingEntry bindingEntry,
+                        final SymbolTable symbolTable) {
+                    return new NoopGenerator();
+                }
+            };
+        }
+
+        @Override
+        public Generator getGenerator(final Service service, final SymbolTable symbolTable) {
+            return new NoopGenerator();
+        }
+    }
+}
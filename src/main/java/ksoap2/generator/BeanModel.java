@@ -0,0 +1,95 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Complex type to generate, with its attributes in declaration order.
+ *
+ */
+public final class BeanModel {
+
+    /**
+     * The fully qualified class name.
+     */
+    private final String className;
+
+    /**
+     * The attributes.
+     */
+    private final List<PropertyModel> properties;
+
+    /**
+     * The count returned by the generated <tt>getPropertyCount</tt> method.
+     */
+    private final int propertyCount;
+
+    /**
+     * Constructor.
+     *
+     * @param className
+     *              The fully qualified class name.
+     * @param properties
+     *              The attributes.
+     * @param propertyCount
+     *              The count returned by the generated
+     *              <tt>getPropertyCount</tt> method.
+     */
+    public BeanModel(final String className, final List<PropertyModel> properties, final int propertyCount) {
+        this.className = className;
+        this.properties = Collections.unmodifiableList(properties);
+        this.propertyCount = propertyCount;
+    }
+
+    /**
+     *
+     * @return The fully qualified class name.
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     *
+     * @return The attributes.
+     */
+    public List<PropertyModel> getProperties() {
+        return properties;
+    }
+
+    /**
+     *
+     * @return The count returned by the generated <tt>getPropertyCount</tt>
+     * method.
+     */
+    public int getPropertyCount() {
+        return propertyCount;
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything needed to generate the web services client: the services and
+ * the complex types they use.
+ *
+ */
+public final class ClientModel {
+
+    /**
+     * The services.
+     */
+    private final List<ServiceModel> services;
+
+    /**
+     * The complex types.
+     */
+    private final List<BeanModel> beans;
+
+    /**
+     * Constructor.
+     *
+     * @param services
+     *              The services.
+     * @param beans
+     *              The complex types.
+     */
+    public ClientModel(final List<ServiceModel> services, final List<BeanModel> beans) {
+        this.services = Collections.unmodifiableList(services);
+        this.beans = Collections.unmodifiableList(beans);
+    }
+
+    /**
+     *
+     * @return The services.
+     */
+    public List<ServiceModel> getServices() {
+        return services;
+    }
+
+    /**
+     *
+     * @return The complex types.
+     */
+    public List<BeanModel> getBeans() {
+        return beans;
+    }
+}
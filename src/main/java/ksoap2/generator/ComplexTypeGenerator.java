@@ -28,12 +28,10 @@
 
 package ksoap2.generator;
 
-import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 
@@ -45,11 +43,6 @@ import java.util.Map;
  */
 public final class ComplexTypeGenerator extends AbstractGenerator {
 
-    /**
-     *
-     */
-    private static int char_distance = 'A' - 'a';
-
     /**
      *
      */
@@ -83,22 +76,23 @@ public final class ComplexTypeGenerator extends AbstractGenerator {
     }
 
     /**
-     * Ignored attributes.
+     * The complex type.
      */
-    private static final String [] ignoredAttributes = {"__equalsCalc", "__hashCodeCalc", "typeDesc"};
+    private final BeanModel bean;
 
     /**
      * Public constructor.
      *
-     * @param serviceClasses
-     * @param clazz
-     *              The class.
+     * @param bean
+     *              The complex type.
      * @param writer
- *              The writer.
+     *              The writer.
      * @param generatedFolder
+     *              The generated folder.
      */
-    public ComplexTypeGenerator(List<String> serviceClasses, final Class<?> clazz, Writer writer, final String generatedFolder) {
-        super(serviceClasses, clazz, writer, generatedFolder);
+    public ComplexTypeGenerator(final BeanModel bean, Writer writer, final String generatedFolder) {
+        super(bean.getClassName(), writer, generatedFolder);
+        this.bean = bean;
     }
 
     /**
@@ -116,22 +110,22 @@ public final class ComplexTypeGenerator extends AbstractGenerator {
 
     /**
      *
-     * {@link AbstractGenerator#writeClass(Class)}
+     * {@link AbstractGenerator#writeClass()}
      */
     @Override
-    protected void writeClass(Class<?> clazz) throws GeneratorException {
-        writeConstructor(clazz);
-	    writeConstructorWithParameters(clazz);
-        writeSetGetMethods(clazz);
-        writeSpecialMethodsOnSoapObject(clazz);
+    protected void writeClass() throws GeneratorException {
+        writeConstructor();
+	    writeConstructorWithParameters();
+        writeSetGetMethods();
+        writeSpecialMethodsOnSoapObject();
     }
 
     /**
-     * {@link AbstractGenerator#writeImportedClasses(Class, Writer)}
+     * {@link AbstractGenerator#writeImportedClasses(Writer)}
      */
     @Override
-    protected void writeImportedClasses(Class<?> clazz, Writer writer) throws GeneratorException {
-        Util.checkNull(clazz, writer);
+    protected void writeImportedClasses(Writer writer) throws GeneratorException {
+        Util.checkNull(writer);
         writer.append("import java.util.Hashtable;\n");
         writer.append("import org.ksoap2.serialization.PropertyInfo;\n");
         writer.append("import org.ksoap2.serialization.SoapObject;\n\n");
@@ -140,74 +134,50 @@ public final class ComplexTypeGenerator extends AbstractGenerator {
     /**
      * Declares the class.
      *
-     * @param clazz
-     *              The class which is taken by Java reflection API.
+     * @param simpleName
+     *              The simple name of the class.
      * @throws GeneratorException
      *              The generation exception.
      */
 
     @Override
-    protected final void writeClassDeclaration(final Class <?> clazz) throws GeneratorException {
+    protected final void writeClassDeclaration(final String simpleName) throws GeneratorException {
         Writer writer = getWriter();
-        Util.checkNull(clazz, writer);
-        writer.append("public final class " + clazz.getSimpleName() + " extends SoapObject {\n\n");
+        Util.checkNull(simpleName, writer);
+        writer.append("public final class " + simpleName + " extends SoapObject {\n\n");
     }
 
     /**
-     * Outs the declared attributes. This method is overridden due to generated
-     * attributes, for example: __equalsCalc, __hashCodeCalc, typeDesc.
+     * Outs the declared attributes.
      *
-     * @param declaredFields
-     *              The declared fields.
      * @throws GeneratorException
      *              The generation exception.
      */
     @Override
-    protected final void writeAttributes(final Field declaredFields []) throws GeneratorException {
+    protected final void writeAttributes() throws GeneratorException {
 
         Writer writer = getWriter();
-        Util.checkNull(declaredFields, writer);
-        for (Field declaredField : declaredFields) {
-            if (!isIgnored(declaredField.getName())) {
-                writer.append("    ");
-                writer.append(getModifier(declaredField.getModifiers()) + declaredField.getType().getCanonicalName() + " " + declaredField.getName() + ";\n");
-            }
+        Util.checkNull(writer);
+        for (PropertyModel property : bean.getProperties()) {
+            writer.append("    ");
+            writer.append(getModifier(property.getModifiers()) + property.getType().getCanonicalName() + " " + property.getName() + ";\n");
         }
 	    writer.append("\n");
     }
 
-    /**
-     *
-     * @param attrName
-     *              The attribute name.
-     * @return <tt>true</tt> if the attribute is ignored, and <tt>false</tt>
-     * otherwise.
-     */
-    private boolean isIgnored(final String attrName) {
-        for (String ignored : ignoredAttributes) {
-            if (ignored.equals(attrName)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * Writes constructor.
-     *
-     * @param clazz
-     *              The class.
      */
-    private void writeConstructor(final Class <?> clazz) {
+    private void writeConstructor() {
         Writer writer = getWriter();
-        writer.append("    public " + clazz.getSimpleName() + "() {\n");
+        writer.append("    public " + getSimpleName() + "() {\n");
         writer.append("    }\n\n");
     }
 
-	private void writeConstructorWithParameters(final Class <?> clazz) {
+	private void writeConstructorWithParameters() {
 		Writer writer = getWriter();
 
-			writer.append("    public " + clazz.getSimpleName() + "(SoapObject soapObject) {\n");
+			writer.append("    public " + getSimpleName() + "(SoapObject soapObject) {\n");
 			writer.append("         int _len = soapObject.getPropertyCount();\n");
 			writer.append("         for (int _i = 0; _i < _len; _i++) {\n");
 			writer.append("             setProperty(_i, soapObject.getProperty(_i));\n");
@@ -216,39 +186,21 @@ public final class ComplexTypeGenerator extends AbstractGenerator {
 	}
 
 
-	private boolean isServiceClass(String className){
-		for (String serviceClass : serviceClasses) {
-			if(serviceClass.equals(className)){
-				return true;
-			}
-		}
-		return false;
-	}
     /**
      * Only outs the 'set' and 'get' methods for attributes.
-     *
-     * @param clazz
-     *              The class.
      */
-    private void writeSetGetMethods(final Class <?> clazz) {
+    private void writeSetGetMethods() {
         Writer writer = getWriter();
-        Field [] attributes = clazz.getDeclaredFields();
-        if (attributes == null) {
-            return;
-        }
-        for (Field attribute : attributes) {
+        for (PropertyModel attribute : bean.getProperties()) {
             String name = attribute.getName();
-            if (isIgnored(name)) {
-                continue;
-            }
             writer.append("    public void set"
-                    + getCapsChar(name.charAt(0)) + name.substring(1) + "("
+                    + attribute.getCapitalizedName() + "("
                     + attribute.getType().getCanonicalName() + " " + name
                     + ") {\n");
             writer.append("        this." + name + " = " + name + ";\n");
             writer.append("    }\n\n");
             writer.append("    public " + attribute.getType().getCanonicalName()
-                    + " get" + getCapsChar(name.charAt(0)) + name.substring(1)
+                    + " get" + attribute.getCapitalizedName()
                     + "(" //+ attribute.getType().getCanonicalName() + " " + name
                     + ") {\n");
             writer.append("        return this." + name + ";\n");
@@ -258,46 +210,34 @@ public final class ComplexTypeGenerator extends AbstractGenerator {
 
     /**
      * Outs the special methods to extend SoapObject.
-     *
-     * @param clazz
-     *              The class.
      */
-    private void writeSpecialMethodsOnSoapObject(final Class <?> clazz) {
-        writeGetPropertyCount(clazz);
-        writeGetProperty(clazz);
-        writeSetProperty(clazz);
-        writeGetPropertyInfo(clazz);
+    private void writeSpecialMethodsOnSoapObject() {
+        writeGetPropertyCount();
+        writeGetProperty();
+        writeSetProperty();
+        writeGetPropertyInfo();
     }
 
     /**
      * Outs the getPropertyCount method.
-     *
-     * @param clazz
-     *              The class.
      */
-    private void writeGetPropertyCount(final Class <?> clazz) {
+    private void writeGetPropertyCount() {
         Writer writer = getWriter();
         // public int getPropertyCount()
         writer.append("    public int getPropertyCount() {\n");
-        writer.append("        return " + (clazz.getDeclaredFields().length - ignoredAttributes.length) + ";\n");
+        writer.append("        return " + bean.getPropertyCount() + ";\n");
         writer.append("    }\n\n");
     }
 
     /**
      * Outs the getProperty method.
-     *
-     * @param clazz
-     *              The class.
      */
-    private void writeGetProperty(final Class <?> clazz) {
+    private void writeGetProperty() {
         Writer writer = getWriter();
         writer.append("    public Object getProperty(int __index) {\n");
         writer.append("        switch(__index)  {\n");
         int index = 0;
-        for (Field attribute : clazz.getDeclaredFields()) {
-            if (isIgnored(attribute.getName())) {
-                continue;
-            }
+        for (PropertyModel attribute : bean.getProperties()) {
             if (attribute.getType().isPrimitive()) {
                 writer.append("        case " + index + ": return new "
                         + primitive2ObjectMappings.get(attribute.getType()
@@ -322,20 +262,14 @@ public final class ComplexTypeGenerator extends AbstractGenerator {
 
     /**
      * Outs the setProperty method.
-     *
-     * @param clazz
-     *              The class.
      */
-    private void writeSetProperty(final Class <?> clazz) {
+    private void writeSetProperty() {
         Writer writer = getWriter();
         writer.append("    public void setProperty(int __index, Object __obj) {\n");
         writer.append("        switch(__index)  {\n");
         int index = 0;
 	    int soapObjectIndex = 1;
-        for (Field attribute : clazz.getDeclaredFields()) {
-            if (isIgnored(attribute.getName())) {
-                continue;
-            }
+        for (PropertyModel attribute : bean.getProperties()) {
             if (attribute.getType().isPrimitive()) {
                 writer.append("        case " + index + ": " + attribute.getName() + " = " + object2PrimitiveMappings.get(attribute.getType().getCanonicalName()) + "(__obj.toString()); break;\n");
             } else if (!attribute.getType().isArray()) { // not array
@@ -343,19 +277,15 @@ public final class ComplexTypeGenerator extends AbstractGenerator {
                  * In the case where there are attributes are complex type,
                  * need to verify this code?
                  */
-	            String canonicalName = attribute.getType().getCanonicalName();
-	            if(!attribute.getType().isPrimitive()){
-		            canonicalName = canonicalName.replace(attribute.getType().getPackage().getName() + ".", "");
-	            }
-	            if(isServiceClass(canonicalName)){
+	            if(attribute.isComplex()){
 		            writer.append("             case " + index + ": " + "SoapObject soapObject_" + soapObjectIndex + " = (SoapObject) __obj;" + attribute.getName() + " = new " + attribute.getType().getCanonicalName() + "(soapObject_" + soapObjectIndex + "); break;\n");
 		            soapObjectIndex ++;
 	            } else {
-		            if(attribute.getType() == BigDecimal.class || attribute.getType() == BigInteger.class){
+		            if(attribute.getType().is(BigDecimal.class) || attribute.getType().is(BigInteger.class)){
 			            writer.append("             case " + index + ": " + attribute.getName() + " = new " + attribute.getType().getCanonicalName() + "(__obj.toString()); break;\n");
-		            } else if(attribute.getType() == Object.class){
+		            } else if(attribute.getType().is(Object.class)){
 			            writer.append("             case " + index + ": " + attribute.getName() + " = __obj; break;\n");
-		            } else if(attribute.getType() == Date.class){
+		            } else if(attribute.getType().is(Date.class)){
 
 			            writer.append("             case " + index + ":\n");
 			            writer.append("                 try {\n");
@@ -379,19 +309,13 @@ public final class ComplexTypeGenerator extends AbstractGenerator {
 
     /**
      * Outs the getPropertyInfo method.
-     *
-     * @param clazz
-     *              The class.
      */
-    private void writeGetPropertyInfo(final Class <?> clazz) {
+    private void writeGetPropertyInfo() {
         Writer writer = getWriter();
         writer.append("    public void getPropertyInfo(int __index, Hashtable __table, PropertyInfo __info) {\n");
         writer.append("        switch(__index)  {\n");
         int index = 0;
-        for (Field attribute : clazz.getDeclaredFields()) {
-            if (isIgnored(attribute.getName())) {
-                continue;
-            }
+        for (PropertyModel attribute : bean.getProperties()) {
             writer.append("             case " + index + ":\n");
             writer.append("            __info.name = \"" + attribute.getName() + "\";\n");
             if (attribute.getType().isPrimitive()) {
@@ -410,17 +334,4 @@ public final class ComplexTypeGenerator extends AbstractGenerator {
         writer.append("        }\n");
         writer.append("    }\n\n");
     }
-
-    /**
-     *
-     * @param ch
-     *              The input.
-     * @return The caps char.
-     */
-    private char getCapsChar(char ch) {
-        if (('a' <= ch) && (ch <= 'z')) {
-            return (char) (ch + char_distance);
-        }
-        return ch;
-    }
 }
@@ -28,16 +28,27 @@
 package ksoap2.generator;
 
 import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.StringTokenizer;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Class to manage the manipulation on the file.
@@ -56,6 +67,22 @@ public final class FileManager {
      */
     private static final String FOLDER_CREATION_ERR = "Error for creating folder: ";
 
+    /**
+     * The folder, in the generated folder, of the files keeping the state of
+     * the generation of each WSDL document: fingerprint and manifest.
+     */
+    public static final String STATE_FOLDER = ".ksoap2-generator";
+
+    /**
+     * The extension of the manifests listing the generated files.
+     */
+    public static final String MANIFEST_EXTENSION = ".manifest";
+
+    /**
+     * Java logger.
+     */
+    private static Logger logger = Logger.getLogger(FileManager.class.getName());
+
     /**
      * Prohibits instantiation.
      */
@@ -171,21 +198,13 @@ public final class FileManager {
      */
     public static void createFolder(final String path) throws GeneratorException {
         Util.checkNull(path);
-        StringTokenizer tokens = new StringTokenizer(path, separatorChar + "");
-        StringBuffer buffer = new StringBuffer();
-        if (separatorChar == '/') {
-            buffer.append(separatorChar);
+        if (new File(path).isDirectory()) {
+            return; // the package of most classes already exists
         }
-        while (tokens.hasMoreElements()) {
-            buffer.append((String) tokens.nextElement() + separatorChar);
-            String subpath = buffer.toString();
-            File file = new File(subpath);
-            /*
-             * if folder doesn't exist and doesn't be created, return false.
-             */
-            if ((!file.mkdir()) && (!file.exists())) {
-                throw new GeneratorException(FOLDER_CREATION_ERR + subpath);
-            }
+        try {
+            Files.createDirectories(Paths.get(path));
+        } catch (IOException e) {
+            throw new GeneratorException(FOLDER_CREATION_ERR + path, e);
         }
     }
 
@@ -222,8 +241,8 @@ public final class FileManager {
     /**
      * Creates file in J2ME.
      *
-     * @param clazz
-     *              The class.
+     * @param name
+     *              The fully qualified class name.
      * @param writer
      *              The writer.
      * @param generatedFolder
@@ -231,11 +250,10 @@ public final class FileManager {
      * @throws GeneratorException
      *              The generation exception.
      */
-    public static void createFileInJ2me(final Class <?> clazz, final Writer writer, final String generatedFolder) throws GeneratorException {
-        Util.checkNull(clazz, writer, generatedFolder);
-        String name = clazz.getName();
-        String simpleName = clazz.getSimpleName();
+    public static void createFileInJ2me(final String name, final Writer writer, final String generatedFolder) throws GeneratorException {
+        Util.checkNull(name, writer, generatedFolder);
         int index = name.lastIndexOf('.');
+        String simpleName = name.substring(index + 1);
         if (index < 0) {
             createFolder(generatedFolder);
             saveFile(generatedFolder + separatorChar + simpleName + ".java",
@@ -250,16 +268,16 @@ public final class FileManager {
     }
 
     /**
-     * Creates temp file.
+     * Creates a temp folder of a unique name, in the temp folder of the
+     * system.
      *
-     * @return Path to temp file.
+     * @return Path to the temp folder.
      * @throws GeneratorException
      *              The generation exception.
      */
-    public static String createTempFile() throws GeneratorException {
+    public static String createTempFolder() throws GeneratorException {
         try {
-            return File.createTempFile("__ksoap2", "__wsclientStub.jar")
-                    .getCanonicalPath();
+            return Files.createTempDirectory("__ksoap2").toFile().getCanonicalPath();
         } catch (IOException e) {
             throw new GeneratorException(e);
         }
@@ -268,35 +286,158 @@ public final class FileManager {
     /**
      * Creates the Configuration class.
      *
-     * @param serviceName
-     *              The service name.
+     * @param packageName
+     *              The package of the Configuration class, empty for the
+     *              default package.
      * @param generatedFolder
      *              The generated folder.
      * @throws GeneratorException
      *              The generation exception.
      */
-    public static void copyConf(final String serviceName, final String generatedFolder) throws GeneratorException {
+    public static void copyConf(final String packageName, final String generatedFolder) throws GeneratorException {
 
-        Util.checkNull(serviceName);
-        int index = serviceName.lastIndexOf('.');
-        String insertedPackageName = null;
+        Util.checkNull(packageName);
         String path = null;
         String simpleName = "Configuration.java";
-        if (index < 0) {
-            insertedPackageName = "";
+        if (packageName.isEmpty()) {
             path = generatedFolder + separatorChar + simpleName;
         } else {
-            insertedPackageName = "package " + serviceName.substring(0, index) + ";\n";
-            path = generatedFolder + separatorChar + serviceName.substring(0,
-                    index).replace('.', separatorChar) + separatorChar
-                    + simpleName;
+            path = generatedFolder + separatorChar + packageName.replace('.',
+                    separatorChar) + separatorChar + simpleName;
         }
-        String packageName = "package ksoap2.generator;"; // defined in Conf
-        String content = getContent(FileManager.class.getResourceAsStream("Configuration.txt"));
-        content = content.replace(packageName, insertedPackageName);
 
 	    createFolder(path.replace(simpleName, ""));
-        saveFile(path, content);
+        saveFile(path, getConfiguration(packageName));
+    }
+
+    /**
+     * Gets the code of the Configuration class.
+     *
+     * @param packageName
+     *              The package of the Configuration class, empty for the
+     *              default package.
+     * @return The code of the Configuration class.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    public static String getConfiguration(final String packageName) throws GeneratorException {
+        Util.checkNull(packageName);
+        String insertedPackageName = packageName.isEmpty() ? "" : "package " + packageName + ";\n";
+        String confPackageName = "package ksoap2.generator;"; // defined in Conf
+        String content = getContent(FileManager.class.getResourceAsStream("Configuration.txt"));
+        return content.replace(confPackageName, insertedPackageName);
+    }
+
+    /**
+     *
+     * @param className
+     *              The fully qualified class name.
+     * @return The path of the source file relative to the generated folder,
+     *              with '/' as separator.
+     */
+    public static String getSourcePath(final String className) {
+        return className.replace('.', '/') + ".java";
+    }
+
+    /**
+     * Gets a file keeping the state of the generation of a WSDL document in
+     * the generated folder. Several WSDL documents can be generated in the
+     * same folder, each one has its own state files.
+     *
+     * @param generatedFolder
+     *              The generated folder.
+     * @param wsdl
+     *              The file path or the URL of the WSDL document.
+     * @param extension
+     *              The extension of the state file.
+     * @return The state file.
+     */
+    public static File getStateFile(final String generatedFolder, final String wsdl, final String extension) {
+        String id = WsdlCache.sha256(wsdl.getBytes(StandardCharsets.UTF_8)).substring(0, 16);
+        return new File(new File(generatedFolder, STATE_FOLDER), id + extension);
+    }
+
+    /**
+     * Updates the manifest of a WSDL document with the classes generated by
+     * this run, and deletes the files listed by its previous manifest which
+     * don't belong to this run anymore, unless the manifest of another WSDL
+     * document lists them. The files which were never listed in a manifest
+     * are left untouched.
+     *
+     * @param generatedFolder
+     *              The generated folder.
+     * @param manifest
+     *              The manifest of the WSDL document, see
+     *              {@link #getStateFile(String, String, String)}.
+     * @param classNames
+     *              The fully qualified names of all the classes of this run,
+     *              even those which were up to date.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    public static void updateManifest(final String generatedFolder, final File manifest,
+            final Collection<String> classNames) throws GeneratorException {
+        Util.checkNull(generatedFolder, manifest, classNames);
+        TreeSet<String> paths = new TreeSet<String>();
+        for (String className : classNames) {
+            paths.add(getSourcePath(className));
+        }
+        if (manifest.isFile()) {
+            TreeSet<String> kept = new TreeSet<String>(paths);
+            File [] manifests = manifest.getParentFile().listFiles();
+            for (File other : manifests) {
+                if (!other.equals(manifest) && other.getName().endsWith(MANIFEST_EXTENSION)) {
+                    kept.addAll(readLines(other));
+                }
+            }
+            for (String path : readLines(manifest)) {
+                if (!path.isEmpty() && !kept.contains(path)) {
+                    removeStaleFile(new File(generatedFolder), path);
+                }
+            }
+        }
+        StringBuilder content = new StringBuilder();
+        for (String path : paths) {
+            content.append(path).append('\n');
+        }
+        createFolder(manifest.getParent());
+        saveFile(manifest.getPath(), content.toString());
+    }
+
+    /**
+     *
+     * @param file
+     *              The file.
+     * @return The lines of the file.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    private static List<String> readLines(final File file) throws GeneratorException {
+        try {
+            return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new GeneratorException(e);
+        }
+    }
+
+    /**
+     * Deletes a file which is not generated anymore, and its parent folders
+     * left empty.
+     *
+     * @param generatedFolder
+     *              The generated folder.
+     * @param path
+     *              The path of the file relative to the generated folder.
+     */
+    private static void removeStaleFile(final File generatedFolder, final String path) {
+        File file = new File(generatedFolder, path.replace('/', separatorChar));
+        if (file.isFile() && file.delete()) {
+            logger.info("stale file removed: " + file);
+            File parent = file.getParentFile();
+            while (!parent.equals(generatedFolder) && parent.delete()) { // only empty folders are deleted
+                parent = parent.getParentFile();
+            }
+        }
     }
 
     /**
@@ -318,7 +459,8 @@ public final class FileManager {
     }
 
     /**
-     * Saves content in <tt>writer</tt> into file of given <tt>path</tt>.
+     * Saves content in <tt>writer</tt> into file of given <tt>path</tt>. The
+     * content is logged at the <tt>FINE</tt> level only.
      *
      * @param path
      *              The path.
@@ -328,11 +470,21 @@ public final class FileManager {
      *              The generation exception.
      */
     private static void saveFile(final String path, final Writer writer) throws GeneratorException {
-        saveFile(path, writer.toString());
+        writer.close();
+        String content = writer.toString();
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("the content of " + path + ":\n" + content);
+        }
+        saveFile(path, content);
     }
 
     /**
-     * Saves content in <tt>content</tt> into file of given <tt>path</tt>.
+     * Saves content in <tt>content</tt> into file of given <tt>path</tt>,
+     * encoded in UTF-8. The file is left untouched if it already has this
+     * content, so that its modification date doesn't trigger a compilation
+     * downstream. Otherwise the content is written to a temp file in the
+     * same folder, which is then moved to the path, so that the file is
+     * never seen half written.
      *
      * @param path
      *              The path.
@@ -342,13 +494,75 @@ public final class FileManager {
      *              The generation exception.
      */
     private static void saveFile(final String path, final String content) throws GeneratorException {
+        saveFile(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Saves the bytes into the file of given <tt>path</tt>, left untouched
+     * if it already has them, through a temp file otherwise: see
+     * {@link #saveFile(String, String)}.
+     *
+     * @param path
+     *              The path.
+     * @param bytes
+     *              The content.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    public static void saveFile(final String path, final byte [] bytes) throws GeneratorException {
+        long start = System.nanoTime();
+        Path target = Paths.get(path);
+        Path temp = null;
         try {
-            DataOutputStream output = new DataOutputStream(new FileOutputStream(path));
-            output.writeBytes(content);
-        } catch (FileNotFoundException e) {
-            throw new GeneratorException(e);
+            if (hasContent(target.toFile(), bytes)) {
+                GenerationReport.fileSaved(bytes.length, false, System.nanoTime() - start);
+                return;
+            }
+            // not Files.createTempFile, whose permissions would be kept by
+            // the generated file
+            temp = target.resolveSibling(target.getFileName() + "." + Thread.currentThread().getId()
+                    + "." + Long.toHexString(System.nanoTime()) + ".tmp");
+            FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } finally {
+                channel.close();
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+            GenerationReport.fileSaved(bytes.length, true, System.nanoTime() - start);
         } catch (IOException e) {
             throw new GeneratorException(e);
+        } finally {
+            if (temp != null) {
+                temp.toFile().delete();
+            }
+        }
+    }
+
+    /**
+     * Checks whether the file already has the content: the sizes are
+     * compared first, the bytes only if they match.
+     *
+     * @param file
+     *              The file.
+     * @param bytes
+     *              The content.
+     * @return <tt>true</tt> if the file has the content.
+     * @throws IOException
+     *              The exception.
+     */
+    private static boolean hasContent(final File file, final byte [] bytes) throws IOException {
+        if (!file.isFile() || file.length() != bytes.length) {
+            return false;
         }
+        return Arrays.equals(bytes, Files.readAllBytes(file.toPath()));
     }
 }
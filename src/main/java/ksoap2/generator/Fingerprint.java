@@ -0,0 +1,449 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Fingerprint of the generation of a WSDL document, stored in the generated
+ * folder (see {@link FileManager#getStateFile(String, String, String)}). It
+ * records
+ * the generator build, the options, the content hash of the WSDL document
+ * and of every document it imports, and a hash of the model of every
+ * generated type.
+ * <p>
+ * When the generator, the options and the documents are unchanged, the run
+ * is skipped. Otherwise, only the types whose model changed are generated
+ * again.
+ *
+ */
+public final class Fingerprint {
+
+    /**
+     * The extension of the fingerprint files.
+     */
+    public static final String EXTENSION = ".fingerprint";
+
+    /**
+     * The prefix of the document entries.
+     */
+    private static final String DOCUMENT = "document.";
+
+    /**
+     * The prefix of the type entries.
+     */
+    private static final String TYPE = "type.";
+
+    /**
+     * The stamp of the generator build, computed once.
+     */
+    private static String generatorStamp;
+
+    /**
+     * The generator build and the options.
+     */
+    private final String options;
+
+    /**
+     * The content hash of the documents, by URL.
+     */
+    private final Map<String, String> documents;
+
+    /**
+     * The hash of the model of the generated types, by class name.
+     */
+    private final Map<String, String> types = new LinkedHashMap<String, String>();
+
+    /**
+     * Constructor.
+     *
+     * @param options
+     *              The generator build and the options, see
+     *              {@link #options(String...)}.
+     * @param documents
+     *              The content hash of the documents, by URL.
+     */
+    public Fingerprint(final String options, final Map<String, String> documents) {
+        this.options = options;
+        this.documents = documents;
+    }
+
+    /**
+     * Builds the options part of the fingerprint, the stamp of the generator
+     * build included.
+     *
+     * @param values
+     *              The values of the options changing the generated code,
+     *              the target first.
+     * @return The options.
+     * @throws GeneratorException
+     *              The exception if the generator build cannot be read.
+     */
+    public static String options(final String... values) throws GeneratorException {
+        StringBuilder builder = new StringBuilder(getGeneratorStamp());
+        for (String value : values) {
+            builder.append(';').append(value);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Hashes the documents.
+     *
+     * @param uris
+     *              The URLs of the documents.
+     * @return The content hash of the documents, by URL.
+     * @throws GeneratorException
+     *              The exception if a document cannot be read.
+     */
+    public static Map<String, String> hashDocuments(final Iterable<String> uris) throws GeneratorException {
+        Map<String, String> hashes = new LinkedHashMap<String, String>();
+        for (String uri : uris) {
+            hashes.put(uri, WsdlCache.sha256(read(uri)));
+        }
+        return hashes;
+    }
+
+    /**
+     * Hashes a WSDL document and the documents it imports, from their
+     * contents already read if possible.
+     *
+     * @param wsdl
+     *              The WSDL document.
+     * @return The content hash of the documents, by URL.
+     * @throws GeneratorException
+     *              The exception if a document cannot be read.
+     */
+    public static Map<String, String> hashDocuments(final WsdlDocument wsdl) throws GeneratorException {
+        Map<String, String> hashes = new LinkedHashMap<String, String>();
+        for (String uri : wsdl.getDocumentUris()) {
+            byte [] content = wsdl.getContent(uri);
+            hashes.put(uri, WsdlCache.sha256((content == null) ? read(uri) : content));
+        }
+        return hashes;
+    }
+
+    /**
+     *
+     * @param uri
+     *              The URL of the document.
+     * @return The content of the document.
+     * @throws GeneratorException
+     *              The exception if the document cannot be read.
+     */
+    private static byte [] read(final String uri) throws GeneratorException {
+        try {
+            InputStream input = new URL(uri).openStream();
+            try {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                byte [] buffer = new byte[8192];
+                int readBytes;
+                while ((readBytes = input.read(buffer)) >= 0) {
+                    output.write(buffer, 0, readBytes);
+                }
+                return output.toByteArray();
+            } finally {
+                input.close();
+            }
+        } catch (IOException e) {
+            throw new GeneratorException(e);
+        }
+    }
+
+    /**
+     * Loads the fingerprint of the last generation.
+     *
+     * @param file
+     *              The fingerprint file.
+     * @return The fingerprint, or <tt>null</tt> if there is none.
+     */
+    public static Fingerprint load(final File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try {
+            InputStream input = Files.newInputStream(file.toPath());
+            try {
+                properties.load(input);
+            } finally {
+                input.close();
+            }
+        } catch (IOException e) {
+            return null; // generates everything again
+        }
+        String options = properties.getProperty("options");
+        if (options == null) {
+            return null;
+        }
+        Map<String, String> documents = new LinkedHashMap<String, String>();
+        Fingerprint fingerprint = new Fingerprint(options, documents);
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(DOCUMENT)) {
+                documents.put(key.substring(DOCUMENT.length()), properties.getProperty(key));
+            } else if (key.startsWith(TYPE)) {
+                fingerprint.types.put(key.substring(TYPE.length()), properties.getProperty(key));
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Stores the fingerprint.
+     *
+     * @param file
+     *              The fingerprint file.
+     * @throws GeneratorException
+     *              The exception.
+     */
+    public void store(final File file) throws GeneratorException {
+        Properties properties = new Properties();
+        properties.setProperty("options", options);
+        for (Map.Entry<String, String> document : documents.entrySet()) {
+            properties.setProperty(DOCUMENT + document.getKey(), document.getValue());
+        }
+        for (Map.Entry<String, String> type : types.entrySet()) {
+            properties.setProperty(TYPE + type.getKey(), type.getValue());
+        }
+        try {
+            FileManager.createFolder(file.getParent());
+            OutputStream output = Files.newOutputStream(file.toPath());
+            try {
+                properties.store(output, "ksoap2-generator");
+            } finally {
+                output.close();
+            }
+        } catch (IOException e) {
+            throw new GeneratorException(e);
+        }
+    }
+
+    /**
+     *
+     * @return The generator build and the options.
+     */
+    public String getOptions() {
+        return options;
+    }
+
+    /**
+     *
+     * @return The URLs of the documents.
+     */
+    public Set<String> getDocumentUris() {
+        return Collections.unmodifiableSet(documents.keySet());
+    }
+
+    /**
+     * Checks whether the last generation is up to date: same generator, same
+     * options, same documents, and all the generated types still exist.
+     *
+     * @param currentOptions
+     *              The options of this run.
+     * @param generatedFolder
+     *              The generated folder.
+     * @return <tt>true</tt> if the generation can be skipped.
+     */
+    public boolean isUpToDate(final String currentOptions, final String generatedFolder) {
+        if (!options.equals(currentOptions) || documents.isEmpty()) {
+            return false;
+        }
+        for (String className : types.keySet()) {
+            if (!getSourceFile(generatedFolder, className).isFile()) {
+                return false;
+            }
+        }
+        try {
+            return documents.equals(hashDocuments(documents.keySet()));
+        } catch (GeneratorException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether the type was generated by the last generation from the
+     * same model.
+     *
+     * @param className
+     *              The class name of the type.
+     * @param hash
+     *              The hash of the model of the type.
+     * @param generatedFolder
+     *              The generated folder.
+     * @return <tt>true</tt> if the type doesn't need to be generated again.
+     */
+    public boolean hasType(final String className, final String hash, final String generatedFolder) {
+        return hash.equals(types.get(className)) && getSourceFile(generatedFolder, className).isFile();
+    }
+
+    /**
+     * Records the type.
+     *
+     * @param className
+     *              The class name of the type.
+     * @param hash
+     *              The hash of the model of the type.
+     */
+    public void putType(final String className, final String hash) {
+        types.put(className, hash);
+    }
+
+    /**
+     *
+     * @param bean
+     *              The complex type.
+     * @return The hash of the model of the complex type.
+     */
+    public static String hash(final BeanModel bean) {
+        StringBuilder builder = new StringBuilder("bean ").append(bean.getClassName())
+                .append(' ').append(bean.getPropertyCount()).append('\n');
+        for (PropertyModel property : bean.getProperties()) {
+            builder.append(property.getName()).append(' ').append(property.getModifiers())
+                    .append(' ').append(property.getType()).append(' ')
+                    .append(property.isComplex()).append('\n');
+        }
+        return hash(builder);
+    }
+
+    /**
+     *
+     * @param service
+     *              The service.
+     * @return The hash of the model of the service.
+     */
+    public static String hash(final ServiceModel service) {
+        StringBuilder builder = new StringBuilder("service ").append(service.getClassName())
+                .append(' ').append(service.getConfigurationPackage()).append('\n');
+        for (OperationModel operation : service.getOperations()) {
+            builder.append(operation.getMethodName()).append(' ')
+                    .append(operation.getOperationName()).append(' ')
+                    .append(operation.getModifiers()).append(' ')
+                    .append(operation.getReturnType()).append(' ')
+                    .append(operation.getNamespace()).append(' ')
+                    .append(operation.getSoapAction());
+            for (ParameterModel parameter : operation.getParameters()) {
+                builder.append(' ').append(parameter.getType()).append(' ').append(parameter.getName());
+            }
+            builder.append('\n');
+        }
+        return hash(builder);
+    }
+
+    /**
+     *
+     * @param text
+     *              The text.
+     * @return The SHA-256 of the text.
+     */
+    private static String hash(final CharSequence text) {
+        return WsdlCache.sha256(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     *
+     * @param generatedFolder
+     *              The generated folder.
+     * @param className
+     *              The class name.
+     * @return The source file of the class.
+     */
+    private static File getSourceFile(final String generatedFolder, final String className) {
+        return new File(generatedFolder, FileManager.getSourcePath(className));
+    }
+
+    /**
+     * Gets the stamp of the generator build: the size and the modification
+     * date of the jar, or of the class files, the generator is loaded from.
+     *
+     * @return The stamp.
+     * @throws GeneratorException
+     *              The exception if the generator build cannot be read.
+     */
+    private static synchronized String getGeneratorStamp() throws GeneratorException {
+        if (generatorStamp == null) {
+            CodeSource source = Fingerprint.class.getProtectionDomain().getCodeSource();
+            if (source == null || source.getLocation() == null) {
+                throw new GeneratorException("the location of the generator is unknown");
+            }
+            File location;
+            try {
+                location = new File(source.getLocation().toURI());
+            } catch (URISyntaxException e) {
+                throw new GeneratorException(e);
+            }
+            List<String> files = new ArrayList<String>();
+            stamp(files, location, "");
+            Collections.sort(files);
+            StringBuilder builder = new StringBuilder();
+            for (String file : files) {
+                builder.append(file).append('\n');
+            }
+            generatorStamp = hash(builder);
+        }
+        return generatorStamp;
+    }
+
+    /**
+     * Adds the stamps of the file, or of the files in the folder.
+     *
+     * @param stamps
+     *              The stamps.
+     * @param file
+     *              The file or the folder.
+     * @param path
+     *              The relative path of the file.
+     */
+    private static void stamp(final List<String> stamps, final File file, final String path) {
+        if (file.isDirectory()) {
+            File [] children = file.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    stamp(stamps, child, path + '/' + child.getName());
+                }
+            }
+        } else {
+            stamps.add(path + ' ' + file.length() + ' ' + file.lastModified());
+        }
+    }
+}
@@ -0,0 +1,551 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+package ksoap2.generator;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Report of the cost of a generation run, written in JSON with the
+ * <tt>--report</tt> option. Each WSDL document has its phases (fetch, parse,
+ * emit J2SE, compile, jar, load, emit ksoap2...) with their wall time, CPU
+ * time, allocated bytes and peak heap, the emission time of each type and
+ * the number and size of the files written.
+ * <p>
+ * A document is bound to the thread generating it, the static methods
+ * record into the document bound to the current thread and do nothing when
+ * there is none, so the generation is not slowed down without a report.
+ * The CPU time and the allocated bytes are those of the thread running the
+ * phase, the types generated by other threads are reported in their own
+ * timings. The peak heap is the one of the JVM during the phase, it is only
+ * meaningful when the documents are generated one after the other.
+ *
+ */
+public final class GenerationReport {
+
+    /**
+     * The document bound to the current thread.
+     */
+    private static final ThreadLocal<Document> BOUND = new ThreadLocal<Document>();
+
+    /**
+     * The thread bean, for the CPU time and the allocated bytes.
+     */
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /**
+     * The date of the run.
+     */
+    private final Date date = new Date();
+
+    /**
+     * The start of the run, in nanoseconds.
+     */
+    private final long start = System.nanoTime();
+
+    /**
+     * The documents of the run, in the order they were started.
+     */
+    private final List<Document> documents = new ArrayList<Document>();
+
+    /**
+     * Adds a WSDL document to the report.
+     *
+     * @param wsdl
+     *              The file path or the URL of the WSDL document.
+     * @param folder
+     *              The generated folder.
+     * @return The report of the document, to bind to the thread
+     *              generating it.
+     */
+    public Document addDocument(final String wsdl, final String folder) {
+        Document document = new Document(wsdl, folder);
+        synchronized (documents) {
+            documents.add(document);
+        }
+        return document;
+    }
+
+    /**
+     * Writes the report in JSON, encoded in UTF-8.
+     *
+     * @param path
+     *              The path of the report.
+     * @throws GeneratorException
+     *              The exception if the report cannot be written.
+     */
+    public void write(final String path) throws GeneratorException {
+        Util.checkNull(path);
+        try {
+            Files.write(Paths.get(path), toJson().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new GeneratorException(e);
+        }
+    }
+
+    /**
+     *
+     * @return The report in JSON.
+     */
+    public String toJson() {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.ROOT);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"date\": ").append(quote(format.format(date)));
+        json.append(",\n  \"javaVersion\": ").append(quote(System.getProperty("java.version")));
+        json.append(",\n  \"processors\": ").append(Runtime.getRuntime().availableProcessors());
+        json.append(",\n  \"wallMillis\": ").append(millis(System.nanoTime() - start));
+        json.append(",\n  \"documents\": [");
+        synchronized (documents) {
+            for (int i = 0; i < documents.size(); i++) {
+                json.append((i == 0) ? "\n" : ",\n");
+                documents.get(i).appendTo(json);
+            }
+        }
+        json.append("\n  ]\n}\n");
+        return json.toString();
+    }
+
+    /**
+     * Starts a phase of the document bound to the current thread.
+     *
+     * @param name
+     *              The name of the phase.
+     * @return The phase, to end once done. It records nothing if no
+     *              document is bound.
+     */
+    public static Phase start(final String name) {
+        return new Phase(BOUND.get(), name);
+    }
+
+    /**
+     * Records the emission of a type in the document bound to the current
+     * thread.
+     *
+     * @param className
+     *              The fully qualified name of the class.
+     * @param emitNanos
+     *              The time spent generating the code, in nanoseconds.
+     * @param writeNanos
+     *              The time spent saving the file, in nanoseconds.
+     */
+    public static void typeGenerated(final String className, final long emitNanos, final long writeNanos) {
+        Document document = BOUND.get();
+        if (document != null) {
+            synchronized (document.types) {
+                document.types.add(new TypeTiming(className, emitNanos, writeNanos));
+            }
+        }
+    }
+
+    /**
+     * Records a file saved for the document bound to the current thread.
+     *
+     * @param bytes
+     *              The size of the content.
+     * @param written
+     *              <tt>false</tt> if the file already had the content.
+     * @param nanos
+     *              The time spent, in nanoseconds.
+     */
+    public static void fileSaved(final long bytes, final boolean written, final long nanos) {
+        Document document = BOUND.get();
+        if (document != null) {
+            if (written) {
+                document.writtenFiles.incrementAndGet();
+                document.writtenBytes.addAndGet(bytes);
+            } else {
+                document.unchangedFiles.incrementAndGet();
+            }
+            document.saveNanos.addAndGet(nanos);
+        }
+    }
+
+    /**
+     * Records the outcome of the document bound to the current thread.
+     *
+     * @param outcome
+     *              The outcome: <tt>up to date</tt>, <tt>native</tt>,
+     *              <tt>axis</tt> or <tt>failed</tt>.
+     */
+    public static void outcome(final String outcome) {
+        Document document = BOUND.get();
+        if (document != null) {
+            document.outcome = outcome;
+        }
+    }
+
+    /**
+     *
+     * @return The document bound to the current thread, or <tt>null</tt>.
+     */
+    public static Document current() {
+        return BOUND.get();
+    }
+
+    /**
+     * Unbinds the document from the current thread.
+     */
+    public static void unbind() {
+        BOUND.remove();
+    }
+
+    /**
+     * Formats a duration in milliseconds.
+     *
+     * @param nanos
+     *              The duration in nanoseconds.
+     * @return The duration in milliseconds, with 3 decimals.
+     */
+    private static String millis(final long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    /**
+     * Quotes a JSON string.
+     *
+     * @param value
+     *              The value, or <tt>null</tt>.
+     * @return The JSON string.
+     */
+    static String quote(final String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                json.append("\\\"");
+                break;
+            case '\\':
+                json.append("\\\\");
+                break;
+            case '\n':
+                json.append("\\n");
+                break;
+            case '\r':
+                json.append("\\r");
+                break;
+            case '\t':
+                json.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    json.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                } else {
+                    json.append(c);
+                }
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    /**
+     *
+     * @return The CPU time of the current thread in nanoseconds, or -1 if
+     *              it is not supported.
+     */
+    private static long cpuTime() {
+        if (!THREADS.isCurrentThreadCpuTimeSupported()) {
+            return -1;
+        }
+        return THREADS.getCurrentThreadCpuTime();
+    }
+
+    /**
+     *
+     * @return The bytes allocated by the current thread, or -1 if it is not
+     *              supported by the JVM.
+     */
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Resets the peak usage of the heap pools.
+     */
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     *
+     * @return The sum of the peak usages of the heap pools since the last
+     *              reset.
+     */
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * Report of a WSDL document.
+     */
+    public static final class Document {
+
+        /**
+         * The file path or the URL of the WSDL document.
+         */
+        private final String wsdl;
+
+        /**
+         * The generated folder.
+         */
+        private final String folder;
+
+        /**
+         * The outcome of the generation.
+         */
+        private volatile String outcome;
+
+        /**
+         * The phases, in the order they ended.
+         */
+        private final List<String> phases = new ArrayList<String>();
+
+        /**
+         * The types generated.
+         */
+        private final List<TypeTiming> types = new ArrayList<TypeTiming>();
+
+        /**
+         * The number of files written.
+         */
+        private final AtomicInteger writtenFiles = new AtomicInteger();
+
+        /**
+         * The number of files left untouched, as they had the content.
+         */
+        private final AtomicInteger unchangedFiles = new AtomicInteger();
+
+        /**
+         * The number of bytes written.
+         */
+        private final AtomicLong writtenBytes = new AtomicLong();
+
+        /**
+         * The time spent saving the files, in nanoseconds.
+         */
+        private final AtomicLong saveNanos = new AtomicLong();
+
+        /**
+         * Constructor.
+         *
+         * @param wsdl
+         *              The file path or the URL of the WSDL document.
+         * @param folder
+         *              The generated folder.
+         */
+        private Document(final String wsdl, final String folder) {
+            this.wsdl = wsdl;
+            this.folder = folder;
+        }
+
+        /**
+         * Binds this document to the current thread.
+         */
+        public void bind() {
+            BOUND.set(this);
+        }
+
+        /**
+         * Appends the document in JSON.
+         *
+         * @param json
+         *              The JSON.
+         */
+        private void appendTo(final StringBuilder json) {
+            json.append("    {\n      \"wsdl\": ").append(quote(wsdl));
+            json.append(",\n      \"folder\": ").append(quote(folder));
+            json.append(",\n      \"outcome\": ").append(quote(outcome));
+            json.append(",\n      \"phases\": [");
+            synchronized (phases) {
+                for (int i = 0; i < phases.size(); i++) {
+                    json.append((i == 0) ? "\n        " : ",\n        ").append(phases.get(i));
+                }
+            }
+            json.append("\n      ],\n      \"types\": [");
+            synchronized (types) {
+                for (int i = 0; i < types.size(); i++) {
+                    TypeTiming type = types.get(i);
+                    json.append((i == 0) ? "\n        " : ",\n        ");
+                    json.append("{\"className\": ").append(quote(type.className));
+                    json.append(", \"emitMillis\": ").append(millis(type.emitNanos));
+                    json.append(", \"writeMillis\": ").append(millis(type.writeNanos)).append('}');
+                }
+            }
+            json.append("\n      ],\n      \"files\": {\"written\": ").append(writtenFiles.get());
+            json.append(", \"unchanged\": ").append(unchangedFiles.get());
+            json.append(", \"bytesWritten\": ").append(writtenBytes.get());
+            json.append(", \"writeMillis\": ").append(millis(saveNanos.get())).append("}\n    }");
+        }
+    }
+
+    /**
+     * Phase of the generation of a document, measured from its start to its
+     * end on the same thread.
+     */
+    public static final class Phase {
+
+        /**
+         * The document, or <tt>null</tt> if nothing is recorded.
+         */
+        private final Document document;
+
+        /**
+         * The name of the phase.
+         */
+        private final String name;
+
+        /**
+         * The wall time at the start, in nanoseconds.
+         */
+        private final long wall;
+
+        /**
+         * The CPU time at the start, in nanoseconds.
+         */
+        private final long cpu;
+
+        /**
+         * The bytes allocated by the thread at the start.
+         */
+        private final long allocated;
+
+        /**
+         * Constructor.
+         *
+         * @param document
+         *              The document, or <tt>null</tt>.
+         * @param name
+         *              The name of the phase.
+         */
+        private Phase(final Document document, final String name) {
+            this.document = document;
+            this.name = name;
+            if (document == null) {
+                wall = 0;
+                cpu = 0;
+                allocated = 0;
+            } else {
+                resetPeakHeap();
+                allocated = allocatedBytes();
+                cpu = cpuTime();
+                wall = System.nanoTime();
+            }
+        }
+
+        /**
+         * Ends the phase and records it.
+         */
+        public void end() {
+            if (document == null) {
+                return;
+            }
+            long wallNanos = System.nanoTime() - wall;
+            long cpuNanos = (cpu < 0) ? -1 : cpuTime() - cpu;
+            long bytes = (allocated < 0) ? -1 : allocatedBytes() - allocated;
+            StringBuilder json = new StringBuilder();
+            json.append("{\"name\": ").append(quote(name));
+            json.append(", \"wallMillis\": ").append(millis(wallNanos));
+            json.append(", \"cpuMillis\": ").append((cpuNanos < 0) ? "null" : millis(cpuNanos));
+            json.append(", \"allocatedBytes\": ").append((bytes < 0) ? "null" : String.valueOf(bytes));
+            json.append(", \"peakHeapBytes\": ").append(peakHeap()).append('}');
+            synchronized (document.phases) {
+                document.phases.add(json.toString());
+            }
+        }
+    }
+
+    /**
+     * Timing of the emission of a type.
+     */
+    private static final class TypeTiming {
+
+        /**
+         * The fully qualified name of the class.
+         */
+        private final String className;
+
+        /**
+         * The time spent generating the code, in nanoseconds.
+         */
+        private final long emitNanos;
+
+        /**
+         * The time spent saving the file, in nanoseconds.
+         */
+        private final long writeNanos;
+
+        /**
+         * Constructor.
+         *
+         * @param className
+         *              The fully qualified name of the class.
+         * @param emitNanos
+         *              The time spent generating the code, in nanoseconds.
+         * @param writeNanos
+         *              The time spent saving the file, in nanoseconds.
+         */
+        TypeTiming(final String className, final long emitNanos, final long writeNanos) {
+            this.className = className;
+            this.emitNanos = emitNanos;
+            this.writeNanos = writeNanos;
+        }
+    }
+}
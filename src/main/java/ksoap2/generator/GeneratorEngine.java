@@ -0,0 +1,529 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+package ksoap2.generator;
+
+import javax.wsdl.Definition;
+import javax.xml.namespace.QName;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Generates the code of the clients from the WSDL documents, without the
+ * command line: the entry point for the programs embedding the generator,
+ * such as a build daemon or an IDE plugin.
+ * <p>
+ * An engine has no state of its own besides the class loader of the
+ * generator, and reads nothing from the static fields: all the settings
+ * of a generation are in its {@link GeneratorOptions}, and the WSDL cache
+ * and the report are bound to the threads of the generation only. So the
+ * same engine is reused for many generations, in this JVM where axis,
+ * wsdl4j and the compiler are already loaded, and several generations
+ * may run at the same time. Nothing calls <tt>System.exit</tt>: the
+ * failures are thrown.
+ *
+ */
+public final class GeneratorEngine {
+
+    /**
+     * The separator char.
+     */
+    private final char separatorChar = java.io.File.separatorChar;
+
+    /**
+     * The logger.
+     */
+    private final Logger logger = Logger.getLogger(GeneratorEngine.class.getName());
+
+    /**
+     * The class loader of the generator, which the classes generated by axis
+     * are compiled against and loaded from.
+     */
+    private final ClassLoader loader;
+
+    /**
+     * Constructor, with the context class loader of the calling thread.
+     */
+    public GeneratorEngine() {
+        this(Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param loader
+     *              The class loader of the generator, which the classes
+     *              generated by axis are compiled against and loaded from.
+     */
+    public GeneratorEngine(final ClassLoader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Generates the code from the WSDL documents of the options. The WSDL
+     * documents whose generated code is up to date are skipped.
+     *
+     * @param options
+     *              The options.
+     * @return The number of documents generated, those which were up to
+     *              date excluded.
+     * @throws Exception
+     *              The exception if a document failed.
+     */
+    public int generate(final GeneratorOptions options) throws Exception {
+        Util.checkNull(options);
+        // a new cache for each generation, its memo must not hide a change
+        WsdlCache cache = null;
+        if (options.getCacheFolder() != null) {
+            cache = new WsdlCache(options.getCacheFolder(), options.isOffline());
+        }
+        GenerationReport report = (options.getReport() != null) ? new GenerationReport() : null;
+        ClassLoader prevCl = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(loader);
+        try {
+            List<GeneratorOptions.Job> jobs = options.getJobs();
+            if (jobs.size() == 1) {
+                GeneratorOptions.Job job = jobs.get(0);
+                return generate(options, cache, report, job.getWsdlLocation(), job.getGeneratedFolder(),
+                        options.getThreads()) ? 1 : 0;
+            }
+            return generateAll(options, cache, report);
+        } finally {
+            Thread.currentThread().setContextClassLoader(prevCl);
+            if (cache != null) {
+                logger.info("WSDL cache: " + cache.getHits() + " hit(s), " + cache.getRevalidations()
+                        + " revalidation(s), " + cache.getMisses() + " miss(es)");
+            }
+            if (report != null) {
+                report.write(options.getReport());
+            }
+        }
+    }
+
+    /**
+     * Generates the code from several WSDL documents in parallel, in the
+     * same JVM. The documents sharing a generated folder are generated one
+     * after the other, as their manifests are checked against each other.
+     * A failed document doesn't stop the others.
+     *
+     * @param options
+     *              The options.
+     * @param cache
+     *              The WSDL cache, or <tt>null</tt>.
+     * @param report
+     *              The report of the run, or <tt>null</tt>.
+     * @return The number of documents generated, those which were up to
+     *              date excluded.
+     * @throws Exception
+     *              The exception if a document failed.
+     */
+    private int generateAll(final GeneratorOptions options, final WsdlCache cache, final GenerationReport report) throws Exception {
+        final Map<String, List<String>> wsdlsByFolder = new LinkedHashMap<String, List<String>>();
+        for (GeneratorOptions.Job job : options.getJobs()) {
+            String folder = FileManager.getCanonicalPath(job.getGeneratedFolder());
+            List<String> wsdls = wsdlsByFolder.get(folder);
+            if (wsdls == null) {
+                wsdls = new ArrayList<String>();
+                wsdlsByFolder.put(folder, wsdls);
+            }
+            wsdls.add(job.getWsdlLocation());
+        }
+        int threads = options.getThreads();
+        // the threads generate the documents, or the types of a single folder
+        final int parallelism = (wsdlsByFolder.size() == 1) ? threads : 1;
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicInteger generated = new AtomicInteger();
+        // the threads inherit the context class loader of this thread
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, wsdlsByFolder.size())));
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (final Map.Entry<String, List<String>> entry : wsdlsByFolder.entrySet()) {
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (String wsdl : entry.getValue()) {
+                            try {
+                                if (generate(options, cache, report, wsdl, entry.getKey(), parallelism)) {
+                                    generated.incrementAndGet();
+                                }
+                            } catch (Exception e) {
+                                failures.incrementAndGet();
+                                logger.log(Level.SEVERE, "cannot generate " + wsdl, e);
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        int total = options.getJobs().size();
+        if (failures.get() > 0) {
+            throw new GeneratorException(failures.get() + " of " + total + " WSDL documents failed");
+        }
+        logger.info(generated.get() + " of " + total + " WSDL documents generated");
+        return generated.get();
+    }
+
+    /**
+     * Generates the code from a WSDL document, for all the targets. The
+     * document is read and its model built once, then the code of each
+     * target which is not up to date is emitted.
+     *
+     * @param options
+     *              The options.
+     * @param cache
+     *              The WSDL cache, bound to the current thread during the
+     *              generation, or <tt>null</tt>.
+     * @param report
+     *              The report of the run, which the document is added to,
+     *              or <tt>null</tt>.
+     * @param wsdlLocation
+     *              The file path or the URL of the WSDL document.
+     * @param folder
+     *              The generated folder.
+     * @param parallelism
+     *              The number of threads generating the complex types.
+     * @return <tt>true</tt> if the code was generated, <tt>false</tt> if it
+     *              was up to date.
+     * @throws Exception
+     *              The exception.
+     */
+    private boolean generate(final GeneratorOptions options, final WsdlCache cache, final GenerationReport report,
+            final String wsdlLocation, final String folder, final int parallelism) throws Exception {
+        String generatedFolder = FileManager.getCanonicalPath(folder);
+        if (cache != null) {
+            cache.bind();
+        }
+        if (report != null) {
+            report.addDocument(wsdlLocation, generatedFolder).bind();
+            GenerationReport.outcome("failed");
+        }
+        try {
+            List<Output> outputs = new ArrayList<Output>();
+            GenerationReport.Phase phase = GenerationReport.start("check");
+            try {
+                for (GeneratorOptions.Target target : options.getTargets()) {
+                    Output output = new Output(target.getHttpTransport(), target.getFolder(generatedFolder),
+                            getFingerprintOptions(options, target, wsdlLocation), wsdlLocation, options);
+                    Fingerprint previous = options.isForce() ? null : Fingerprint.load(output.fingerprintFile);
+                    if (previous != null) {
+                        if (previous.isUpToDate(output.options, output.folder) && output.hasArchives()) {
+                            continue;
+                        }
+                        if (!previous.getOptions().equals(output.options)) {
+                            previous = null; // generates all the types again
+                        }
+                    }
+                    output.previous = previous;
+                    outputs.add(output);
+                }
+            } finally {
+                phase.end();
+            }
+            if (outputs.isEmpty()) {
+                logger.info("the generated code is up to date: " + wsdlLocation);
+                GenerationReport.outcome("up to date");
+                return false;
+            }
+            WsdlDocument wsdl = WsdlDocument.read(wsdlLocation);
+            Definition definition = wsdl.getDefinition();
+            ClientModel model = null;
+            if (!options.isAxis()) {
+                phase = GenerationReport.start("model");
+                try {
+                    model = new WsdlModelBuilder(definition).build();
+                    logger.info("model built from the WSDL document");
+                    GenerationReport.outcome("native");
+                } catch (UnsupportedWsdlException e) {
+                    logger.info("generating through axis, unsupported: " + e.getMessage());
+                } finally {
+                    phase.end();
+                }
+            }
+            if (model == null) {
+                model = buildModelWithAxis(options, wsdl, SoapOperationIndex.of(definition));
+                GenerationReport.outcome("axis");
+            }
+            phase = GenerationReport.start("hash");
+            Map<String, String> documents;
+            try {
+                documents = Fingerprint.hashDocuments(wsdl);
+            } finally {
+                phase.end();
+            }
+            // only the emission is repeated for each target
+            for (Output output : outputs) {
+                Fingerprint next = new Fingerprint(output.options, documents);
+                WsClientGenerator generator = new WsClientGenerator(model, output.folder, output.previous, next);
+                generator.setParallelism(parallelism);
+                generator.setHttpTransport(output.httpTransport);
+                SourceArchive archive = null;
+                if (output.archive != null) {
+                    archive = new SourceArchive(options.isStored());
+                    generator.setArchive(archive);
+                }
+                phase = GenerationReport.start("emit ksoap2");
+                try {
+                    generator.run();
+                } finally {
+                    phase.end();
+                }
+                if (archive != null) {
+                    FileManager.createFolder(output.folder);
+                    phase = GenerationReport.start("archive");
+                    try {
+                        archive.write(output.archive);
+                    } finally {
+                        phase.end();
+                    }
+                    if (output.clientJar != null) {
+                        phase = GenerationReport.start("client jar");
+                        try {
+                            archive.compile(output.clientJar, options.getClientClasspath());
+                        } finally {
+                            phase.end();
+                        }
+                    }
+                }
+                phase = GenerationReport.start("state");
+                try {
+                    // with an archive, the source files of a previous generation are removed
+                    FileManager.updateManifest(output.folder, FileManager.getStateFile(output.folder,
+                            wsdlLocation, FileManager.MANIFEST_EXTENSION),
+                            (archive == null) ? generator.getClassNames() : Collections.<String>emptyList());
+                    next.store(output.fingerprintFile);
+                } finally {
+                    phase.end();
+                }
+            }
+            return true;
+        } finally {
+            if (cache != null) {
+                WsdlCache.unbind();
+            }
+            GenerationReport.unbind();
+        }
+    }
+
+    /**
+     * Builds the options part of the fingerprint of a target: the options
+     * changing its generated code.
+     *
+     * @param options
+     *              The options.
+     * @param target
+     *              The target.
+     * @param wsdlLocation
+     *              The file path or the URL of the WSDL document.
+     * @return The options part of the fingerprint.
+     * @throws GeneratorException
+     *              The exception if the generator build cannot be read.
+     */
+    private static String getFingerprintOptions(final GeneratorOptions options, final GeneratorOptions.Target target,
+            final String wsdlLocation) throws GeneratorException {
+        List<String> values = new ArrayList<String>();
+        values.add(target.getHttpTransport());
+        values.add("wsdl=" + wsdlLocation);
+        values.add("axis=" + options.isAxis());
+        if (options.getSourceArchive() != null) {
+            values.add("archive=" + options.getSourceArchive() + (options.isStored() ? ",stored" : ""));
+        }
+        if (options.getClientJar() != null) {
+            values.add("client=" + options.getClientJar() + "," + options.getClientClasspath());
+        }
+        return Fingerprint.options(values.toArray(new String[values.size()]));
+    }
+
+    /**
+     * Generates the code in J2SE with axis, compiles and loads it to build
+     * the model of the client by reflection. The code, the classes and the
+     * jar are stored in a temp folder of this run only, removed even if the
+     * generation fails, so the runs don't depend on each other.
+     *
+     * @param options
+     *              The options.
+     * @param wsdl
+     *              The WSDL document.
+     * @param operations
+     *              The operations of the WSDL document.
+     * @return The model.
+     * @throws Exception
+     *              The exception if the model cannot be built.
+     */
+    private ClientModel buildModelWithAxis(final GeneratorOptions options, final WsdlDocument wsdl, final SoapOperationIndex operations) throws Exception {
+        String workFolder = FileManager.createTempFolder();
+        try {
+            String sourceFolder = workFolder + separatorChar + "gen";
+            FileManager.createFolder(sourceFolder);
+            GenerationReport.Phase phase = GenerationReport.start("emit J2SE");
+            Map<String, QName> portTypes;
+            try {
+                logger.info("generating the J2SE code of " + wsdl.getUri() + " in " + sourceFolder);
+                portTypes = AxisWsdl2Java.generate(sourceFolder, wsdl);
+            } finally {
+                phase.end();
+            }
+            if (FileManager.getFileNames(sourceFolder).isEmpty()) {
+                throw new GeneratorException(ReflectionModelBuilder.NO_SERVICE_ERR);
+            }
+            ClassLoader axisLoader;
+            URLClassLoader jarLoader = null;
+            if (options.isInMemory()) {
+                phase = GenerationReport.start("compile");
+                try {
+                    axisLoader = new WsCompiler(sourceFolder).runInMemory(loader);
+                } finally {
+                    phase.end();
+                }
+            } else {
+                String classFolder = workFolder + separatorChar + "com";
+                FileManager.createFolder(classFolder);
+                phase = GenerationReport.start("compile");
+                try {
+                    new WsCompiler(sourceFolder, classFolder).run();
+                } finally {
+                    phase.end();
+                }
+                String jar = workFolder + separatorChar + "axis.jar";
+                phase = GenerationReport.start("jar");
+                try {
+                    CreatingJar.run(classFolder, jar);
+                } finally {
+                    phase.end();
+                }
+                jarLoader = new URLClassLoader(new URL[]{new File(jar).toURI().toURL()}, loader);
+                axisLoader = jarLoader;
+            }
+
+            phase = GenerationReport.start("load");
+            try {
+                return ReflectionModelBuilder.build(axisLoader, sourceFolder, operations, portTypes);
+            } finally {
+                phase.end();
+                if (jarLoader != null) {
+                    // releases the jar, so that the folder can be removed
+                    jarLoader.close();
+                }
+            }
+        } finally {
+            FileManager.removeFolder(workFolder);
+        }
+    }
+
+    /**
+     * The code of a target to generate from a WSDL document.
+     */
+    private static final class Output {
+
+        /**
+         * The HTTP transport class of the target.
+         */
+        private final String httpTransport;
+
+        /**
+         * The folder of the code of the target.
+         */
+        private final String folder;
+
+        /**
+         * The options part of the fingerprint.
+         */
+        private final String options;
+
+        /**
+         * The fingerprint file of the WSDL document in the folder.
+         */
+        private final File fingerprintFile;
+
+        /**
+         * The path of the source archive, or <tt>null</tt>.
+         */
+        private final String archive;
+
+        /**
+         * The path of the client jar, or <tt>null</tt>.
+         */
+        private final String clientJar;
+
+        /**
+         * The fingerprint of the last generation, or <tt>null</tt> to
+         * generate all the types.
+         */
+        private Fingerprint previous;
+
+        /**
+         * Constructor.
+         *
+         * @param httpTransport
+         *              The HTTP transport class of the target.
+         * @param folder
+         *              The folder of the code of the target.
+         * @param options
+         *              The options part of the fingerprint.
+         * @param wsdlLocation
+         *              The file path or the URL of the WSDL document.
+         * @param generatorOptions
+         *              The options of the generation.
+         */
+        Output(final String httpTransport, final String folder, final String options, final String wsdlLocation,
+                final GeneratorOptions generatorOptions) {
+            this.httpTransport = httpTransport;
+            this.folder = folder;
+            this.options = options;
+            this.fingerprintFile = FileManager.getStateFile(folder, wsdlLocation, Fingerprint.EXTENSION);
+            this.archive = (generatorOptions.getSourceArchive() == null) ? null
+                    : folder + File.separatorChar + generatorOptions.getSourceArchive();
+            this.clientJar = (generatorOptions.getClientJar() == null) ? null
+                    : folder + File.separatorChar + generatorOptions.getClientJar();
+        }
+
+        /**
+         *
+         * @return <tt>true</tt> if the source archive and the client jar,
+         *              if any, exist.
+         */
+        boolean hasArchives() {
+            return ((archive == null) || new File(archive).isFile())
+                    && ((clientJar == null) || new File(clientJar).isFile());
+        }
+    }
+}
@@ -0,0 +1,658 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+package ksoap2.generator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The options of a generation by the {@link GeneratorEngine}: the WSDL
+ * documents with their generated folder, and the settings of the command
+ * line. The options are immutable, so the same options may be handed to
+ * several generations running at the same time.
+ * <p>
+ * The code is generated for one target, J2ME by default, in the generated
+ * folder itself; or for several targets, each one in its subfolder of the
+ * generated folder. The WSDL document is read and its model built once for
+ * all the targets, only the ksoap2 code is emitted for each one.
+ * <p>
+ * The code is written either as a source file per class, or into a single
+ * source archive of the folder of each target, with the compiled client jar
+ * if asked.
+ *
+ */
+public final class GeneratorOptions {
+
+    /**
+     * The WSDL documents to generate.
+     */
+    private final List<Job> jobs;
+
+    /**
+     * The targets of the generated code.
+     */
+    private final List<Target> targets;
+
+    /**
+     * Whether the code is always generated through axis.
+     */
+    private final boolean axis;
+
+    /**
+     * Whether the axis classes are compiled in memory.
+     */
+    private final boolean inMemory;
+
+    /**
+     * Whether all the code is generated, even if it is up to date.
+     */
+    private final boolean force;
+
+    /**
+     * The folder of the WSDL cache, or <tt>null</tt> without cache.
+     */
+    private final String cacheFolder;
+
+    /**
+     * Whether the documents are served from the cache only.
+     */
+    private final boolean offline;
+
+    /**
+     * The number of threads generating the documents or the complex types.
+     */
+    private final int threads;
+
+    /**
+     * The path of the JSON report, or <tt>null</tt>.
+     */
+    private final String report;
+
+    /**
+     * The name of the source archive, or <tt>null</tt> to write the source
+     * files.
+     */
+    private final String sourceArchive;
+
+    /**
+     * Whether the entries of the archives are stored without compression.
+     */
+    private final boolean stored;
+
+    /**
+     * The name of the client jar, or <tt>null</tt>.
+     */
+    private final String clientJar;
+
+    /**
+     * The class path compiling the client jar.
+     */
+    private final String clientClasspath;
+
+    /**
+     * Private constructor.
+     *
+     * @param builder
+     *              The builder.
+     */
+    private GeneratorOptions(final Builder builder) {
+        this.jobs = Collections.unmodifiableList(new ArrayList<Job>(builder.jobs));
+        List<Target> targets = new ArrayList<Target>(builder.targets);
+        if (targets.isEmpty()) {
+            targets.add(new Target(builder.httpTransport, null));
+        }
+        this.targets = Collections.unmodifiableList(targets);
+        this.axis = builder.axis;
+        this.inMemory = builder.inMemory;
+        this.force = builder.force;
+        this.cacheFolder = builder.cacheFolder;
+        this.offline = builder.offline;
+        this.threads = builder.threads;
+        this.report = builder.report;
+        this.sourceArchive = builder.sourceArchive;
+        this.stored = builder.stored;
+        this.clientJar = builder.clientJar;
+        this.clientClasspath = builder.clientClasspath;
+    }
+
+    /**
+     *
+     * @return The WSDL documents to generate, in order.
+     */
+    public List<Job> getJobs() {
+        return jobs;
+    }
+
+    /**
+     *
+     * @return The targets of the generated code, at least one.
+     */
+    public List<Target> getTargets() {
+        return targets;
+    }
+
+    /**
+     *
+     * @return Whether the code is always generated through axis, even if the
+     *              WSDL document is supported natively.
+     */
+    public boolean isAxis() {
+        return axis;
+    }
+
+    /**
+     *
+     * @return Whether the axis classes are compiled in memory instead of the
+     *              temp folder and jar.
+     */
+    public boolean isInMemory() {
+        return inMemory;
+    }
+
+    /**
+     *
+     * @return Whether all the code is generated, even if the WSDL document
+     *              and the generator are unchanged.
+     */
+    public boolean isForce() {
+        return force;
+    }
+
+    /**
+     *
+     * @return The folder of the WSDL cache, or <tt>null</tt> without cache.
+     */
+    public String getCacheFolder() {
+        return cacheFolder;
+    }
+
+    /**
+     *
+     * @return Whether the documents are served from the cache only.
+     */
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     *
+     * @return The number of threads generating the documents or the complex
+     *              types.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     *
+     * @return The path of the JSON report of the phases, or <tt>null</tt>.
+     */
+    public String getReport() {
+        return report;
+    }
+
+    /**
+     *
+     * @return The name of the source archive, in the folder of each target,
+     *              which the code is written into instead of the source
+     *              files, or <tt>null</tt>.
+     */
+    public String getSourceArchive() {
+        return sourceArchive;
+    }
+
+    /**
+     *
+     * @return Whether the entries of the archives are stored without
+     *              compression, instead of the fastest deflate.
+     */
+    public boolean isStored() {
+        return stored;
+    }
+
+    /**
+     *
+     * @return The name of the jar of the compiled client, in the folder of
+     *              each target, or <tt>null</tt>.
+     */
+    public String getClientJar() {
+        return clientJar;
+    }
+
+    /**
+     *
+     * @return The class path compiling the client jar: the ksoap2 library of
+     *              the targets.
+     */
+    public String getClientClasspath() {
+        return clientClasspath;
+    }
+
+    /**
+     * A WSDL document to generate, with its generated folder.
+     */
+    public static final class Job {
+
+        /**
+         * The file path or the URL of the WSDL document.
+         */
+        private final String wsdlLocation;
+
+        /**
+         * The generated folder.
+         */
+        private final String generatedFolder;
+
+        /**
+         * Constructor.
+         *
+         * @param wsdlLocation
+         *              The file path or the URL of the WSDL document.
+         * @param generatedFolder
+         *              The generated folder.
+         */
+        Job(final String wsdlLocation, final String generatedFolder) {
+            this.wsdlLocation = wsdlLocation;
+            this.generatedFolder = generatedFolder;
+        }
+
+        /**
+         *
+         * @return The file path or the URL of the WSDL document.
+         */
+        public String getWsdlLocation() {
+            return wsdlLocation;
+        }
+
+        /**
+         *
+         * @return The generated folder.
+         */
+        public String getGeneratedFolder() {
+            return generatedFolder;
+        }
+    }
+
+    /**
+     * A target of the generated code.
+     */
+    public static final class Target {
+
+        /**
+         * The HTTP transport class of the generated services.
+         */
+        private final String httpTransport;
+
+        /**
+         * The name of the subfolder of the target, or <tt>null</tt>.
+         */
+        private final String folderName;
+
+        /**
+         * Constructor.
+         *
+         * @param httpTransport
+         *              The HTTP transport class of the generated services.
+         * @param folderName
+         *              The name of the subfolder of the generated folder
+         *              which the code of the target is generated in, or
+         *              <tt>null</tt> for the generated folder itself.
+         */
+        Target(final String httpTransport, final String folderName) {
+            this.httpTransport = httpTransport;
+            this.folderName = folderName;
+        }
+
+        /**
+         *
+         * @return The HTTP transport class of the generated services,
+         *              {@link ServiceClientGenerator#HTTP_TRANSPORT_J2ME} or
+         *              {@link ServiceClientGenerator#HTTP_TRANSPORT_ANDROID}.
+         */
+        public String getHttpTransport() {
+            return httpTransport;
+        }
+
+        /**
+         *
+         * @return The name of the subfolder of the target, or <tt>null</tt>
+         *              if the code is generated in the generated folder
+         *              itself.
+         */
+        public String getFolderName() {
+            return folderName;
+        }
+
+        /**
+         *
+         * @param generatedFolder
+         *              The generated folder of a WSDL document.
+         * @return The folder of the code of this target.
+         */
+        public String getFolder(final String generatedFolder) {
+            return (folderName == null) ? generatedFolder : generatedFolder + File.separatorChar + folderName;
+        }
+    }
+
+    /**
+     * Builder of the options, with the defaults of the command line.
+     */
+    public static final class Builder {
+
+        /**
+         * The WSDL documents to generate.
+         */
+        private final List<Job> jobs = new ArrayList<Job>();
+
+        /**
+         * The HTTP transport class of the single target.
+         */
+        private String httpTransport = ServiceClientGenerator.HTTP_TRANSPORT_J2ME;
+
+        /**
+         * The targets generated in their subfolder.
+         */
+        private final List<Target> targets = new ArrayList<Target>();
+
+        /**
+         * Whether the code is always generated through axis.
+         */
+        private boolean axis = false;
+
+        /**
+         * Whether the axis classes are compiled in memory.
+         */
+        private boolean inMemory = false;
+
+        /**
+         * Whether all the code is generated, even if it is up to date.
+         */
+        private boolean force = false;
+
+        /**
+         * The folder of the WSDL cache, or <tt>null</tt> without cache.
+         */
+        private String cacheFolder = WsdlCache.DEFAULT_FOLDER;
+
+        /**
+         * Whether the documents are served from the cache only.
+         */
+        private boolean offline = false;
+
+        /**
+         * The number of threads.
+         */
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * The path of the JSON report, or <tt>null</tt>.
+         */
+        private String report = null;
+
+        /**
+         * The name of the source archive, or <tt>null</tt>.
+         */
+        private String sourceArchive = null;
+
+        /**
+         * Whether the entries of the archives are stored.
+         */
+        private boolean stored = false;
+
+        /**
+         * The name of the client jar, or <tt>null</tt>.
+         */
+        private String clientJar = null;
+
+        /**
+         * The class path compiling the client jar.
+         */
+        private String clientClasspath = "";
+
+        /**
+         * Adds a WSDL document to generate.
+         *
+         * @param wsdlLocation
+         *              The file path or the URL of the WSDL document.
+         * @param generatedFolder
+         *              The generated folder.
+         * @return This builder.
+         */
+        public Builder addWsdl(final String wsdlLocation, final String generatedFolder) {
+            jobs.add(new Job(wsdlLocation, generatedFolder));
+            return this;
+        }
+
+        /**
+         * Sets the HTTP transport class of the generated services,
+         * {@link ServiceClientGenerator#HTTP_TRANSPORT_J2ME} by default,
+         * unless targets are added.
+         *
+         * @param httpTransport
+         *              The HTTP transport class.
+         * @return This builder.
+         */
+        public Builder setHttpTransport(final String httpTransport) {
+            this.httpTransport = httpTransport;
+            return this;
+        }
+
+        /**
+         * Adds a target, generated in a subfolder of the generated folder of
+         * each WSDL document. The targets added replace the single target
+         * of {@link #setHttpTransport(String)}.
+         *
+         * @param httpTransport
+         *              The HTTP transport class of the generated services.
+         * @param folderName
+         *              The name of the subfolder of the target.
+         * @return This builder.
+         */
+        public Builder addTarget(final String httpTransport, final String folderName) {
+            targets.add(new Target(httpTransport, folderName));
+            return this;
+        }
+
+        /**
+         * Sets whether the code is always generated through axis, even if
+         * the WSDL document is supported natively.
+         *
+         * @param axis
+         *              <tt>true</tt> to always generate through axis.
+         * @return This builder.
+         */
+        public Builder setAxis(final boolean axis) {
+            this.axis = axis;
+            return this;
+        }
+
+        /**
+         * Sets whether the axis classes are compiled in memory.
+         *
+         * @param inMemory
+         *              <tt>true</tt> to compile in memory.
+         * @return This builder.
+         */
+        public Builder setInMemory(final boolean inMemory) {
+            this.inMemory = inMemory;
+            return this;
+        }
+
+        /**
+         * Sets whether all the code is generated, even if it is up to date.
+         *
+         * @param force
+         *              <tt>true</tt> to generate all the code.
+         * @return This builder.
+         */
+        public Builder setForce(final boolean force) {
+            this.force = force;
+            return this;
+        }
+
+        /**
+         * Sets the folder of the WSDL cache, {@link WsdlCache#DEFAULT_FOLDER}
+         * by default.
+         *
+         * @param cacheFolder
+         *              The folder, or <tt>null</tt> to fetch the documents
+         *              without cache.
+         * @return This builder.
+         */
+        public Builder setCacheFolder(final String cacheFolder) {
+            this.cacheFolder = cacheFolder;
+            return this;
+        }
+
+        /**
+         * Sets whether the documents are served from the cache only, without
+         * network access.
+         *
+         * @param offline
+         *              <tt>true</tt> for the offline mode.
+         * @return This builder.
+         */
+        public Builder setOffline(final boolean offline) {
+            this.offline = offline;
+            return this;
+        }
+
+        /**
+         * Sets the number of threads generating the documents or the complex
+         * types, the number of processors by default.
+         *
+         * @param threads
+         *              The number of threads, 1 to generate them one at a
+         *              time.
+         * @return This builder.
+         */
+        public Builder setThreads(final int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Sets the JSON file reporting the phases of each generation.
+         *
+         * @param report
+         *              The path of the report, or <tt>null</tt>.
+         * @return This builder.
+         */
+        public Builder setReport(final String report) {
+            this.report = report;
+            return this;
+        }
+
+        /**
+         * Sets the source archive, such as <tt>client.srcjar</tt>, which the
+         * code of each target is written into, in its folder, instead of a
+         * source file per class. The archive is written again as a whole
+         * when the WSDL document changes.
+         *
+         * @param sourceArchive
+         *              The name of the archive, or <tt>null</tt> to write the
+         *              source files.
+         * @param stored
+         *              <tt>true</tt> to store the entries of the archives
+         *              without compression, <tt>false</tt> for the fastest
+         *              deflate.
+         * @return This builder.
+         */
+        public Builder setSourceArchive(final String sourceArchive, final boolean stored) {
+            this.sourceArchive = sourceArchive;
+            this.stored = stored;
+            return this;
+        }
+
+        /**
+         * Sets the jar of the compiled client, written next to the source
+         * archive.
+         *
+         * @param clientJar
+         *              The name of the jar, or <tt>null</tt>.
+         * @param classpath
+         *              The class path compiling the client: the ksoap2
+         *              library of the targets.
+         * @return This builder.
+         */
+        public Builder setClientJar(final String clientJar, final String classpath) {
+            this.clientJar = clientJar;
+            this.clientClasspath = classpath;
+            return this;
+        }
+
+        /**
+         * Builds the options.
+         *
+         * @return The options.
+         * @throws GeneratorException
+         *              The exception if the options are inconsistent.
+         */
+        public GeneratorOptions build() throws GeneratorException {
+            if (jobs.isEmpty()) {
+                throw new GeneratorException("no WSDL document to generate");
+            }
+            for (Job job : jobs) {
+                Util.checkNull(job.getWsdlLocation(), job.getGeneratedFolder());
+            }
+            Util.checkNull(httpTransport);
+            Set<String> folderNames = new HashSet<String>();
+            for (Target target : targets) {
+                Util.checkNull(target.getHttpTransport(), target.getFolderName());
+                if (!folderNames.add(target.getFolderName())) {
+                    throw new GeneratorException("two targets in the same folder: " + target.getFolderName());
+                }
+            }
+            if ((cacheFolder == null) && offline) {
+                throw new GeneratorException("the offline mode needs the cache");
+            }
+            if (threads < 1) {
+                throw new GeneratorException("the number of threads must be positive: " + threads);
+            }
+            if (sourceArchive != null) {
+                Set<File> folders = new HashSet<File>();
+                for (Job job : jobs) {
+                    if (!folders.add(new File(job.getGeneratedFolder()).getAbsoluteFile())) {
+                        throw new GeneratorException("two WSDL documents in the same archive: "
+                                + new File(job.getGeneratedFolder(), sourceArchive));
+                    }
+                }
+            }
+            if (clientJar != null) {
+                Util.checkNull(clientClasspath);
+                if (sourceArchive == null) {
+                    throw new GeneratorException("the client jar needs the source archive");
+                }
+            }
+            return new GeneratorOptions(this);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import java.lang.reflect.Array;
+
+/**
+ * Java type of an attribute, a parameter or a return value. The type is
+ * either backed by a class which is available at generation time (primitive
+ * types, the classes of the JDK and the ones of axis), or it is a class which
+ * only exists in the generated code.
+ *
+ */
+public final class JavaType {
+
+    /**
+     * The class, or <tt>null</tt> if the type is only generated.
+     */
+    private final Class<?> clazz;
+
+    /**
+     * The canonical name.
+     */
+    private final String canonicalName;
+
+    /**
+     * The package name.
+     */
+    private final String packageName;
+
+    /**
+     * The component type if this type is an array.
+     */
+    private final JavaType componentType;
+
+    /**
+     * Private constructor.
+     *
+     * @param clazz
+     *              The class.
+     * @param canonicalName
+     *              The canonical name.
+     * @param packageName
+     *              The package name.
+     * @param componentType
+     *              The component type.
+     */
+    private JavaType(final Class<?> clazz, final String canonicalName,
+            final String packageName, final JavaType componentType) {
+        this.clazz = clazz;
+        this.canonicalName = canonicalName;
+        this.packageName = packageName;
+        this.componentType = componentType;
+    }
+
+    /**
+     *
+     * @param clazz
+     *              The class.
+     * @return The type backed by the class.
+     */
+    public static JavaType of(final Class<?> clazz) {
+        JavaType componentType = null;
+        if (clazz.isArray()) {
+            componentType = of(clazz.getComponentType());
+        }
+        String name = clazz.getName();
+        int index = name.lastIndexOf('.');
+        String packageName = "";
+        if ((index >= 0) && !clazz.isArray() && !clazz.isPrimitive()) {
+            packageName = name.substring(0, index);
+        }
+        return new JavaType(clazz, clazz.getCanonicalName(), packageName, componentType);
+    }
+
+    /**
+     *
+     * @param packageName
+     *              The package name.
+     * @param simpleName
+     *              The simple name.
+     * @return The type of a class which only exists in the generated code.
+     */
+    public static JavaType generated(final String packageName, final String simpleName) {
+        String canonicalName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        return new JavaType(null, canonicalName, packageName, null);
+    }
+
+    /**
+     *
+     * @return The array type whose component type is this type.
+     */
+    public JavaType arrayOf() {
+        if (clazz != null) {
+            return of(Array.newInstance(clazz, 0).getClass());
+        }
+        return new JavaType(null, canonicalName + "[]", "", this);
+    }
+
+    /**
+     *
+     * @return The canonical name.
+     */
+    public String getCanonicalName() {
+        return canonicalName;
+    }
+
+    /**
+     *
+     * @return The package name, empty for the primitive types, the arrays and
+     * the classes in the default package.
+     */
+    public String getPackageName() {
+        return packageName;
+    }
+
+    /**
+     *
+     * @return The component type, or <tt>null</tt> if this type is not an
+     * array.
+     */
+    public JavaType getComponentType() {
+        return componentType;
+    }
+
+    /**
+     *
+     * @return <tt>true</tt> if this type is primitive, and <tt>false</tt>
+     * otherwise.
+     */
+    public boolean isPrimitive() {
+        return (clazz != null) && clazz.isPrimitive();
+    }
+
+    /**
+     *
+     * @return <tt>true</tt> if this type is an array, and <tt>false</tt>
+     * otherwise.
+     */
+    public boolean isArray() {
+        return componentType != null;
+    }
+
+    /**
+     *
+     * @return <tt>true</tt> if this type only exists in the generated code,
+     * and <tt>false</tt> otherwise.
+     */
+    public boolean isGenerated() {
+        return clazz == null;
+    }
+
+    /**
+     *
+     * @param other
+     *              The class.
+     * @return <tt>true</tt> if this type is backed by the given class, and
+     * <tt>false</tt> otherwise.
+     */
+    public boolean is(final Class<?> other) {
+        return (clazz != null) && clazz.equals(other);
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return canonicalName;
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Class loader to define classes from byte code held in memory, for example
+ * the classes compiled by {@link MemoryJavaFileManager}.
+ *
+ */
+public final class MemoryClassLoader extends ClassLoader {
+
+    /**
+     * The suffix of class file resources.
+     */
+    private static final String CLASS_SUFFIX = ".class";
+
+    /**
+     * The byte code, indexed by binary class name.
+     */
+    private final Map<String, byte []> classes;
+
+    /**
+     * Constructor.
+     *
+     * @param classes
+     *              The byte code, indexed by binary class name.
+     * @param parent
+     *              The parent class loader.
+     */
+    public MemoryClassLoader(final Map<String, byte []> classes, final ClassLoader parent) {
+        super(parent);
+        this.classes = classes;
+    }
+
+    /**
+     * @see ClassLoader#findClass(String)
+     */
+    @Override
+    protected Class<?> findClass(final String name) throws ClassNotFoundException {
+        byte [] data = classes.get(name);
+        if (data == null) {
+            throw new ClassNotFoundException(name);
+        }
+        return defineClass(name, data, 0, data.length);
+    }
+
+    /**
+     * Serves the class files as resources too, because the parameter names
+     * are read from the byte code of the loaded classes.
+     *
+     * @see ClassLoader#getResourceAsStream(String)
+     */
+    @Override
+    public InputStream getResourceAsStream(final String name) {
+        if (name.endsWith(CLASS_SUFFIX)) {
+            String className = name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.');
+            byte [] data = classes.get(className);
+            if (data != null) {
+                return new ByteArrayInputStream(data);
+            }
+        }
+        return super.getResourceAsStream(name);
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.JavaFileObject.Kind;
+
+/**
+ * File manager which keeps the class files produced by the compiler in
+ * memory instead of writing them into the output folder.
+ *
+ */
+public final class MemoryJavaFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+    /**
+     * The compiled classes, indexed by binary class name.
+     */
+    private final Map<String, ByteArrayOutputStream> classes =
+            new HashMap<String, ByteArrayOutputStream>();
+
+    /**
+     * Constructor.
+     *
+     * @param fileManager
+     *              The standard file manager to read sources and libraries.
+     */
+    public MemoryJavaFileManager(final StandardJavaFileManager fileManager) {
+        super(fileManager);
+    }
+
+    /**
+     * @see ForwardingJavaFileManager#getJavaFileForOutput(Location, String, Kind, FileObject)
+     */
+    @Override
+    public JavaFileObject getJavaFileForOutput(final Location location, final String className,
+            final Kind kind, final FileObject sibling) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        classes.put(className, output);
+        return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/')
+                + kind.extension), kind) {
+
+            @Override
+            public OutputStream openOutputStream() {
+                return output;
+            }
+        };
+    }
+
+    /**
+     *
+     * @return The byte code of the compiled classes, indexed by binary class
+     * name.
+     */
+    public Map<String, byte []> getClassBytes() {
+        Map<String, byte []> result = new HashMap<String, byte []>();
+        for (Map.Entry<String, ByteArrayOutputStream> entry : classes.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().toByteArray());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Web service operation, which becomes one method of the generated client.
+ *
+ */
+public final class OperationModel {
+
+    /**
+     * The Java method name.
+     */
+    private final String methodName;
+
+    /**
+     * The operation name in the WSDL document.
+     */
+    private final String operationName;
+
+    /**
+     * The modifiers, as defined in {@link java.lang.reflect.Modifier}.
+     */
+    private final int modifiers;
+
+    /**
+     * The return type.
+     */
+    private final JavaType returnType;
+
+    /**
+     * The parameters.
+     */
+    private final List<ParameterModel> parameters;
+
+    /**
+     * The namespace of the request.
+     */
+    private final String namespace;
+
+    /**
+     * The SOAP action declared by the binding, or <tt>null</tt>.
+     */
+    private final String soapAction;
+
+    /**
+     * Constructor.
+     *
+     * @param methodName
+     *              The Java method name.
+     * @param operationName
+     *              The operation name in the WSDL document.
+     * @param modifiers
+     *              The modifiers.
+     * @param returnType
+     *              The return type.
+     * @param parameters
+     *              The parameters.
+     * @param namespace
+     *              The namespace of the request.
+     * @param soapAction
+     *              The SOAP action declared by the binding, or
+     *              <tt>null</tt> if none is declared.
+     */
+    public OperationModel(final String methodName, final String operationName, final int modifiers,
+            final JavaType returnType, final List<ParameterModel> parameters, final String namespace,
+            final String soapAction) {
+        this.methodName = methodName;
+        this.operationName = operationName;
+        this.modifiers = modifiers;
+        this.returnType = returnType;
+        this.parameters = Collections.unmodifiableList(parameters);
+        this.namespace = namespace;
+        this.soapAction = soapAction;
+    }
+
+    /**
+     *
+     * @return The Java method name.
+     */
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     *
+     * @return The operation name in the WSDL document.
+     */
+    public String getOperationName() {
+        return operationName;
+    }
+
+    /**
+     *
+     * @return The modifiers.
+     */
+    public int getModifiers() {
+        return modifiers;
+    }
+
+    /**
+     *
+     * @return The return type.
+     */
+    public JavaType getReturnType() {
+        return returnType;
+    }
+
+    /**
+     *
+     * @return The parameters.
+     */
+    public List<ParameterModel> getParameters() {
+        return parameters;
+    }
+
+    /**
+     *
+     * @return The namespace of the request.
+     */
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     *
+     * @return The SOAP action declared by the binding, or <tt>null</tt> if
+     *              none is declared.
+     */
+    public String getSoapAction() {
+        return soapAction;
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+/**
+ * Parameter of a web service operation.
+ *
+ */
+public final class ParameterModel {
+
+    /**
+     * The parameter name.
+     */
+    private final String name;
+
+    /**
+     * The parameter type.
+     */
+    private final JavaType type;
+
+    /**
+     * Constructor.
+     *
+     * @param name
+     *              The parameter name.
+     * @param type
+     *              The parameter type.
+     */
+    public ParameterModel(final String name, final JavaType type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    /**
+     *
+     * @return The parameter name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     *
+     * @return The parameter type.
+     */
+    public JavaType getType() {
+        return type;
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+/**
+ * Property of a complex type.
+ *
+ */
+public final class PropertyModel {
+
+    /**
+     * The property name.
+     */
+    private final String name;
+
+    /**
+     * The modifiers of the property.
+     */
+    private final int modifiers;
+
+    /**
+     * The property type.
+     */
+    private final JavaType type;
+
+    /**
+     * Whether the property type is a generated complex type.
+     */
+    private final boolean complex;
+
+    /**
+     * The property name with its first letter in upper case, the suffix of
+     * its accessors.
+     */
+    private final String capitalizedName;
+
+    /**
+     * Constructor.
+     *
+     * @param name
+     *              The property name.
+     * @param modifiers
+     *              The modifiers of the property.
+     * @param type
+     *              The property type.
+     * @param complex
+     *              Whether the property type is a generated complex type.
+     */
+    public PropertyModel(final String name, final int modifiers, final JavaType type, final boolean complex) {
+        this.name = name;
+        this.modifiers = modifiers;
+        this.type = type;
+        this.complex = complex;
+        char first = name.charAt(0);
+        if (('a' <= first) && (first <= 'z')) {
+            this.capitalizedName = (char) (first + 'A' - 'a') + name.substring(1);
+        } else {
+            this.capitalizedName = name;
+        }
+    }
+
+    /**
+     *
+     * @return The property name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     *
+     * @return The modifiers of the property.
+     */
+    public int getModifiers() {
+        return modifiers;
+    }
+
+    /**
+     *
+     * @return The property type.
+     */
+    public JavaType getType() {
+        return type;
+    }
+
+    /**
+     *
+     * @return Whether the property type is a generated complex type.
+     */
+    public boolean isComplex() {
+        return complex;
+    }
+
+    /**
+     *
+     * @return The property name with its first letter in upper case, the
+     *              suffix of its accessors.
+     */
+    public String getCapitalizedName() {
+        return capitalizedName;
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import javax.xml.namespace.QName;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Class to build the model of the client from the classes which are generated
+ * by axis and compiled, using the Java reflection API.
+ *
+ */
+public final class ReflectionModelBuilder {
+
+    /**
+     * Ignored attributes.
+     */
+    private static final Set<String> ignoredAttributes = Collections.unmodifiableSet(
+            new HashSet<String>(Arrays.asList("__equalsCalc", "__hashCodeCalc", "typeDesc")));
+
+    /**
+     * The error message when axis generated no service interface.
+     */
+    static final String NO_SERVICE_ERR = "no web services interface generated by axis";
+
+    /**
+     * Java logger.
+     */
+    private static Logger logger = Logger.getLogger(ReflectionModelBuilder.class.getName());
+
+    /**
+     * Prohibits instantiation.
+     */
+    private ReflectionModelBuilder() {
+    }
+
+    /**
+     * Builds the model of the client in J2ME from the classes generated by
+     * axis.
+     *
+     * @param loader
+     *              The class loader of the classes compiled from axis code.
+     * @param sourceFolder
+     *              The folder of the code generated by axis.
+     * @param operations
+     *              The operations of the WSDL document.
+     * @param portTypes
+     *              The port types by name of the web services interfaces
+     *              generated by axis.
+     * @return The model.
+     * @throws GeneratorException
+     *              The exception if the model cannot be built, for example
+     *              if axis generated no web services interface.
+     */
+    public static ClientModel build(final ClassLoader loader, final String sourceFolder, final SoapOperationIndex operations,
+            final Map<String, QName> portTypes) throws GeneratorException {
+        logger.info("building the model from the classes generated by axis in " + sourceFolder);
+        ClassLoader prevCl = Thread.currentThread().getContextClassLoader();
+        try {
+            Thread.currentThread().setContextClassLoader(loader);
+            AxisClassIndex index = AxisClassIndex.scan(sourceFolder, loader);
+            List<ServiceModel> services = new ArrayList<ServiceModel>();
+            for (Class<?> serviceClass : index.get(AxisClassIndex.Kind.SERVICE)) {
+                logger.info("web services interface: " + serviceClass.getName());
+                services.add(buildService(serviceClass, operations, portTypes.get(serviceClass.getName())));
+            }
+            if (services.isEmpty()) {
+                throw new GeneratorException(NO_SERVICE_ERR);
+            }
+            List<BeanModel> beans = new ArrayList<BeanModel>();
+            for (Class<?> clazz : index.get(AxisClassIndex.Kind.BEAN)) {
+                logger.info("class name to generate code: " + clazz.getName());
+                beans.add(buildBean(clazz, index.getSimpleNames()));
+            }
+            return new ClientModel(services, beans);
+        } catch (GeneratorException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GeneratorException("cannot build the model from the classes generated by axis", e);
+        } finally {
+            Thread.currentThread().setContextClassLoader(prevCl);
+        }
+    }
+
+    /**
+     * Builds the complex type from the bean generated by axis. The attributes
+     * generated by axis, for example: __equalsCalc, __hashCodeCalc, typeDesc,
+     * are ignored.
+     *
+     * @param clazz
+     *              The bean class.
+     * @param generatedClasses
+     *              The simple names of the classes generated by axis,
+     *              computed once for all the beans.
+     * @return The complex type.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    private static BeanModel buildBean(final Class<?> clazz, final Set<String> generatedClasses) throws GeneratorException {
+        Field [] declaredFields = clazz.getDeclaredFields();
+        List<PropertyModel> properties = new ArrayList<PropertyModel>();
+        for (Field declaredField : declaredFields) {
+            if (ignoredAttributes.contains(declaredField.getName())) {
+                continue;
+            }
+            Class<?> type = declaredField.getType();
+            boolean complex = !type.isPrimitive() && !type.isArray()
+                    && generatedClasses.contains(type.getSimpleName());
+            properties.add(new PropertyModel(declaredField.getName(),
+                    declaredField.getModifiers(), JavaType.of(type), complex));
+        }
+        return new BeanModel(clazz.getName(), properties,
+                declaredFields.length - ignoredAttributes.size());
+    }
+
+    /**
+     * Builds the service from the interface generated by axis, compiled with
+     * the names of its parameters. The operations are in the order of the
+     * port type, as the reflection API returns the methods in no particular
+     * order.
+     *
+     * @param clazz
+     *              The web services interface.
+     * @param operations
+     *              The operations of the WSDL document, to restore the case
+     *              of the operation names and to get their namespace and
+     *              SOAP action from the binding.
+     * @param portType
+     *              The port type of the interface, or <tt>null</tt> if
+     *              unknown.
+     * @return The service.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    public static ServiceModel buildService(final Class<?> clazz, final SoapOperationIndex operations,
+            final QName portType) throws GeneratorException {
+        Util.checkNull(clazz, operations);
+        Method[] methods = clazz.getDeclaredMethods();
+        // the overloaded methods and the ones without operation are ordered by signature
+        Arrays.sort(methods, Comparator.<Method>comparingInt(method -> (portType == null)
+                ? Integer.MAX_VALUE : operations.getPosition(portType, method.getName()))
+                .thenComparing(Method::getName).thenComparing(Method::toString));
+        List<OperationModel> operationModels = new ArrayList<OperationModel>();
+        for (Method method : methods) {
+            operationModels.add(buildOperation(method, operations, portType));
+        }
+        String className = clazz.getName();
+        int index = className.lastIndexOf('.');
+        String configurationPackage = (index < 0) ? "" : className.substring(0, index);
+        return new ServiceModel(className, configurationPackage, operationModels);
+    }
+
+    /**
+     *
+     * @param method
+     *              The method of the interface.
+     * @param operations
+     *              The operations of the WSDL document.
+     * @param portType
+     *              The port type of the interface, or <tt>null</tt> if
+     *              unknown.
+     * @return The operation.
+     * @throws GeneratorException
+     *              The generation exception if the names of the parameters
+     *              were not compiled.
+     */
+    private static OperationModel buildOperation(final Method method, final SoapOperationIndex operations,
+            final QName portType) throws GeneratorException {
+        SoapOperationIndex.Entry operation = (portType == null) ? null : operations.get(portType, method.getName());
+        String operationName = method.getName();
+        String namespace = null;
+        String soapAction = null;
+        if (operation != null) {
+            operationName = operation.getOperationName();
+            namespace = operation.getNamespace();
+            soapAction = operation.getSoapAction();
+        }
+        if (namespace == null) {
+            namespace = operations.getTargetNamespace();
+        }
+
+        List<ParameterModel> parameters = new ArrayList<ParameterModel>();
+        for (Parameter parameter : method.getParameters()) {
+            if (!parameter.isNamePresent()) {
+                throw new GeneratorException("no parameter names in " + method);
+            }
+            parameters.add(new ParameterModel(parameter.getName(), JavaType.of(parameter.getType())));
+        }
+        return new OperationModel(method.getName(), operationName, method.getModifiers(),
+                JavaType.of(method.getReturnType()), parameters, namespace, soapAction);
+    }
+}
@@ -27,16 +27,7 @@
 
 package ksoap2.generator;
 
-import org.apache.axis.utils.bytecode.ParamReader;
-
-import javax.wsdl.Operation;
-import javax.xml.namespace.QName;
-import java.io.IOException;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Vector;
 
 /**
  * Class to generate Web services client in J2ME based on Ksoap.
@@ -57,19 +48,61 @@ public final class ServiceClientGenerator extends AbstractGenerator {
     public static final String HTTP_TRANSPORT_ANDROID = "HttpTransportSE";
 
     /**
-     * The method to perform web services's call
+     * The method to perform web services's call, formerly assignable to
+     * change the transport of all the generators.
+     *
+     * @deprecated The transport is given to each generator, or set in the
+     *              {@link GeneratorOptions}; the default one is
+     *              {@link #HTTP_TRANSPORT_J2ME}.
      */
-    public static String HTTP_TRANSPORT = HTTP_TRANSPORT_J2ME;
+    @Deprecated
+    public static final String HTTP_TRANSPORT = HTTP_TRANSPORT_J2ME;
 
-    private final List<Operation> operationList;
+    /**
+     * The service.
+     */
+    private final ServiceModel service;
 
-    private Class <?> stubClass;
+    /**
+     * The HTTP transport class of this generator.
+     */
+    private final String httpTransport;
 
-    public ServiceClientGenerator(final Class<?> clazz, final Class <?> stubClass, Writer writer, final String generatedFolder, List<Operation> operationList) {
+    /**
+     * Constructor, generating the service with the J2ME transport.
+     *
+     * @param service
+     *              The service.
+     * @param writer
+     *              The writer.
+     * @param generatedFolder
+     *              The generated folder, or <tt>null</tt> to write the code
+     *              to the writer only.
+     */
+    public ServiceClientGenerator(final ServiceModel service, Writer writer, final String generatedFolder) {
+        this(service, writer, generatedFolder, HTTP_TRANSPORT_J2ME);
+    }
 
-        super(new ArrayList<String>(), clazz, writer, generatedFolder);
-        this.stubClass = stubClass;
-        this.operationList = operationList;
+    /**
+     * Constructor.
+     *
+     * @param service
+     *              The service.
+     * @param writer
+     *              The writer.
+     * @param generatedFolder
+     *              The generated folder, or <tt>null</tt> to write the code
+     *              to the writer only.
+     * @param httpTransport
+     *              The HTTP transport class, {@link #HTTP_TRANSPORT_J2ME} or
+     *              {@link #HTTP_TRANSPORT_ANDROID}.
+     */
+    public ServiceClientGenerator(final ServiceModel service, Writer writer, final String generatedFolder,
+            final String httpTransport) {
+
+        super(service.getClassName(), writer, generatedFolder);
+        this.service = service;
+        this.httpTransport = httpTransport;
     }
 
     /**
@@ -81,7 +114,13 @@ public final class ServiceClientGenerator extends AbstractGenerator {
      */
     protected void run() throws GeneratorException {
         super.run();
-        FileManager.copyConf(stubClass.getName(), getGeneratedFolder());
+        String configurationPackage = service.getConfigurationPackage();
+        if (getArchive() != null) {
+            getArchive().add(configurationPackage.isEmpty() ? "Configuration" : configurationPackage + ".Configuration",
+                    FileManager.getConfiguration(configurationPackage));
+        } else if (getGeneratedFolder() != null) {
+            FileManager.copyConf(configurationPackage, getGeneratedFolder());
+        }
     }
 
 	@Override
@@ -90,39 +129,16 @@ public final class ServiceClientGenerator extends AbstractGenerator {
 	}
 
 	/**
-     * @see AbstractGenerator#writeClass(Class)
+     * @see AbstractGenerator#writeClass()
      */
     @Override
-    protected void writeClass(final Class<?> clazz) throws GeneratorException {
+    protected void writeClass() throws GeneratorException {
         Writer writer = getWriter();
-        Util.checkNull(clazz);
-        Util.checkNull(stubClass);
-        for (Method method : stubClass.getDeclaredMethods()) {
-            if (hasMethod(clazz, method)) { // existed in the interface
-                new MethodGenerator().run(method, writer, operationList);
-            }
+        for (OperationModel operation : service.getOperations()) {
+            new MethodGenerator().run(operation, writer);
         }
     }
 
-    /**
-     * Checks if the <tt>method</tt> was declared in the <tt>clazz</tt>.
-     *
-     * @param clazz
-     *              The class.
-     * @param method
-     *              The method.
-     * @return <tt>true</tt> if the <tt>method</tt> was declared in the
-     * <tt>clazz</tt>, and <tt>false</tt> otherwise.
-     */
-    private boolean hasMethod(final Class <?> clazz, final Method method) {
-        for (Method m : clazz.getDeclaredMethods()) {
-            if (m.getName().equals(method.getName())) {
-                return true; // not necessary to check the ParaTypes.
-            }
-        }
-        return false;
-    }
-
 	private void writeExceptionParseMethod(Writer writer) {
 		writer.append("     public void convertToException(org.ksoap2.SoapFault fault, SoapSerializationEnvelope envelope) throws java.lang.Exception {\n");
 		writer.append("         //TODO: meed to implement\n");
@@ -137,15 +153,15 @@ public final class ServiceClientGenerator extends AbstractGenerator {
      */
     private class MethodGenerator {
 
-        public void run(final Method method, Writer writer, List<Operation> operationList) throws GeneratorException {
+        public void run(final OperationModel method, Writer writer) throws GeneratorException {
 
             Util.checkNull(method, writer);
             // Skip return type is void method
-            if(method.getReturnType() == void.class) {
+            if(method.getReturnType().is(void.class)) {
                 return;
             }
             writeMethodName(method, writer);
-            writeMethodContent(method, writer, operationList);
+            writeMethodContent(method, writer);
             writeDoCloseMethod(writer);
         }
 
@@ -162,28 +178,18 @@ public final class ServiceClientGenerator extends AbstractGenerator {
          * @throws GeneratorException
          *              The generation exception.
          */
-        private void writeMethodName(final Method method, Writer writer) throws GeneratorException {
-
-            writer.append("    " + getModifier(method.getModifiers()) + " " + method.getReturnType().getCanonicalName() + " " + method.getName() + "(");
-            try {
-                ParamReader pr = new ParamReader(method.getDeclaringClass());
-                String [] params = pr.getParameterNames(method);
-                if (params != null) {
-                    Class <?> [] paramTypes = method.getParameterTypes();
-                    int len = params.length;
-                    if (len != paramTypes.length) {
-                        throw new GeneratorException();
-                    }
-                    for (int i = 0; i < len; i++) {
-                        if (i == 0) {
-                            writer.append(paramTypes[i].getCanonicalName() + " " + params[i]);
-                        } else {
-                            writer.append(", " + paramTypes[i].getCanonicalName() + " " + params[i]);
-                        }
-                    }
+        private void writeMethodName(final OperationModel method, Writer writer) throws GeneratorException {
+
+            writer.append("    " + getModifier(method.getModifiers()) + " " + method.getReturnType().getCanonicalName() + " " + method.getMethodName() + "(");
+            List<ParameterModel> params = method.getParameters();
+            int len = params.size();
+            for (int i = 0; i < len; i++) {
+                ParameterModel param = params.get(i);
+                if (i == 0) {
+                    writer.append(param.getType().getCanonicalName() + " " + param.getName());
+                } else {
+                    writer.append(", " + param.getType().getCanonicalName() + " " + param.getName());
                 }
-            } catch (IOException e) {
-                throw new GeneratorException(e);
             }
             writer.append(") throws java.lang.Exception {\n");
         }
@@ -195,47 +201,29 @@ public final class ServiceClientGenerator extends AbstractGenerator {
          * @param writer The writer.
          * @throws GeneratorException The generation exception.
          */
-        private void writeMethodContent(final Method method, Writer writer, List<Operation> operationList) throws GeneratorException {
-	        String namespace = "";
-	        try {
-		        namespace = getNameSpace(stubClass, method);
-	        } catch (Exception e) {
-		        e.printStackTrace();
-	        }
-
-            Operation operation = operationList.stream().filter(op -> op.getName().compareToIgnoreCase(method.getName()) == 0).findFirst().orElse(null);
-            String methodName = method.getName();
-	        if(operation != null) {
-	            methodName = operation.getName();
-            }
+        private void writeMethodContent(final OperationModel method, Writer writer) throws GeneratorException {
+	        String namespace = method.getNamespace();
+            String methodName = method.getOperationName();
 
 	        writer.append("        String nameSpace = \"" + namespace + "\";\n");
             writer.append("        String methodName = \"" + methodName + "\";\n");
-            writer.append("        String soapAction = nameSpace + methodName;\n");
+            if (method.getSoapAction() == null) {
+                writer.append("        String soapAction = nameSpace + methodName;\n");
+            } else {
+                writer.append("        String soapAction = \"" + method.getSoapAction() + "\";\n");
+            }
 	        writer.append("        SoapObject _client = new SoapObject(nameSpace, methodName);\n\n");
-            ParamReader pr;
-            try {
-                Class <?> [] types = method.getParameterTypes();
-                pr = new ParamReader(method.getDeclaringClass());
-                String [] params = pr.getParameterNames(method);
-                int len = types.length;
-                if ((params != null) && (params.length != len)) {
-                    throw new GeneratorException();
-                }
-                boolean isVectorDeclared = false;
-                for (int i = 0; i < len; i++) {
-                    if(types[i].isArray()) {
-                        if (!isVectorDeclared) {
-                            writer.append("        java.util.Vector _vector =  " + "new java.util.Vector();\n");
-                            isVectorDeclared = true;
-                        } else {
-                            writer.append("        _vector =  " + "new java.util.Vector();\n");
-                        }
+            boolean isVectorDeclared = false;
+            for (ParameterModel param : method.getParameters()) {
+                if(param.getType().isArray()) {
+                    if (!isVectorDeclared) {
+                        writer.append("        java.util.Vector _vector =  " + "new java.util.Vector();\n");
+                        isVectorDeclared = true;
+                    } else {
+                        writer.append("        _vector =  " + "new java.util.Vector();\n");
                     }
-                    writeMethodContentForSerialization(params[i], types[i], writer);
                 }
-            } catch (IOException e) {
-                throw new GeneratorException(e);
+                writeMethodContentForSerialization(param.getName(), param.getType(), writer);
             }
             writer.append("        SoapSerializationEnvelope _envelope = " + "new SoapSerializationEnvelope(SoapEnvelope.VER11);\n");
             writer.append("        _envelope.bodyOut = _client;\n");
@@ -244,7 +232,7 @@ public final class ServiceClientGenerator extends AbstractGenerator {
 	        writer.append("        _envelope.implicitTypes = true;\n");
 	        writer.append("        _envelope.setAddAdornments(false);\n\n");
 
-	        writer.append("        " + HTTP_TRANSPORT + " _ht = new " + HTTP_TRANSPORT + "(" + "Configuration.getWsUrl());\n");
+	        writer.append("        " + httpTransport + " _ht = new " + httpTransport + "(" + "Configuration.getWsUrl());\n");
             writer.append("        _ht.call(soapAction, _envelope);\n\n");
            // writeReturnValue(method, writer);
             String soapReturnType = writeConvertSoapReturnType(method);
@@ -258,26 +246,6 @@ public final class ServiceClientGenerator extends AbstractGenerator {
 	        //writer.append("        return new " + method.getReturnType().getCanonicalName() + "(_ret);\n");
         }
 
-	    private String getNameSpace(Class proxyClass, Method method) throws  Exception{
-
-		    Object ob = proxyClass.newInstance();
-		    Field field = proxyClass.getDeclaredField("cachedSerQNames");
-		    field.setAccessible(true);
-
-		    Vector value = (Vector)field.get(ob);
-
-		    for (Object cachedSerQName : value) {
-			    if(cachedSerQName instanceof QName){
-
-				    QName qName = ((QName) cachedSerQName);
-				    //if(qName.getLocalPart().equals(method.getName())){
-                    return qName.getNamespaceURI();
-				    //}
-			    }
-		    }
-		    return "";
-	    }
-
         /**
          * Only the array of one dimension is supported.
          * 
@@ -286,14 +254,14 @@ public final class ServiceClientGenerator extends AbstractGenerator {
          * @param writer
          * @throws GeneratorException
          */
-        private void writeMethodContentForSerialization(final String param, final Class <?> type, Writer writer) throws GeneratorException {
+        private void writeMethodContentForSerialization(final String param, final JavaType type, Writer writer) throws GeneratorException {
             writer.append("        ");
             if (type.isPrimitive()) {
                 writer.append("_client.addProperty(\"" + param + "\", " + param + " + \"\");\n");
             } else {
                 if (isSupported(type)) {
                     writer.append("_client.addProperty(\"" + param + "\", " + param + ");\n");
-                } else if (type.equals(byte[].class)) {
+                } else if (type.is(byte[].class)) {
                     writer.append("_client.addProperty(\"" + param
                             + "\", new org.ksoap2.serialization.SoapPrimitive("
                             + "SoapEnvelope.ENC, \"base64\", "
@@ -320,32 +288,32 @@ public final class ServiceClientGenerator extends AbstractGenerator {
          * @param writer
          * @throws GeneratorException
          */
-        private void writeMethodContentForSerialOfArray(final String param, final Class <?> type, Writer writer) throws GeneratorException {
+        private void writeMethodContentForSerialOfArray(final String param, final JavaType type, Writer writer) throws GeneratorException {
 
             writer.append("        if (" + param + " != null) {\n");
             writer.append("            int _len = " + param + ".length;\n");
             writer.append("            for (int _i = 0; _i < _len; _i++) {\n");
             writer.append("                ");
-            if (type.equals(boolean[].class)) {
+            if (type.is(boolean[].class)) {
                 writer.append("_vector.addElement(new Boolean(" + param + "[_i]));\n");
-            } else if (type.equals(short[].class)) {
+            } else if (type.is(short[].class)) {
                 writer.append("_vector.addElement(new Short(" + param + "[_i]));\n");
-            } else if (type.equals(int[].class)) {
+            } else if (type.is(int[].class)) {
                 writer.append("_vector.addElement(new Integer(" + param + "[_i]));\n");
-            } else if (type.equals(long[].class)) {
+            } else if (type.is(long[].class)) {
                 writer.append("_vector.addElement(new Long(" + param + "[_i]));\n");
-            } else if (type.equals(float[].class)) {
+            } else if (type.is(float[].class)) {
                 writer.append("_vector.addElement(new Float(" + param + "[_i]));\n");
-            } else if (type.equals(double[].class)) {
+            } else if (type.is(double[].class)) {
                 writer.append("_vector.addElement(new Double(" + param + "[_i]));\n");
-            } else if ((type.equals(Boolean[].class)) ||
-                    (type.equals(Byte[].class)) ||
-                    (type.equals(Short[].class)) ||
-                    (type.equals(Integer[].class)) ||
-                    (type.equals(Long[].class)) ||
-                    (type.equals(Float[].class)) ||
-                    (type.equals(Double[].class)) ||
-                    (type.equals(String[].class))) {
+            } else if ((type.is(Boolean[].class)) ||
+                    (type.is(Byte[].class)) ||
+                    (type.is(Short[].class)) ||
+                    (type.is(Integer[].class)) ||
+                    (type.is(Long[].class)) ||
+                    (type.is(Float[].class)) ||
+                    (type.is(Double[].class)) ||
+                    (type.is(String[].class))) {
                 writer.append("_vector.addElement(" + param + "[_i]);\n");
             } else {
                 // for array of other objects and array of more one dimension
@@ -365,27 +333,27 @@ public final class ServiceClientGenerator extends AbstractGenerator {
          * @throws GeneratorException
          */
         //TODO: reikia per=i8r4ti ir galbut panaudoti veliau
-        private void writeReturnValue(final Method method, Writer writer) throws GeneratorException {
-            Class <?> type = method.getReturnType();
-            if (type.equals(void.class)) { // ignore the void type
-            } else if(type.equals(String.class)) {
+        private void writeReturnValue(final OperationModel method, Writer writer) throws GeneratorException {
+            JavaType type = method.getReturnType();
+            if (type.is(void.class)) { // ignore the void type
+            } else if(type.is(String.class)) {
                 writer.append("        return _ret.toString();\n");
             } /*else if (isSupported(type)) { // type is supported
                 writer.append("        return (" + type.getCanonicalName() + ") _envelope.getResponse();\n");
             }*/ else if (type.isPrimitive()) { // primitive type
-                if (type.equals(boolean.class)) {
+                if (type.is(boolean.class)) {
                     writer.append("        return Boolean.parseBoolean(_ret.toString());\n");
-                } else if (type.equals(byte.class)) {
+                } else if (type.is(byte.class)) {
                     writer.append("        return Byte.parseByte(" + "_ret.toString());\n");
-                } else if (type.equals(short.class)) {
+                } else if (type.is(short.class)) {
                     writer.append("        return Short.parseShort(" + "_ret.toString());\n");
-                } else if (type.equals(int.class)) {
+                } else if (type.is(int.class)) {
                     writer.append("        return Integer.parseInt(" + "_ret.toString());\n");
-                } else if (type.equals(long.class)) {
+                } else if (type.is(long.class)) {
                     writer.append("        return Long.parseLong(" + "_ret.toString());\n");
-                } else if (type.equals(float.class)) {
+                } else if (type.is(float.class)) {
                     writer.append("        return Float.parseFloat(" + "_ret.toString());\n");
-                } else if (type.equals(double.class)) {
+                } else if (type.is(double.class)) {
                     writer.append("        return Double.parseDouble(" + "_ret.toString());\n");
                 } else { // char
                     writer.append("        return _ret.toString().charAt(0);\n");
@@ -414,11 +382,11 @@ public final class ServiceClientGenerator extends AbstractGenerator {
          * Determine is soap object or soap primitive
          * @param method
          */
-        private String writeConvertSoapReturnType(final Method method){
-            Class <?> type = method.getReturnType();
+        private String writeConvertSoapReturnType(final OperationModel method){
+            JavaType type = method.getReturnType();
             String soapReturnType = "SoapObject";
-            if (type.equals(void.class)) { // ignore the void type
-            } else if (type.isPrimitive() || type.equals(String.class)){
+            if (type.is(void.class)) { // ignore the void type
+            } else if (type.isPrimitive() || type.is(String.class)){
                 return "SoapPrimitive";
             }
 
@@ -432,7 +400,7 @@ public final class ServiceClientGenerator extends AbstractGenerator {
          * @return <tt>true</tt> if the class type is supported, and
          * <tt>false</tt> otherwise.
          */
-        private boolean isSupported(final Class <?> type) {
+        private boolean isSupported(final JavaType type) {
             Class <?> [] supported = {String.class,
 		            Long.class,
 		            Integer.class,
@@ -443,7 +411,7 @@ public final class ServiceClientGenerator extends AbstractGenerator {
                     Float.class};
 
             for (Class <?> clazz : supported) {
-                if (type.equals(clazz)) {
+                if (type.is(clazz)) {
                     return true;
                 }
             }
@@ -462,14 +430,14 @@ public final class ServiceClientGenerator extends AbstractGenerator {
     }
 
     @Override
-    protected void writeImportedClasses(Class<?> clazz, Writer writer) throws GeneratorException {
-        Util.checkNull(clazz, writer);
+    protected void writeImportedClasses(Writer writer) throws GeneratorException {
+        Util.checkNull(writer);
         writer.append("import org.ksoap2.SoapEnvelope;\n");
 	    writer.append("import org.ksoap2.SoapFault;\n");
         writer.append("import org.ksoap2.serialization.SoapObject;\n");
         writer.append("import org.ksoap2.serialization.SoapPrimitive;\n");
         writer.append("import org.ksoap2.serialization.SoapSerializationEnvelope;\n");
-        writer.append("import org.ksoap2.transport." + HTTP_TRANSPORT + ";\n");
+        writer.append("import org.ksoap2.transport." + httpTransport + ";\n");
 	    writer.append("import org.ksoap2.serialization.PropertyInfo;\n");
 	    //writer.append("import " + clazz.getPackage() + ".application.services.Configuration;\n\n");
     }
@@ -0,0 +1,94 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Web service, which becomes the generated client class.
+ *
+ */
+public final class ServiceModel {
+
+    /**
+     * The fully qualified class name of the client.
+     */
+    private final String className;
+
+    /**
+     * The package of the Configuration class.
+     */
+    private final String configurationPackage;
+
+    /**
+     * The operations.
+     */
+    private final List<OperationModel> operations;
+
+    /**
+     * Constructor.
+     *
+     * @param className
+     *              The fully qualified class name of the client.
+     * @param configurationPackage
+     *              The package of the Configuration class.
+     * @param operations
+     *              The operations.
+     */
+    public ServiceModel(final String className, final String configurationPackage,
+            final List<OperationModel> operations) {
+        this.className = className;
+        this.configurationPackage = configurationPackage;
+        this.operations = Collections.unmodifiableList(operations);
+    }
+
+    /**
+     *
+     * @return The fully qualified class name of the client.
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     *
+     * @return The package of the Configuration class.
+     */
+    public String getConfigurationPackage() {
+        return configurationPackage;
+    }
+
+    /**
+     *
+     * @return The operations.
+     */
+    public List<OperationModel> getOperations() {
+        return operations;
+    }
+}
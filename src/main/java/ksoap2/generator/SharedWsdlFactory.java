@@ -0,0 +1,98 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import com.ibm.wsdl.factory.WSDLFactoryImpl;
+import com.ibm.wsdl.xml.WSDLReaderImpl;
+import org.w3c.dom.Document;
+
+import javax.wsdl.Definition;
+import javax.wsdl.WSDLException;
+import javax.wsdl.xml.WSDLReader;
+
+/**
+ * WSDL factory registered in META-INF/services. Axis reads the WSDL document
+ * through <tt>WSDLFactory.newInstance()</tt>; while a {@link WsdlDocument} is
+ * bound to the current thread, reading its DOM returns the definition already
+ * built instead of parsing it again. Otherwise, it behaves as the default
+ * wsdl4j factory.
+ * <p>
+ * Axis fetches the imported documents itself: while the WSDL document is
+ * bound, the response cache of {@link WsdlCache} serves them from the
+ * contents read with the document.
+ *
+ */
+public class SharedWsdlFactory extends WSDLFactoryImpl {
+
+    /**
+     * The WSDL document bound to the current thread.
+     */
+    private static final ThreadLocal<WsdlDocument> BOUND = new ThreadLocal<WsdlDocument>();
+
+    /**
+     * Binds the WSDL document to the current thread.
+     *
+     * @param wsdl
+     *              The WSDL document.
+     */
+    static void bind(final WsdlDocument wsdl) {
+        WsdlCache.install();
+        BOUND.set(wsdl);
+    }
+
+    /**
+     *
+     * @return The WSDL document bound to the current thread, or
+     *              <tt>null</tt>.
+     */
+    static WsdlDocument getBound() {
+        return BOUND.get();
+    }
+
+    /**
+     * Unbinds the WSDL document from the current thread.
+     */
+    static void unbind() {
+        BOUND.remove();
+    }
+
+    @Override
+    public WSDLReader newWSDLReader() {
+        return new WSDLReaderImpl() {
+
+            @Override
+            public Definition readWSDL(final String documentBaseURI, final Document wsdlDocument) throws WSDLException {
+                WsdlDocument wsdl = BOUND.get();
+                if (wsdl != null && wsdl.getDocument() == wsdlDocument) {
+                    return wsdl.getDefinition();
+                }
+                return super.readWSDL(documentBaseURI, wsdlDocument);
+            }
+        };
+    }
+}
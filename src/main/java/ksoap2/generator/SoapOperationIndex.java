@@ -0,0 +1,333 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+package ksoap2.generator;
+
+import javax.wsdl.Binding;
+import javax.wsdl.BindingInput;
+import javax.wsdl.BindingOperation;
+import javax.wsdl.Definition;
+import javax.wsdl.Operation;
+import javax.wsdl.Part;
+import javax.wsdl.PortType;
+import javax.wsdl.extensions.soap.SOAPBinding;
+import javax.wsdl.extensions.soap.SOAPBody;
+import javax.wsdl.extensions.soap.SOAPOperation;
+import javax.wsdl.extensions.soap12.SOAP12Binding;
+import javax.wsdl.extensions.soap12.SOAP12Body;
+import javax.wsdl.extensions.soap12.SOAP12Operation;
+import javax.xml.namespace.QName;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The operations of a WSDL document by port type and name, with the
+ * namespace of their request and their SOAP action, resolved once from the
+ * SOAP bindings of each port type: the operations of the same name in two
+ * port types are distinct. The names are compared regardless of the case,
+ * as axis changes the case of the first letter of the Java methods.
+ * <p>
+ * The namespace of a document style operation is the one of the element of
+ * its first input part, the one of an rpc style operation is the namespace
+ * of its SOAP body; both default to the target namespace of the document.
+ * The SOAP 1.1 bindings take precedence over the SOAP 1.2 ones.
+ * <p>
+ * The index also keeps the order of the operations in their port type,
+ * which is the order of the methods of the generated clients.
+ *
+ */
+public final class SoapOperationIndex {
+
+    /**
+     * The rpc style.
+     */
+    private static final String RPC_STYLE = "rpc";
+
+    /**
+     * The operations by port type, then by lower-case name.
+     */
+    private final Map<QName, Map<String, Entry>> entries = new HashMap<QName, Map<String, Entry>>();
+
+    /**
+     * The positions of the operations in their port type, by port type,
+     * then by lower-case name.
+     */
+    private final Map<QName, Map<String, Integer>> positions = new HashMap<QName, Map<String, Integer>>();
+
+    /**
+     * The target namespace of the document.
+     */
+    private final String targetNamespace;
+
+    /**
+     * Private constructor.
+     *
+     * @param targetNamespace
+     *              The target namespace of the document.
+     */
+    private SoapOperationIndex(final String targetNamespace) {
+        this.targetNamespace = (targetNamespace == null) ? "" : targetNamespace;
+    }
+
+    /**
+     * Indexes the operations of a WSDL document.
+     *
+     * @param definition
+     *              The WSDL document.
+     * @return The index.
+     * @throws GeneratorException
+     *              The exception if the document is <tt>null</tt>.
+     */
+    @SuppressWarnings("unchecked")
+    public static SoapOperationIndex of(final Definition definition) throws GeneratorException {
+        Util.checkNull(definition);
+        SoapOperationIndex index = new SoapOperationIndex(definition.getTargetNamespace());
+        // sorted by name, so that the first binding of a port type doesn't depend on the hash order
+        Map<String, Binding> bindings = new TreeMap<String, Binding>();
+        for (Binding binding : ((Map<?, Binding>) definition.getAllBindings()).values()) {
+            bindings.put(binding.getQName().toString(), binding);
+        }
+        for (Binding binding : bindings.values()) {
+            SOAPBinding soapBinding = WsdlModelBuilder.getExtension(binding.getExtensibilityElements(), SOAPBinding.class);
+            if (soapBinding != null) {
+                index.addBinding(binding, soapBinding.getStyle(), false);
+            }
+        }
+        for (Binding binding : bindings.values()) {
+            SOAP12Binding soapBinding = WsdlModelBuilder.getExtension(binding.getExtensibilityElements(), SOAP12Binding.class);
+            if (soapBinding != null) {
+                index.addBinding(binding, soapBinding.getStyle(), true);
+            }
+        }
+        // the operations of the port types without SOAP binding keep their name only
+        for (PortType portType : ((Map<?, PortType>) definition.getAllPortTypes()).values()) {
+            Map<String, Integer> operationPositions = new HashMap<String, Integer>();
+            for (Operation operation : (List<Operation>) portType.getOperations()) {
+                index.add(portType.getQName(), new Entry(operation.getName(), null, null));
+                String key = operation.getName().toLowerCase(Locale.ROOT);
+                if (!operationPositions.containsKey(key)) {
+                    operationPositions.put(key, operationPositions.size());
+                }
+            }
+            index.positions.put(portType.getQName(), operationPositions);
+        }
+        return index;
+    }
+
+    /**
+     * Indexes the operations of a SOAP binding.
+     *
+     * @param binding
+     *              The binding.
+     * @param bindingStyle
+     *              The style of the binding, or <tt>null</tt>.
+     * @param soap12
+     *              Whether the binding is a SOAP 1.2 one.
+     */
+    @SuppressWarnings("unchecked")
+    private void addBinding(final Binding binding, final String bindingStyle,
+            final boolean soap12) {
+        if (binding.getPortType() == null) {
+            return;
+        }
+        QName portType = binding.getPortType().getQName();
+        for (BindingOperation bindingOperation : (List<BindingOperation>) binding.getBindingOperations()) {
+            Operation operation = bindingOperation.getOperation();
+            if (operation == null) {
+                continue;
+            }
+            List<?> extensions = bindingOperation.getExtensibilityElements();
+            String style;
+            String soapAction;
+            if (soap12) {
+                SOAP12Operation soapOperation = WsdlModelBuilder.getExtension(extensions, SOAP12Operation.class);
+                style = (soapOperation == null) ? null : soapOperation.getStyle();
+                soapAction = (soapOperation == null) ? null : soapOperation.getSoapActionURI();
+            } else {
+                SOAPOperation soapOperation = WsdlModelBuilder.getExtension(extensions, SOAPOperation.class);
+                style = (soapOperation == null) ? null : soapOperation.getStyle();
+                soapAction = (soapOperation == null) ? null : soapOperation.getSoapActionURI();
+            }
+            if (style == null) {
+                style = bindingStyle;
+            }
+            String namespace = null;
+            if (RPC_STYLE.equals(style)) {
+                BindingInput input = bindingOperation.getBindingInput();
+                if (input != null) {
+                    List<?> inputExtensions = input.getExtensibilityElements();
+                    if (soap12) {
+                        SOAP12Body soapBody = WsdlModelBuilder.getExtension(inputExtensions, SOAP12Body.class);
+                        namespace = (soapBody == null) ? null : soapBody.getNamespaceURI();
+                    } else {
+                        SOAPBody soapBody = WsdlModelBuilder.getExtension(inputExtensions, SOAPBody.class);
+                        namespace = (soapBody == null) ? null : soapBody.getNamespaceURI();
+                    }
+                }
+            } else if ((operation.getInput() != null) && (operation.getInput().getMessage() != null)) {
+                for (Part part : (List<Part>) operation.getInput().getMessage().getOrderedParts(null)) {
+                    if (part.getElementName() != null) {
+                        namespace = part.getElementName().getNamespaceURI();
+                        break;
+                    }
+                }
+            }
+            if ((namespace == null) || namespace.isEmpty()) {
+                namespace = targetNamespace;
+            }
+            if ((soapAction != null) && soapAction.isEmpty()) {
+                soapAction = null;
+            }
+            add(portType, new Entry(operation.getName(), namespace, soapAction));
+        }
+    }
+
+    /**
+     * Adds an operation of a port type, unless one of the same name was
+     * already added by another binding of the port type.
+     *
+     * @param portType
+     *              The name of the port type.
+     * @param entry
+     *              The operation.
+     */
+    private void add(final QName portType, final Entry entry) {
+        Map<String, Entry> operations = entries.get(portType);
+        if (operations == null) {
+            operations = new HashMap<String, Entry>();
+            entries.put(portType, operations);
+        }
+        String key = entry.getOperationName().toLowerCase(Locale.ROOT);
+        if (!operations.containsKey(key)) {
+            operations.put(key, entry);
+        }
+    }
+
+    /**
+     *
+     * @param portType
+     *              The name of the port type.
+     * @param name
+     *              The name of the operation or of its Java method.
+     * @return The operation, or <tt>null</tt> if the port type has no such
+     *              operation.
+     */
+    public Entry get(final QName portType, final String name) {
+        Map<String, Entry> operations = entries.get(portType);
+        return (operations == null) ? null : operations.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     *
+     * @param portType
+     *              The name of the port type.
+     * @param name
+     *              The name of the operation or of its Java method.
+     * @return The position of the operation in the port type, or
+     *              {@link Integer#MAX_VALUE} if the port type has no such
+     *              operation.
+     */
+    public int getPosition(final QName portType, final String name) {
+        Map<String, Integer> operationPositions = positions.get(portType);
+        Integer position = (operationPositions == null) ? null : operationPositions.get(name.toLowerCase(Locale.ROOT));
+        return (position == null) ? Integer.MAX_VALUE : position;
+    }
+
+    /**
+     *
+     * @return The target namespace of the document, or an empty string.
+     */
+    public String getTargetNamespace() {
+        return targetNamespace;
+    }
+
+    /**
+     * Operation of the index.
+     */
+    public static final class Entry {
+
+        /**
+         * The operation name in the WSDL document.
+         */
+        private final String operationName;
+
+        /**
+         * The namespace of the request, or <tt>null</tt>.
+         */
+        private final String namespace;
+
+        /**
+         * The SOAP action, or <tt>null</tt>.
+         */
+        private final String soapAction;
+
+        /**
+         * Constructor.
+         *
+         * @param operationName
+         *              The operation name in the WSDL document.
+         * @param namespace
+         *              The namespace of the request, or <tt>null</tt> if
+         *              the operation has no SOAP binding.
+         * @param soapAction
+         *              The SOAP action, or <tt>null</tt> if none is
+         *              declared.
+         */
+        Entry(final String operationName, final String namespace, final String soapAction) {
+            this.operationName = operationName;
+            this.namespace = namespace;
+            this.soapAction = soapAction;
+        }
+
+        /**
+         *
+         * @return The operation name in the WSDL document.
+         */
+        public String getOperationName() {
+            return operationName;
+        }
+
+        /**
+         *
+         * @return The namespace of the request, or <tt>null</tt> if the
+         *              operation has no SOAP binding.
+         */
+        public String getNamespace() {
+            return namespace;
+        }
+
+        /**
+         *
+         * @return The SOAP action, or <tt>null</tt> if none is declared.
+         */
+        public String getSoapAction() {
+            return soapAction;
+        }
+    }
+}
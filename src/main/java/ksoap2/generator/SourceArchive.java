@@ -0,0 +1,263 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+package ksoap2.generator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * The generated code of a target kept in memory, then written into a
+ * single source archive, and compiled into the client jar if asked,
+ * instead of a source file per class: the folders and the thousands of
+ * small files of a large WSDL document are replaced by one file.
+ * <p>
+ * The classes are added by the threads generating the types, in any order;
+ * the entries are written sorted, with a fixed date, so that the same code
+ * gives the same archive, left untouched, whatever the number of threads.
+ *
+ */
+public final class SourceArchive {
+
+    /**
+     * The date of all the entries, the local time is stored so it doesn't
+     * depend on the time zone.
+     */
+    private static final long ENTRY_TIME = new GregorianCalendar(2010, 0, 1).getTimeInMillis();
+
+    /**
+     * The code of the classes, by source path.
+     */
+    private final Map<String, byte []> sources = new TreeMap<String, byte []>();
+
+    /**
+     * Whether the entries are stored without compression.
+     */
+    private final boolean stored;
+
+    /**
+     * Constructor.
+     *
+     * @param stored
+     *              <tt>true</tt> to store the entries of the archives
+     *              without compression, <tt>false</tt> for the fastest
+     *              deflate.
+     */
+    public SourceArchive(final boolean stored) {
+        this.stored = stored;
+    }
+
+    /**
+     * Adds the code of a class.
+     *
+     * @param className
+     *              The fully qualified class name.
+     * @param content
+     *              The code of the class.
+     */
+    public void add(final String className, final String content) {
+        byte [] bytes = content.getBytes(StandardCharsets.UTF_8);
+        synchronized (sources) {
+            sources.put(FileManager.getSourcePath(className), bytes);
+        }
+    }
+
+    /**
+     * Writes the source archive.
+     *
+     * @param path
+     *              The path of the archive.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    public void write(final String path) throws GeneratorException {
+        Util.checkNull(path);
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ZipOutputStream output = new ZipOutputStream(bytes);
+            try {
+                synchronized (sources) {
+                    writeEntries(output, sources);
+                }
+            } finally {
+                output.close();
+            }
+            FileManager.saveFile(path, bytes.toByteArray());
+        } catch (IOException e) {
+            throw new GeneratorException(e);
+        }
+    }
+
+    /**
+     * Compiles the code and writes the classes into the client jar.
+     *
+     * @param path
+     *              The path of the jar.
+     * @param classpath
+     *              The class path of the compilation: the ksoap2 library of
+     *              the target.
+     * @throws GeneratorException
+     *              The exception if the code doesn't compile.
+     */
+    public void compile(final String path, final String classpath) throws GeneratorException {
+        Util.checkNull(path, classpath);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        MemoryJavaFileManager fileManager = new MemoryJavaFileManager(standardFileManager);
+        List<JavaFileObject> compilationUnits = new ArrayList<JavaFileObject>();
+        synchronized (sources) {
+            for (Map.Entry<String, byte []> source : sources.entrySet()) {
+                compilationUnits.add(new Source(source.getKey(), source.getValue()));
+            }
+        }
+        List<String> options = new ArrayList<String>();
+        options.add("-classpath");
+        options.add(classpath);
+        // class files which the Android tools of any version read
+        options.add("-source");
+        options.add("1.8");
+        options.add("-target");
+        options.add("1.8");
+        options.add("-Xlint:-options");
+        options.add("-proc:none");
+        options.add("-nowarn");
+        if (!compiler.getTask(null, fileManager, diagnostics, options, null, compilationUnits).call()) {
+            StringBuilder message = new StringBuilder("cannot compile the client");
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                    message.append('\n').append(diagnostic);
+                }
+            }
+            throw new GeneratorException(message.toString());
+        }
+        Map<String, byte []> classes = new TreeMap<String, byte []>();
+        for (Map.Entry<String, byte []> entry : fileManager.getClassBytes().entrySet()) {
+            classes.put(entry.getKey().replace('.', '/') + ".class", entry.getValue());
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            Manifest manifest = new Manifest();
+            manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+            // the manifest is written as an entry, to get the fixed date too
+            JarOutputStream output = new JarOutputStream(bytes);
+            try {
+                ByteArrayOutputStream manifestBytes = new ByteArrayOutputStream();
+                manifest.write(manifestBytes);
+                Map<String, byte []> entries = new TreeMap<String, byte []>();
+                entries.put("META-INF/MANIFEST.MF", manifestBytes.toByteArray());
+                writeEntries(output, entries);
+                writeEntries(output, classes);
+            } finally {
+                output.close();
+            }
+            FileManager.saveFile(path, bytes.toByteArray());
+        } catch (IOException e) {
+            throw new GeneratorException(e);
+        }
+    }
+
+    /**
+     * Writes the entries into the archive, stored or deflated.
+     *
+     * @param output
+     *              The archive.
+     * @param entries
+     *              The content of the entries, by path.
+     * @throws IOException
+     *              The exception.
+     */
+    private void writeEntries(final ZipOutputStream output, final Map<String, byte []> entries) throws IOException {
+        output.setLevel(Deflater.BEST_SPEED);
+        for (Map.Entry<String, byte []> entry : entries.entrySet()) {
+            byte [] content = entry.getValue();
+            ZipEntry zipEntry = new ZipEntry(entry.getKey());
+            zipEntry.setTime(ENTRY_TIME);
+            if (stored) {
+                CRC32 crc = new CRC32();
+                crc.update(content);
+                zipEntry.setMethod(ZipEntry.STORED);
+                zipEntry.setSize(content.length);
+                zipEntry.setCompressedSize(content.length);
+                zipEntry.setCrc(crc.getValue());
+            }
+            output.putNextEntry(zipEntry);
+            output.write(content);
+            output.closeEntry();
+        }
+    }
+
+    /**
+     * The code of a class, read by the compiler.
+     */
+    private static final class Source extends SimpleJavaFileObject {
+
+        /**
+         * The code of the class.
+         */
+        private final byte [] content;
+
+        /**
+         * Constructor.
+         *
+         * @param path
+         *              The source path of the class.
+         * @param content
+         *              The code of the class.
+         */
+        Source(final String path, final byte [] content) {
+            super(URI.create("string:///" + path), Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+            return new String(content, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -27,37 +27,136 @@
 
 package ksoap2.generator;
 
-import java.util.logging.Logger;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
 
 /**
+ * Writes the generated code to a target, a buffer by default. The writer is
+ * used by a single generator and is not synchronized. Like
+ * {@link java.io.PrintWriter}, it doesn't throw the exceptions of the target
+ * when appending, the first one is thrown by {@link #close()}.
  *
  * @author Cong Kinh Nguyen
  *
  */
-public final class Writer {
+public final class Writer implements Appendable {
 
     /**
-     * The string buffer.
+     * The initial capacity of the buffer, a few kilobytes is enough for most
+     * classes.
      */
-    private StringBuffer buffer = new StringBuffer();
+    private static final int CAPACITY = 8192;
 
     /**
-     * Java logger.
+     * The target.
      */
-    private Logger logger = Logger.getLogger(Writer.class.getName());
+    private final Appendable out;
 
-    public void append(final String str) {
-        if (str != null) {
-            buffer.append(str);
+    /**
+     * The first exception of the target, or <tt>null</tt>.
+     */
+    private IOException error;
+
+    /**
+     * Constructor of a writer to a buffer, see {@link #toString()}.
+     */
+    public Writer() {
+        this(new StringBuilder(CAPACITY));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param out
+     *              The target, a buffered {@link java.io.Writer} of a file
+     *              for instance.
+     */
+    public Writer(final Appendable out) {
+        this.out = out;
+    }
+
+    /**
+     * Appends the text, nothing if it is <tt>null</tt>.
+     *
+     * @param csq
+     *              The text.
+     * @return This writer.
+     */
+    @Override
+    public Writer append(final CharSequence csq) {
+        if ((csq != null) && (error == null)) {
+            try {
+                out.append(csq);
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @see Appendable#append(CharSequence, int, int)
+     */
+    @Override
+    public Writer append(final CharSequence csq, final int start, final int end) {
+        if ((csq != null) && (error == null)) {
+            try {
+                out.append(csq, start, end);
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @see Appendable#append(char)
+     */
+    @Override
+    public Writer append(final char c) {
+        if (error == null) {
+            try {
+                out.append(c);
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Flushes and closes the target if it can be, and throws the first
+     * exception of the target.
+     *
+     * @throws GeneratorException
+     *              The exception of the target.
+     */
+    public void close() throws GeneratorException {
+        try {
+            if (out instanceof Flushable) {
+                ((Flushable) out).flush();
+            }
+            if (out instanceof Closeable) {
+                ((Closeable) out).close();
+            }
+        } catch (IOException e) {
+            if (error == null) {
+                error = e;
+            }
+        }
+        if (error != null) {
+            throw new GeneratorException(error);
         }
     }
 
     /**
+     * @return The content written to the buffer, or the description of the
+     *              target.
      * @see Object#toString()
      */
+    @Override
     public String toString() {
-        logger.info("the content of class:");
-        logger.info(buffer.toString());
-        return buffer.toString();
+        return out.toString();
     }
 }
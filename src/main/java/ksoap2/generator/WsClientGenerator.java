@@ -27,8 +27,15 @@
 
 package ksoap2.generator;
 
-import javax.wsdl.Operation;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Class to generate stub ws client in J2ME.
@@ -39,63 +46,297 @@ import java.util.List;
 public final class WsClientGenerator {
 
     /**
-     * List of WSDL operation
+     * The model of the client.
      */
-    private final List<Operation> operationList;
+    private final ClientModel model;
+
     /**
-     * The class.
+     * The generated folder.
      */
-    private Class <?> clazz;
+    private String generatedFolder;
 
-    private Class <?> stubClass;
+    /**
+     * The fingerprint of the last generation, or <tt>null</tt> to generate
+     * all the types.
+     */
+    private final Fingerprint previous;
 
-	List<String> serviceClasses;
     /**
-     *
+     * The fingerprint of this generation, or <tt>null</tt>.
      */
-    private boolean isService;
+    private final Fingerprint next;
 
     /**
-     * The generated folder.
+     * The fully qualified names of all the classes of the run.
      */
-    private String generatedFolder;
+    private final List<String> classNames = new ArrayList<String>();
+
+    /**
+     * The HTTP transport class of the services.
+     */
+    private String httpTransport = ServiceClientGenerator.HTTP_TRANSPORT_J2ME;
+
+    /**
+     * The number of threads generating the complex types.
+     */
+    private int parallelism = 1;
 
-    private Writer writer = new Writer();
+    /**
+     * The source archive which the code is added to, or <tt>null</tt>.
+     */
+    private SourceArchive archive;
+
+    public WsClientGenerator(final ClientModel model, final String generatedFolder) {
+        this(model, generatedFolder, null, null);
+    }
 
-    public WsClientGenerator(List<String> serviceClasses, final Class<?> clazz, final Class<?> stubClass, boolean isService, final String generatedFolder, List<Operation> operationList) {
-        this.clazz = clazz;
-        this.stubClass = stubClass;
-        this.isService = isService;
+    /**
+     * Constructor.
+     *
+     * @param model
+     *              The model of the client.
+     * @param generatedFolder
+     *              The generated folder.
+     * @param previous
+     *              The fingerprint of the last generation, the types whose
+     *              model is unchanged are not generated again. <tt>null</tt>
+     *              to generate all the types.
+     * @param next
+     *              The fingerprint of this generation, which the types are
+     *              recorded in, or <tt>null</tt>.
+     */
+    public WsClientGenerator(final ClientModel model, final String generatedFolder,
+            final Fingerprint previous, final Fingerprint next) {
+        this.model = model;
         this.generatedFolder = generatedFolder;
-	    this.serviceClasses = serviceClasses;
-	    this.operationList = operationList;
+        this.previous = previous;
+        this.next = next;
+    }
+
+    /**
+     * Sets the HTTP transport class of the services,
+     * {@link ServiceClientGenerator#HTTP_TRANSPORT_J2ME} by default.
+     *
+     * @param httpTransport
+     *              The HTTP transport class.
+     */
+    public void setHttpTransport(final String httpTransport) {
+        this.httpTransport = httpTransport;
+    }
+
+    /**
+     * Sets the number of threads generating the complex types, 1 by default.
+     * Each type is written in its own file, so the generated code doesn't
+     * depend on it.
+     *
+     * @param parallelism
+     *              The number of threads, 1 to generate all the types in
+     *              the calling thread.
+     */
+    public void setParallelism(final int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Sets the source archive which the code is added to, instead of the
+     * source files of the generated folder. The types are then all
+     * generated, whatever the previous fingerprint.
+     *
+     * @param archive
+     *              The source archive, or <tt>null</tt>.
+     */
+    public void setArchive(final SourceArchive archive) {
+        this.archive = archive;
     }
 
     /**
-     * Loads context class loader, and then generates code.
+     * Generates the code of the services and the complex types.
      *
      * @throws GeneratorException
      *              The generation exception.
      */
     protected void run() throws GeneratorException {
+        Util.checkNull(model, generatedFolder);
+        classNames.clear();
+        // the fingerprint and the class names are filled in the model order,
+        // only the emission of the types runs in parallel
+        List<BeanModel> beans = new ArrayList<BeanModel>();
+        for (BeanModel bean : model.getBeans()) {
+            if (!isUpToDate(bean.getClassName(), Fingerprint.hash(bean))) {
+                beans.add(bean);
+            }
+        }
+        ExecutorService executor = null;
+        List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        if ((parallelism > 1) && (beans.size() > 1)) {
+            executor = Executors.newFixedThreadPool(Math.min(parallelism, beans.size()),
+                    new GeneratorThreadFactory(Thread.currentThread().getContextClassLoader(),
+                            GenerationReport.current()));
+            for (BeanModel bean : beans) {
+                futures.add(executor.submit(new ComplexTypeTask(bean)));
+            }
+            beans.clear();
+        }
+        try {
+            // the services share their Configuration class, they are
+            // generated in this thread while the types are in the others
+            for (ServiceModel service : model.getServices()) {
+                if (!isUpToDate(service.getClassName(), Fingerprint.hash(service))) {
+                    ServiceClientGenerator generator = new ServiceClientGenerator(service, new Writer(),
+                            generatedFolder, httpTransport);
+                    generator.setArchive(archive);
+                    generator.run();
+                }
+                classNames.add(service.getClassName());
+                String configurationPackage = service.getConfigurationPackage();
+                classNames.add(configurationPackage.isEmpty() ? "Configuration" : configurationPackage + ".Configuration");
+            }
+            for (BeanModel bean : beans) {
+                new ComplexTypeTask(bean).call();
+            }
+            for (Future<Void> future : futures) {
+                await(future);
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        for (BeanModel bean : model.getBeans()) {
+            classNames.add(bean.getClassName());
+        }
+    }
 
-	    if(isEnum()){
+    /**
+     * Waits for the generation of a complex type.
+     *
+     * @param future
+     *              The generation of the complex type.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    private static void await(final Future<Void> future) throws GeneratorException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeneratorException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GeneratorException) {
+                throw (GeneratorException) e.getCause();
+            }
+            throw new GeneratorException(e.getCause());
+        }
+    }
 
-	    }
+    /**
+     *
+     * @return The fully qualified names of all the classes of the run, the
+     *              classes which were up to date included.
+     */
+    public List<String> getClassNames() {
+        return classNames;
+    }
 
-        if (isService) {
-            new ServiceClientGenerator(clazz, stubClass, writer, generatedFolder, operationList).run();
-        } else {
-            new ComplexTypeGenerator(serviceClasses, clazz, writer, generatedFolder).run();
+    /**
+     * Records the type in the fingerprint of this generation and checks
+     * whether it was already generated from the same model.
+     *
+     * @param className
+     *              The class name of the type.
+     * @param hash
+     *              The hash of the model of the type.
+     * @return <tt>true</tt> if the type doesn't need to be generated again.
+     */
+    private boolean isUpToDate(final String className, final String hash) {
+        if (archive != null) {
+            return false; // the archive is written again as a whole
+        }
+        if (next != null) {
+            next.putType(className, hash);
         }
+        return (previous != null) && previous.hasType(className, hash, generatedFolder);
     }
 
-	private boolean isEnum() {
+    /**
+     * Generates the code of a complex type.
+     */
+    private final class ComplexTypeTask implements Callable<Void> {
 
-		clazz.isEnum();
+        /**
+         * The complex type.
+         */
+        private final BeanModel bean;
 
+        /**
+         * Constructor.
+         *
+         * @param bean
+         *              The complex type.
+         */
+        ComplexTypeTask(final BeanModel bean) {
+            this.bean = bean;
+        }
 
-		return false;
-	}
+        @Override
+        public Void call() throws GeneratorException {
+            ComplexTypeGenerator generator = new ComplexTypeGenerator(bean, new Writer(), generatedFolder);
+            generator.setArchive(archive);
+            generator.run();
+            return null;
+        }
+    }
 
-}
\ No newline at end of file
+    /**
+     * Creates the daemon threads generating the complex types, with the
+     * context class loader and the report of the calling thread.
+     */
+    private static final class GeneratorThreadFactory implements ThreadFactory {
+
+        /**
+         * The number of the next thread.
+         */
+        private final AtomicInteger number = new AtomicInteger(1);
+
+        /**
+         * The context class loader of the threads.
+         */
+        private final ClassLoader loader;
+
+        /**
+         * The report of the threads, or <tt>null</tt>.
+         */
+        private final GenerationReport.Document report;
+
+        /**
+         * Constructor.
+         *
+         * @param loader
+         *              The context class loader of the threads.
+         * @param report
+         *              The report of the threads, or <tt>null</tt>.
+         */
+        GeneratorThreadFactory(final ClassLoader loader, final GenerationReport.Document report) {
+            this.loader = loader;
+            this.report = report;
+        }
+
+        @Override
+        public Thread newThread(final Runnable task) {
+            Runnable runnable = task;
+            if (report != null) {
+                runnable = new Runnable() {
+                    @Override
+                    public void run() {
+                        report.bind();
+                        task.run();
+                    }
+                };
+            }
+            Thread thread = new Thread(runnable, "ksoap2-generator-" + number.getAndIncrement());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(loader);
+            return thread;
+        }
+    }
+}
@@ -78,12 +78,50 @@ public final class WsCompiler {
         this.generatedFolder = generatedFolder;
     }
 
+    /**
+     * Constructor for the compilation in memory.
+     *
+     * @param generatedFolder
+     *              The generated folder.
+     */
+    public WsCompiler(final String generatedFolder) {
+        this(generatedFolder, null);
+    }
+
     public void run() throws GeneratorException {
         Util.checkNull(compiledFolder);
         Util.checkNull(generatedFolder);
         compile(generatedFolder, compiledFolder);
     }
 
+    /**
+     * Compiles the code generated by axis without writing any class file, the
+     * byte code is kept in memory and served by the returned class loader.
+     *
+     * @param parent
+     *              The parent class loader.
+     * @return The class loader of the compiled classes.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    public ClassLoader runInMemory(final ClassLoader parent) throws GeneratorException {
+        Util.checkNull(generatedFolder);
+        logger.info("runInMemory method");
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(
+                new DiagnosticCollector<JavaFileObject>(), null, null);
+        MemoryJavaFileManager fileManager = new MemoryJavaFileManager(standardFileManager);
+        Iterable<? extends JavaFileObject> compilationUnits = standardFileManager
+                .getJavaFileObjectsFromStrings(FileManager.getFileNames(
+                        generatedFolder));
+        CompilationTask task = compiler.getTask(null, fileManager, null,
+                getOptions(), null, compilationUnits);
+        if (!task.call()) {
+            throw new GeneratorException(COMPILE_ERROR);
+        }
+        return new MemoryClassLoader(fileManager.getClassBytes(), parent);
+    }
+
     private void compile(final String sourcepath, final String destpath) throws GeneratorException {
         logger.info("compile method");
         JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
@@ -94,20 +132,9 @@ public final class WsCompiler {
         Iterable<? extends JavaFileObject> compilationUnits = fileManager
                 .getJavaFileObjectsFromStrings(FileManager.getFileNames(
                         sourcepath));
-        List<String> options = new ArrayList<String>();
-        options.add("-classpath");
-        StringBuilder sb = new StringBuilder();
-        URLClassLoader urlClassLoader = (URLClassLoader) Thread.currentThread()
-                .getContextClassLoader();
-        for (URL url : urlClassLoader.getURLs()) {
-                sb.append(url.getFile()).append(File.pathSeparator);
-        }
-        logger.info("libraries: " + sb.toString());
-        options.add(sb.toString());
+        List<String> options = getOptions();
         options.add("-d");
         options.add(destpath);
-        options.add("-g:vars");
-        options.add("-nowarn");
         CompilationTask task = compiler.getTask(null, fileManager, null ,
                 options, null, compilationUnits);
         boolean success = task.call();
@@ -115,4 +142,29 @@ public final class WsCompiler {
             throw new GeneratorException(COMPILE_ERROR);
         }
     }
+
+    /**
+     *
+     * @return The options shared by both compilation modes.
+     */
+    private List<String> getOptions() {
+        List<String> options = new ArrayList<String>();
+        options.add("-classpath");
+        StringBuilder sb = new StringBuilder();
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader instanceof URLClassLoader) {
+            for (URL url : ((URLClassLoader) loader).getURLs()) {
+                    sb.append(url.getFile()).append(File.pathSeparator);
+            }
+        } else {
+            // the application class loader since Java 9
+            sb.append(System.getProperty("java.class.path")).append(File.pathSeparator);
+        }
+        logger.info("libraries: " + sb.toString());
+        options.add(sb.toString());
+        // the parameter names of the service interfaces, read by reflection
+        options.add("-parameters");
+        options.add("-nowarn");
+        return options;
+    }
 }
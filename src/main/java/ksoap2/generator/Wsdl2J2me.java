@@ -27,30 +27,23 @@
 
 package ksoap2.generator;
 
-import com.ibm.wsdl.PortTypeImpl;
-import com.ibm.wsdl.xml.WSDLReaderImpl;
+import com.ibm.wsdl.util.StringUtils;
 import com.martiansoftware.jsap.FlaggedOption;
 import com.martiansoftware.jsap.JSAP;
 import com.martiansoftware.jsap.JSAPException;
 import com.martiansoftware.jsap.JSAPResult;
-import org.apache.axis.wsdl.WSDL2Java;
+import com.martiansoftware.jsap.Switch;
 
-import javax.wsdl.Definition;
-import javax.wsdl.Operation;
-import javax.wsdl.WSDLException;
-import javax.wsdl.xml.WSDLReader;
-import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
-import java.rmi.Remote;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
 
@@ -88,16 +81,14 @@ public final class Wsdl2J2me {
     private final String DEFAULT_FOLDER = System.getProperty("user.dir") + separatorChar + "target";
 
     /**
-     * The temp generated folder will be created and deleted while executing
-     * the program.
+     * The J2ME target of the <tt>--target</tt> option.
      */
-    private final String TEMP_GEN_FOLDER = System.getProperty("user.dir") + separatorChar + "___tmp__gen__ksoap";
+    private static final String TARGET_J2ME = "j2me";
 
     /**
-     * The temp compiled folder will be created and deleted while executing
-     * the program.
+     * The Android target of the <tt>--target</tt> option.
      */
-    private final String TEMP_COM_FOLDER = System.getProperty("user.dir") + separatorChar + "___tmp__com__ksoap";
+    private static final String TARGET_ANDROID = "android";
 
     /**
      * The logger.
@@ -105,38 +96,181 @@ public final class Wsdl2J2me {
     private final Logger logger = Logger.getLogger(Wsdl2J2me.class.getName());
 
     /**
-     * Public constructor.
+     * The HTTP transport class of the generated services.
+     */
+    private final String httpTransport;
+
+    /**
+     * The engine running the generations.
+     */
+    private final GeneratorEngine engine = new GeneratorEngine();
+
+    /**
+     * Public constructor, generating the services with the J2ME transport,
+     * {@link ServiceClientGenerator#HTTP_TRANSPORT_J2ME}.
      *
      * @param args
      *              The arguments.
      */
     public Wsdl2J2me(String[] args) {
+        this(args, ServiceClientGenerator.HTTP_TRANSPORT_J2ME);
+    }
+
+    /**
+     * Public constructor.
+     *
+     * @param args
+     *              The arguments.
+     * @param httpTransport
+     *              The HTTP transport class of the generated services,
+     *              {@link ServiceClientGenerator#HTTP_TRANSPORT_J2ME} or
+     *              {@link ServiceClientGenerator#HTTP_TRANSPORT_ANDROID}.
+     */
+    public Wsdl2J2me(String[] args, final String httpTransport) {
         this.args = args;
+        this.httpTransport = httpTransport;
     }
 
     /**
-     * Runs this method to generate code in J2ME from the WSDL document.
+     * Runs this method to generate code in J2ME from the WSDL documents.
      *
      * @throws Exception
-     *              The exception.
+     *              The exception, {@link GeneratorException} if the
+     *              arguments are invalid.
      */
     public void run() throws Exception {
         register();
         parseArgs();
-        FileManager.removeFolder(TEMP_COM_FOLDER);
-        FileManager.removeFolder(TEMP_GEN_FOLDER);
-        FileManager.createFolder(TEMP_GEN_FOLDER);
-        FileManager.createFolder(TEMP_COM_FOLDER);
-        generateCodeInJ2SE();
-        logger.info("break 1");
-        new WsCompiler(TEMP_GEN_FOLDER, TEMP_COM_FOLDER).run();
-        logger.info("break 2");
-        String tmpJar = FileManager.createTempFile();
-        CreatingJar.run(TEMP_COM_FOLDER, tmpJar);
+        GeneratorOptions options = getOptions();
+        if (!config.getBoolean("watch")) {
+            engine.generate(options);
+            return;
+        }
+        try {
+            engine.generate(options);
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "the generation failed, waiting for a change", e);
+        }
+        watch(options);
+    }
 
-        generateCodeInJ2me(tmpJar, getWsdlMethodName());
-        FileManager.removeFolder(TEMP_GEN_FOLDER);
-        FileManager.removeFolder(TEMP_COM_FOLDER);
+    /**
+     * Watches the WSDL documents and their imports, and generates the code
+     * again on each change, in this JVM where axis and wsdl4j are already
+     * loaded. Only the changed types are written again, see
+     * {@link Fingerprint}. Runs until the thread is interrupted.
+     *
+     * @param options
+     *              The options of the generations.
+     * @throws Exception
+     *              The exception if the documents cannot be watched.
+     */
+    private void watch(final GeneratorOptions options) throws Exception {
+        WsdlWatcher watcher = new WsdlWatcher(config.getInt("poll"));
+        try {
+            while (true) {
+                List<String> uris = new ArrayList<String>();
+                for (GeneratorOptions.Job job : options.getJobs()) {
+                    uris.add(StringUtils.getURL(null, job.getWsdlLocation()).toString());
+                    // the imports are the same for all the targets
+                    String folder = options.getTargets().get(0).getFolder(
+                            FileManager.getCanonicalPath(job.getGeneratedFolder()));
+                    Fingerprint fingerprint = Fingerprint.load(FileManager.getStateFile(folder,
+                            job.getWsdlLocation(), Fingerprint.EXTENSION));
+                    if (fingerprint != null) {
+                        uris.addAll(fingerprint.getDocumentUris());
+                    }
+                }
+                watcher.watch(uris);
+                logger.info("watching " + options.getJobs().size() + " WSDL document(s)");
+                String change = watcher.awaitChange();
+                long start = System.nanoTime();
+                try {
+                    int generated = engine.generate(options);
+                    long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    Level level = (generated > 0) ? Level.INFO : Level.FINE;
+                    logger.log(level, change + ": " + generated + " WSDL document(s) generated in " + millis + " ms");
+                } catch (Exception e) {
+                    logger.log(Level.SEVERE, change + ": the generation failed", e);
+                }
+            }
+        } finally {
+            watcher.close();
+        }
+    }
+
+    /**
+     * Gets the options of the generations from the arguments. The WSDL
+     * documents to generate with their generated folder are the <tt>-w</tt>
+     * options, each one with the <tt>-g</tt> option of the same rank or the
+     * single <tt>-g</tt> option, then the lines of the batch file.
+     *
+     * @return The options.
+     * @throws GeneratorException
+     *              The exception if the options don't match, or the batch
+     *              file cannot be read.
+     */
+    private GeneratorOptions getOptions() throws GeneratorException {
+        GeneratorOptions.Builder builder = new GeneratorOptions.Builder();
+        String [] wsdls = config.getStringArray("wsdl");
+        String [] folders = config.getStringArray("generatedFolder");
+        if ((folders.length != 1) && (folders.length != wsdls.length)) {
+            throw new GeneratorException("each -w option needs its -g option, or a single -g option for all");
+        }
+        for (int i = 0; i < wsdls.length; i++) {
+            builder.addWsdl(wsdls[i], folders[(folders.length == 1) ? 0 : i]);
+        }
+        if (config.contains("batch")) {
+            List<String> lines;
+            try {
+                lines = Files.readAllLines(Paths.get(config.getString("batch")), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new GeneratorException(e);
+            }
+            for (String line : lines) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String [] job = line.split("\\s+", 2);
+                builder.addWsdl(job[0], (job.length > 1) ? job[1] : folders[0]);
+            }
+        }
+        for (String target : config.getStringArray("target")) {
+            builder.addTarget(getHttpTransport(target), target);
+        }
+        return builder.setHttpTransport(httpTransport)
+                .setAxis(config.getBoolean("axis"))
+                .setInMemory(config.getBoolean("inMemory"))
+                .setForce(config.getBoolean("force"))
+                .setCacheFolder(config.getBoolean("noCache") ? null : config.getString("cache"))
+                .setOffline(config.getBoolean("offline"))
+                .setThreads(config.getInt("threads"))
+                .setReport(config.contains("report") ? config.getString("report") : null)
+                .setSourceArchive(config.contains("srcjar") ? config.getString("srcjar") : null,
+                        config.getBoolean("stored"))
+                .setClientJar(config.contains("clientJar") ? config.getString("clientJar") : null,
+                        config.getString("classpath"))
+                .build();
+    }
+
+    /**
+     *
+     * @param target
+     *              The name of a target of the command line.
+     * @return The HTTP transport class of the target.
+     * @throws GeneratorException
+     *              The exception if the target is unknown.
+     */
+    private static String getHttpTransport(final String target) throws GeneratorException {
+        if (TARGET_J2ME.equals(target)) {
+            return ServiceClientGenerator.HTTP_TRANSPORT_J2ME;
+        }
+        if (TARGET_ANDROID.equals(target)) {
+            return ServiceClientGenerator.HTTP_TRANSPORT_ANDROID;
+        }
+        throw new GeneratorException("unknown target " + target + ", " + TARGET_J2ME + " or "
+                + TARGET_ANDROID + " expected");
     }
 
     /**
@@ -151,152 +285,133 @@ public final class Wsdl2J2me {
         FlaggedOption wOpt = new FlaggedOption("wsdl")
                 .setStringParser(JSAP.STRING_PARSER)
                 .setShortFlag('w')
-                .setRequired(true);
+                .setRequired(false)
+                .setAllowMultipleDeclarations(true);
         jsap.registerParameter(wOpt);
         FlaggedOption genOpt = new FlaggedOption("generatedFolder")
                 .setStringParser(JSAP.STRING_PARSER)
                 .setShortFlag('g')
                 .setRequired(false)
+                .setAllowMultipleDeclarations(true)
                 .setDefault(DEFAULT_FOLDER);
         jsap.registerParameter(genOpt);
+        FlaggedOption batchOpt = new FlaggedOption("batch")
+                .setStringParser(JSAP.STRING_PARSER)
+                .setLongFlag("batch")
+                .setRequired(false);
+        batchOpt.setHelp("a file listing the WSDL documents to generate, one per line, each one"
+                + " followed by its generated folder or generated in the -g folder");
+        jsap.registerParameter(batchOpt);
+        Switch memOpt = new Switch("inMemory")
+                .setShortFlag('m')
+                .setLongFlag("in-memory");
+        memOpt.setHelp("compiles the axis classes in memory instead of the temp folder and jar");
+        jsap.registerParameter(memOpt);
+        Switch axisOpt = new Switch("axis")
+                .setShortFlag('a')
+                .setLongFlag("axis");
+        axisOpt.setHelp("always generates through axis, even if the WSDL document is supported natively");
+        jsap.registerParameter(axisOpt);
+        FlaggedOption cacheOpt = new FlaggedOption("cache")
+                .setStringParser(JSAP.STRING_PARSER)
+                .setLongFlag("cache")
+                .setRequired(false)
+                .setDefault(WsdlCache.DEFAULT_FOLDER);
+        cacheOpt.setHelp("the folder caching the WSDL documents and schemas fetched over HTTP");
+        jsap.registerParameter(cacheOpt);
+        Switch noCacheOpt = new Switch("noCache")
+                .setLongFlag("no-cache");
+        noCacheOpt.setHelp("always fetches the WSDL documents and schemas, without the cache");
+        jsap.registerParameter(noCacheOpt);
+        Switch offlineOpt = new Switch("offline")
+                .setLongFlag("offline");
+        offlineOpt.setHelp("serves the WSDL documents and schemas from the cache only, without network access");
+        jsap.registerParameter(offlineOpt);
+        Switch forceOpt = new Switch("force")
+                .setShortFlag('f')
+                .setLongFlag("force");
+        forceOpt.setHelp("generates all the code, even if the WSDL document and the generator are unchanged");
+        jsap.registerParameter(forceOpt);
+        FlaggedOption threadsOpt = new FlaggedOption("threads")
+                .setStringParser(JSAP.INTEGER_PARSER)
+                .setShortFlag('j')
+                .setLongFlag("threads")
+                .setRequired(false)
+                .setDefault(String.valueOf(Runtime.getRuntime().availableProcessors()));
+        threadsOpt.setHelp("the number of threads generating the WSDL documents or the complex types,"
+                + " 1 to generate them one at a time");
+        jsap.registerParameter(threadsOpt);
+        Switch watchOpt = new Switch("watch")
+                .setLongFlag("watch");
+        watchOpt.setHelp("keeps running and generates the code again whenever a WSDL document or a schema changes");
+        jsap.registerParameter(watchOpt);
+        FlaggedOption pollOpt = new FlaggedOption("poll")
+                .setStringParser(JSAP.INTEGER_PARSER)
+                .setLongFlag("poll")
+                .setRequired(false)
+                .setDefault("10");
+        pollOpt.setHelp("the interval, in seconds, of the checks of the remote documents in the watch mode");
+        jsap.registerParameter(pollOpt);
+        FlaggedOption reportOpt = new FlaggedOption("report")
+                .setStringParser(JSAP.STRING_PARSER)
+                .setLongFlag("report")
+                .setRequired(false);
+        reportOpt.setHelp("a JSON file reporting the time and memory spent in each phase of the generation,"
+                + " written after each generation");
+        jsap.registerParameter(reportOpt);
+        FlaggedOption targetOpt = new FlaggedOption("target")
+                .setStringParser(JSAP.STRING_PARSER)
+                .setLongFlag("target")
+                .setRequired(false)
+                .setAllowMultipleDeclarations(true)
+                .setList(true)
+                .setListSeparator(',');
+        targetOpt.setHelp("generates the code for the targets, " + TARGET_J2ME + " or " + TARGET_ANDROID
+                + ", each one in its subfolder of the generated folder, from a single read of the WSDL document");
+        jsap.registerParameter(targetOpt);
+        FlaggedOption srcjarOpt = new FlaggedOption("srcjar")
+                .setStringParser(JSAP.STRING_PARSER)
+                .setLongFlag("srcjar")
+                .setRequired(false);
+        srcjarOpt.setHelp("writes the generated code into this archive of the generated folder, such as"
+                + " client.srcjar, instead of a source file per class");
+        jsap.registerParameter(srcjarOpt);
+        Switch storedOpt = new Switch("stored")
+                .setLongFlag("stored");
+        storedOpt.setHelp("stores the entries of the archives without compression");
+        jsap.registerParameter(storedOpt);
+        FlaggedOption clientJarOpt = new FlaggedOption("clientJar")
+                .setStringParser(JSAP.STRING_PARSER)
+                .setLongFlag("client-jar")
+                .setRequired(false);
+        clientJarOpt.setHelp("also compiles the code of the --srcjar archive into this jar of the generated folder");
+        jsap.registerParameter(clientJarOpt);
+        FlaggedOption classpathOpt = new FlaggedOption("classpath")
+                .setStringParser(JSAP.STRING_PARSER)
+                .setLongFlag("classpath")
+                .setRequired(false)
+                .setDefault("");
+        classpathOpt.setHelp("the class path compiling the --client-jar jar: the ksoap2 library of the target");
+        jsap.registerParameter(classpathOpt);
     }
 
     /**
      * Parses the arguments.
+     *
+     * @throws GeneratorException
+     *              The exception if the arguments are invalid, after the
+     *              usages are printed.
      */
-    private void parseArgs() {
+    private void parseArgs() throws GeneratorException {
         logger.info("parseArgs method");
         config = jsap.parse(args);
-        if (!config.success()) {
+        if (!config.success() || ((config.getStringArray("wsdl").length == 0) && !config.contains("batch"))) {
             System.err.println();
             printUsages();
-            System.exit(1);
-        }
-    }
-
-    /**
-     * Generates web services client in J2SE.
-     *
-     */
-    private void generateCodeInJ2SE() {
-        logger.info("generateCodeInJ2SE method");
-        String[] args = new String[]{"-o", TEMP_GEN_FOLDER, config.getString("wsdl")};
-        logger.info("arguments: -o " + TEMP_GEN_FOLDER + " " + config.getString("wsdl"));
-        WSDL2Java.main(args);
-    }
-
-    /**
-     * Generates code in J2ME.
-     *
-     * @param tmpJar
-     *              The jar library.
-     * @throws GeneratorException
-     *              The exception.
-     */
-    private void generateCodeInJ2me(final String tmpJar, List<Operation> operationList) throws GeneratorException {
-        logger.info("generateCodeInJ2me method");
-        ClassLoader prevCl = Thread.currentThread().getContextClassLoader();
-        File file = new File(tmpJar);
-        try {
-            @SuppressWarnings("deprecation")
-            URLClassLoader loader = new URLClassLoader(new URL[]{file.toURL()}, prevCl);
-            Thread.currentThread().setContextClassLoader(loader);
-            char separatorChar = java.io.File.separatorChar;
-            String filetype = ".java";
-            List<String> names = FileManager.getFileNames(TEMP_GEN_FOLDER);
-            String serviceName = getServiceName(names, TEMP_GEN_FOLDER, loader);
-            String generatedFolder = FileManager.getCanonicalPath(config.getString("generatedFolder"));
-            Class<?> serviceClass = loader.loadClass(serviceName);
-            Class<?> proxyClass = loader.loadClass(getProxyName(names, serviceClass, TEMP_GEN_FOLDER, loader));
-            logger.info("web services interface: " + serviceName);
-            logger.info("web services proxy: " + proxyClass.getCanonicalName());
-
-            for (String name : names) {
-                int index = name.indexOf(TEMP_GEN_FOLDER);
-                if (index < 0) {
-                    throw new GeneratorException();
-                }
-                String className = name.substring(index + TEMP_GEN_FOLDER.length() + 1).replace(separatorChar, '.');
-                // ignore .java
-                className = className.substring(0, className.length() - filetype.length());
-                Class<?> clazz = loader.loadClass(className);
-                if (className.equals(serviceName)) {
-                    new WsClientGenerator(names, clazz, proxyClass, true, generatedFolder, operationList).run();
-                } else {
-                    if (javax.xml.rpc.Service.class.isAssignableFrom(clazz)
-                            || org.apache.axis.client.Stub.class.isAssignableFrom(clazz)
-                            || org.apache.axis.client.Service.class.isAssignableFrom(clazz)
-                    ) {
-                        continue;
-                    }
-                    logger.info("class name to generate code: " + className);
-                    new WsClientGenerator(names, clazz, proxyClass, false, generatedFolder, operationList).run();
-                }
-            }
-        } catch (MalformedURLException e) {
-            throw new GeneratorException(e);
-        } catch (ClassNotFoundException e) {
-            throw new GeneratorException(e);
-        } catch (Exception e) {
-            e.printStackTrace();
-        } finally {
-            Thread.currentThread().setContextClassLoader(prevCl);
+            throw new GeneratorException("invalid arguments");
         }
     }
 
-    private String getServiceName(final List<String> names, final String prefixPath, final ClassLoader loader) throws GeneratorException {
-
-        String filetype = ".java";
-        String className = null;
-        for (String name : names) {
-            int index = name.indexOf(prefixPath);
-            if (index >= 0) {
-                className = name.substring(index + prefixPath.length() + 1).replace(separatorChar, '.');
-                int typeIndex = className.lastIndexOf(filetype);
-                if (typeIndex >= 0) {
-                    className = className.substring(0, typeIndex);
-                    Class<?> clazz;
-                    try {
-                        clazz = loader.loadClass(className);
-                        if ((clazz.isInterface()) && Remote.class.isAssignableFrom(clazz)) {
-                            break;
-                        }
-                    } catch (ClassNotFoundException e) {
-                    }
-                }
-            }
-        }
-        return className;
-    }
-
-    private String getProxyName(final List<String> names, final Class<?> serviceClass, final String prefixPath, final ClassLoader loader) throws GeneratorException {
-
-        String filetype = ".java";
-        String className = null;
-        for (String name : names) {
-            int index = name.indexOf(prefixPath);
-            if (index >= 0) {
-                className = name.substring(index + prefixPath.length() + 1).replace(separatorChar, '.');
-                int typeIndex = className.lastIndexOf(filetype);
-                if (typeIndex >= 0) {
-                    className = className.substring(0, typeIndex);
-                    if (className.equals(serviceClass.getName())) {
-                        continue;
-                    }
-                    Class<?> clazz;
-                    try {
-                        clazz = loader.loadClass(className);
-                        if (serviceClass.isAssignableFrom(clazz)) {
-                            break;
-                        }
-                    } catch (ClassNotFoundException e) {
-                    }
-                }
-            }
-        }
-        return className;
-    }
-
     /**
      * Prints the usages in the program.
      */
@@ -305,7 +420,6 @@ public final class Wsdl2J2me {
     }
 
     public static void main(String[] args) throws Exception {
-        ServiceClientGenerator.HTTP_TRANSPORT = ServiceClientGenerator.HTTP_TRANSPORT_J2ME;
         InputStream input = Wsdl2J2me.class.getResourceAsStream("logging.properties");
         if (input == null) {
             System.err.println("missing the logging configuration file");
@@ -320,34 +434,6 @@ public final class Wsdl2J2me {
         } catch (IOException e) {
             e.printStackTrace();
         }
-        new Wsdl2J2me(args).run();
-    }
-
-
-    /**
-     *  Quirk: Get list of operation from WSDL  to replace axis method name, to fix method name case sensitivity issue.
-     * @return
-     */
-    private List<Operation> getWsdlMethodName() {
-        String wsdlUrl = args[1];
-        List<Operation> operationList = new ArrayList();
-        try {
-            WSDLReader reader = new WSDLReaderImpl();
-            //reader.setFeature("javax.wsdl.verbose", false);
-            //wsdl:operation name="HelloWorld"
-            Definition definition = reader.readWSDL(wsdlUrl);
-            Map<String, PortTypeImpl> defMap = definition.getAllPortTypes();
-            Collection<PortTypeImpl> collection = defMap.values();
-            for (PortTypeImpl portType : collection) {
-                operationList.addAll(portType.getOperations());
-            }
-
-            return operationList;
-        } catch (WSDLException exception) {
-            exception.printStackTrace();
-        }
-
-        return operationList;
+        new Wsdl2J2me(args, ServiceClientGenerator.HTTP_TRANSPORT_J2ME).run();
     }
-
 }
@@ -0,0 +1,471 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.CacheRequest;
+import java.net.CacheResponse;
+import java.net.HttpURLConnection;
+import java.net.ResponseCache;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * On-disk cache of the WSDL documents and schemas fetched over HTTP. The
+ * contents are stored once under their SHA-256 (<tt>objects</tt> folder) and
+ * each URL has an index entry with the hash, the ETag and the Last-Modified
+ * date of the last response (<tt>index</tt> folder). An entry is revalidated
+ * with a conditional request, unless the cache is offline, then it is served
+ * without any network access.
+ * <p>
+ * The documents are fetched by wsdl4j and axis themselves, so the cache is
+ * plugged as the default {@link ResponseCache} of the JVM. It only serves the
+ * thread it is bound to, other requests go to the previous default. The
+ * response cache also serves the imports of the WSDL document bound for
+ * axis (see {@link SharedWsdlFactory}) from their contents already read,
+ * with or without a cache.
+ *
+ */
+public final class WsdlCache {
+
+    /**
+     * The folder of the cache by default.
+     */
+    public static final String DEFAULT_FOLDER = System.getProperty("user.home")
+            + File.separatorChar + ".ksoap2-generator" + File.separatorChar + "cache";
+
+    /**
+     * The cache bound to the current thread.
+     */
+    private static final ThreadLocal<WsdlCache> BOUND = new ThreadLocal<WsdlCache>();
+
+    /**
+     * Whether the response cache is installed.
+     */
+    private static boolean installed = false;
+
+    /**
+     * The folder of the contents.
+     */
+    private final File objectFolder;
+
+    /**
+     * The folder of the index entries.
+     */
+    private final File indexFolder;
+
+    /**
+     * Whether the network is never accessed.
+     */
+    private final boolean offline;
+
+    /**
+     * The documents already fetched through this cache, by URL: a document
+     * read several times in a run is fetched once, even by the threads of a
+     * batch.
+     */
+    private final Map<String, byte []> fetched = new ConcurrentHashMap<String, byte []>();
+
+    /**
+     * The number of documents served from the cache.
+     */
+    private final AtomicInteger hits = new AtomicInteger();
+
+    /**
+     * The number of documents revalidated by the server.
+     */
+    private final AtomicInteger revalidations = new AtomicInteger();
+
+    /**
+     * The number of documents downloaded.
+     */
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * Constructor.
+     *
+     * @param folder
+     *              The folder of the cache.
+     * @param offline
+     *              Whether the network is never accessed.
+     */
+    public WsdlCache(final String folder, final boolean offline) {
+        this.objectFolder = new File(folder, "objects");
+        this.indexFolder = new File(folder, "index");
+        this.offline = offline;
+    }
+
+    /**
+     * Binds this cache to the current thread, every document fetched over
+     * HTTP by the thread then goes through it.
+     */
+    public void bind() {
+        install();
+        BOUND.set(this);
+    }
+
+    /**
+     * Unbinds the cache from the current thread.
+     */
+    public static void unbind() {
+        BOUND.remove();
+    }
+
+    /**
+     * Installs the response cache, once.
+     */
+    static synchronized void install() {
+        if (!installed) {
+            ResponseCache.setDefault(new BoundResponseCache(ResponseCache.getDefault()));
+            installed = true;
+        }
+    }
+
+    /**
+     * Fetches the document, from the cache if possible.
+     *
+     * @param url
+     *              The URL of the document.
+     * @return The content of the document.
+     * @throws IOException
+     *              The exception if the document cannot be fetched, or is
+     *              missing from the cache in offline mode.
+     */
+    public byte [] fetch(final URL url) throws IOException {
+        String key = url.toString();
+        byte [] content = fetched.get(key);
+        if (content == null) {
+            content = download(url, key);
+            fetched.put(key, content);
+        }
+        return content;
+    }
+
+    /**
+     * Fetches the document from the cache, or from the network if the cache
+     * entry is missing or stale.
+     *
+     * @param url
+     *              The URL of the document.
+     * @param key
+     *              The URL as string.
+     * @return The content of the document.
+     * @throws IOException
+     *              The exception.
+     */
+    private byte [] download(final URL url, final String key) throws IOException {
+        File indexFile = new File(indexFolder, sha256(key.getBytes(StandardCharsets.UTF_8)));
+        Properties entry = loadEntry(indexFile);
+        byte [] cached = (entry == null) ? null : loadObject(entry.getProperty("sha256"));
+        if (offline) {
+            if (cached == null) {
+                throw new IOException("offline, the document is not in the cache: " + key);
+            }
+            hits.incrementAndGet();
+            return cached;
+        }
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setUseCaches(false); // not through this cache again
+        if (cached != null) {
+            String etag = entry.getProperty("etag");
+            if (etag != null) {
+                connection.setRequestProperty("If-None-Match", etag);
+            }
+            String lastModified = entry.getProperty("lastModified");
+            if (lastModified != null) {
+                connection.setRequestProperty("If-Modified-Since", lastModified);
+            }
+        }
+        try {
+            int code = connection.getResponseCode();
+            if ((code == HttpURLConnection.HTTP_NOT_MODIFIED) && (cached != null)) {
+                revalidations.incrementAndGet();
+                return cached;
+            }
+            if (code != HttpURLConnection.HTTP_OK) {
+                throw new IOException("HTTP " + code + " fetching " + key);
+            }
+            byte [] content = read(connection.getInputStream());
+            String hash = sha256(content);
+            File objectFile = new File(objectFolder, hash);
+            if (!objectFile.isFile()) {
+                write(objectFile, content);
+            }
+            Properties newEntry = new Properties();
+            newEntry.setProperty("url", key);
+            newEntry.setProperty("sha256", hash);
+            setIfPresent(newEntry, "etag", connection.getHeaderField("ETag"));
+            setIfPresent(newEntry, "lastModified", connection.getHeaderField("Last-Modified"));
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            newEntry.store(output, null);
+            write(indexFile, output.toByteArray());
+            misses.incrementAndGet();
+            return content;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     *
+     * @return The number of documents served from the cache without any
+     *              network access.
+     */
+    public int getHits() {
+        return hits.get();
+    }
+
+    /**
+     *
+     * @return The number of documents revalidated by the server.
+     */
+    public int getRevalidations() {
+        return revalidations.get();
+    }
+
+    /**
+     *
+     * @return The number of documents downloaded.
+     */
+    public int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Loads the index entry.
+     *
+     * @param indexFile
+     *              The file of the entry.
+     * @return The entry, or <tt>null</tt> if it doesn't exist.
+     * @throws IOException
+     *              The exception.
+     */
+    private static Properties loadEntry(final File indexFile) throws IOException {
+        if (!indexFile.isFile()) {
+            return null;
+        }
+        Properties entry = new Properties();
+        InputStream input = Files.newInputStream(indexFile.toPath());
+        try {
+            entry.load(input);
+        } finally {
+            input.close();
+        }
+        return (entry.getProperty("sha256") == null) ? null : entry;
+    }
+
+    /**
+     * Loads the content, checking it against its hash.
+     *
+     * @param hash
+     *              The SHA-256 of the content.
+     * @return The content, or <tt>null</tt> if it is missing or corrupted.
+     * @throws IOException
+     *              The exception.
+     */
+    private byte [] loadObject(final String hash) throws IOException {
+        File objectFile = new File(objectFolder, hash);
+        if (!objectFile.isFile()) {
+            return null;
+        }
+        byte [] content = Files.readAllBytes(objectFile.toPath());
+        return hash.equals(sha256(content)) ? content : null;
+    }
+
+    /**
+     * Sets the property if the value is not <tt>null</tt>.
+     *
+     * @param entry
+     *              The entry.
+     * @param key
+     *              The key.
+     * @param value
+     *              The value.
+     */
+    private static void setIfPresent(final Properties entry, final String key, final String value) {
+        if (value != null) {
+            entry.setProperty(key, value);
+        }
+    }
+
+    /**
+     * Writes the file atomically: the content is written in a temporary file
+     * next to it and moved in place.
+     *
+     * @param file
+     *              The file.
+     * @param content
+     *              The content.
+     * @throws IOException
+     *              The exception.
+     */
+    private static void write(final File file, final byte [] content) throws IOException {
+        File folder = file.getParentFile();
+        if (!folder.isDirectory() && !folder.mkdirs() && !folder.isDirectory()) {
+            throw new IOException("Error for creating folder: " + folder);
+        }
+        Path tmp = Files.createTempFile(folder.toPath(), file.getName(), ".tmp");
+        try {
+            Files.write(tmp, content);
+            try {
+                Files.move(tmp, file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Reads the stream until its end and closes it.
+     *
+     * @param input
+     *              The input stream.
+     * @return The content.
+     * @throws IOException
+     *              The exception.
+     */
+    private static byte [] read(final InputStream input) throws IOException {
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte [] buffer = new byte[8192];
+            int readBytes;
+            while ((readBytes = input.read(buffer)) >= 0) {
+                output.write(buffer, 0, readBytes);
+            }
+            return output.toByteArray();
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     *
+     * @param content
+     *              The content.
+     * @return The SHA-256 of the content in hexadecimal.
+     */
+    static String sha256(final byte [] content) {
+        try {
+            byte [] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder builder = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                builder.append(Character.forDigit((b >> 4) & 0xf, 16))
+                        .append(Character.forDigit(b & 0xf, 16));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Response cache serving the HTTP GET requests of the thread which a
+     * {@link WsdlCache} or a WSDL document is bound to.
+     *
+     */
+    private static final class BoundResponseCache extends ResponseCache {
+
+        /**
+         * The response cache installed before, or <tt>null</tt>.
+         */
+        private final ResponseCache previous;
+
+        /**
+         * Constructor.
+         *
+         * @param previous
+         *              The response cache installed before, or <tt>null</tt>.
+         */
+        BoundResponseCache(final ResponseCache previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public CacheResponse get(final URI uri, final String method,
+                final Map<String, List<String>> headers) throws IOException {
+            WsdlCache cache = BOUND.get();
+            WsdlDocument wsdl = SharedWsdlFactory.getBound();
+            String scheme = uri.getScheme();
+            byte [] read = null;
+            if ("GET".equals(method) && ("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme))) {
+                read = (wsdl == null) ? null : wsdl.getContent(uri.toString());
+                if ((read == null) && (cache != null)) {
+                    read = cache.fetch(uri.toURL());
+                }
+            }
+            if (read == null) {
+                return (previous == null) ? null : previous.get(uri, method, headers);
+            }
+            final byte [] content = read;
+            final Map<String, List<String>> responseHeaders = new HashMap<String, List<String>>();
+            responseHeaders.put(null, Collections.singletonList("HTTP/1.1 200 OK"));
+            responseHeaders.put("Content-Length", Collections.singletonList(String.valueOf(content.length)));
+            return new CacheResponse() {
+
+                @Override
+                public Map<String, List<String>> getHeaders() {
+                    return responseHeaders;
+                }
+
+                @Override
+                public InputStream getBody() {
+                    return new ByteArrayInputStream(content);
+                }
+            };
+        }
+
+        @Override
+        public CacheRequest put(final URI uri, final URLConnection connection) throws IOException {
+            if (BOUND.get() != null) {
+                return null; // already stored by the cache
+            }
+            return (previous == null) ? null : previous.put(uri, connection);
+        }
+    }
+}
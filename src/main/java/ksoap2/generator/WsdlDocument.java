@@ -0,0 +1,399 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import com.ibm.wsdl.util.StringUtils;
+import com.ibm.wsdl.xml.WSDLReaderImpl;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import javax.wsdl.Definition;
+import javax.wsdl.Import;
+import javax.wsdl.Types;
+import javax.wsdl.WSDLException;
+import javax.wsdl.extensions.schema.Schema;
+import javax.wsdl.extensions.schema.SchemaReference;
+import javax.wsdl.xml.WSDLLocator;
+import javax.wsdl.xml.WSDLReader;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * WSDL document read once per run. The DOM and the wsdl4j definition built
+ * from it are shared by every step of the generation, axis included (see
+ * {@link SharedWsdlFactory}), so the document is fetched only once. The
+ * contents of the documents and schemas it imports are kept too: axis reads
+ * the imports again, and is served them from memory.
+ *
+ */
+public final class WsdlDocument {
+
+    /**
+     * The URL of the WSDL document, used to resolve the imports.
+     */
+    private final String uri;
+
+    /**
+     * The DOM of the WSDL document.
+     */
+    private final Document document;
+
+    /**
+     * The definition built from the DOM.
+     */
+    private final Definition definition;
+
+    /**
+     * The contents of the WSDL document and of the documents it imports, by
+     * URL.
+     */
+    private final Map<String, byte []> contents;
+
+    /**
+     * Constructor.
+     *
+     * @param uri
+     *              The URL of the WSDL document.
+     * @param document
+     *              The DOM of the WSDL document.
+     * @param definition
+     *              The definition built from the DOM.
+     * @param contents
+     *              The contents of the documents read, by URL.
+     */
+    private WsdlDocument(final String uri, final Document document, final Definition definition,
+            final Map<String, byte []> contents) {
+        this.uri = uri;
+        this.document = document;
+        this.definition = definition;
+        this.contents = contents;
+    }
+
+    /**
+     * Reads the WSDL document.
+     *
+     * @param wsdl
+     *              The file path or the URL of the WSDL document.
+     * @return The WSDL document.
+     * @throws GeneratorException
+     *              The exception if the document cannot be read.
+     */
+    public static WsdlDocument read(final String wsdl) throws GeneratorException {
+        Util.checkNull(wsdl);
+        try {
+            URL url = StringUtils.getURL(null, wsdl);
+            String uri = url.toString();
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setValidating(false);
+            byte [] content;
+            GenerationReport.Phase phase = GenerationReport.start("fetch");
+            try {
+                content = fetch(url);
+            } finally {
+                phase.end();
+            }
+            Map<String, byte []> contents = new LinkedHashMap<String, byte []>();
+            contents.put(uri, content);
+            // the imports are fetched by wsdl4j while parsing, through the locator
+            phase = GenerationReport.start("parse");
+            ImportLocator locator = new ImportLocator(uri, contents);
+            try {
+                InputSource source = new InputSource(new ByteArrayInputStream(content));
+                source.setSystemId(uri);
+                Document document = factory.newDocumentBuilder().parse(source);
+                WSDLReader reader = new WSDLReaderImpl();
+                //reader.setFeature("javax.wsdl.verbose", false);
+                Definition definition = reader.readWSDL(locator, document.getDocumentElement());
+                return new WsdlDocument(uri, document, definition, contents);
+            } catch (WSDLException e) {
+                if (locator.failure != null) {
+                    throw new GeneratorException(locator.failure);
+                }
+                throw e;
+            } finally {
+                phase.end();
+            }
+        } catch (IOException e) {
+            throw new GeneratorException(e);
+        } catch (SAXException e) {
+            throw new GeneratorException(e);
+        } catch (ParserConfigurationException e) {
+            throw new GeneratorException(e);
+        } catch (WSDLException e) {
+            throw new GeneratorException(e);
+        }
+    }
+
+    /**
+     * Fetches the content of the WSDL document.
+     *
+     * @param url
+     *              The URL of the WSDL document.
+     * @return The content.
+     * @throws IOException
+     *              The exception if the document cannot be fetched.
+     */
+    private static byte [] fetch(final URL url) throws IOException {
+        InputStream input = StringUtils.getContentAsInputStream(url);
+        try {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte [] buffer = new byte[8192];
+            int count;
+            while ((count = input.read(buffer)) > 0) {
+                content.write(buffer, 0, count);
+            }
+            return content.toByteArray();
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     *
+     * @param documentUri
+     *              The URL of the WSDL document or of a document it imports.
+     * @return The content of the document, or <tt>null</tt> if it wasn't
+     *              read with the WSDL document.
+     */
+    public byte [] getContent(final String documentUri) {
+        return contents.get(documentUri);
+    }
+
+    /**
+     *
+     * @return The URL of the WSDL document.
+     */
+    public String getUri() {
+        return uri;
+    }
+
+    /**
+     *
+     * @return The DOM of the WSDL document.
+     */
+    public Document getDocument() {
+        return document;
+    }
+
+    /**
+     *
+     * @return The definition built from the DOM.
+     */
+    public Definition getDefinition() {
+        return definition;
+    }
+
+    /**
+     * Gets the URLs of the WSDL document and of all the WSDL documents and
+     * schemas it imports or includes, directly or not.
+     *
+     * @return The URLs, the WSDL document first.
+     */
+    public Set<String> getDocumentUris() {
+        Set<String> uris = new LinkedHashSet<String>();
+        uris.add(uri);
+        addDefinition(uris, definition, new HashSet<Object>());
+        return uris;
+    }
+
+    /**
+     * Adds the URLs of the documents the definition imports.
+     *
+     * @param uris
+     *              The URLs.
+     * @param def
+     *              The definition.
+     * @param visited
+     *              The definitions and schemas already visited.
+     */
+    @SuppressWarnings("unchecked")
+    private static void addDefinition(final Set<String> uris, final Definition def, final Set<Object> visited) {
+        if (!visited.add(def)) {
+            return;
+        }
+        addUri(uris, def.getDocumentBaseURI());
+        Types types = def.getTypes();
+        if (types != null) {
+            for (Object extension : types.getExtensibilityElements()) {
+                if (extension instanceof Schema) {
+                    addSchema(uris, (Schema) extension, visited);
+                }
+            }
+        }
+        for (List<Import> imports : ((Map<String, List<Import>>) def.getImports()).values()) {
+            for (Import imported : imports) {
+                if (imported.getDefinition() != null) {
+                    addDefinition(uris, imported.getDefinition(), visited);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the URLs of the schemas the schema imports, includes or redefines.
+     *
+     * @param uris
+     *              The URLs.
+     * @param schema
+     *              The schema.
+     * @param visited
+     *              The definitions and schemas already visited.
+     */
+    @SuppressWarnings("unchecked")
+    private static void addSchema(final Set<String> uris, final Schema schema, final Set<Object> visited) {
+        if (!visited.add(schema)) {
+            return;
+        }
+        addUri(uris, schema.getDocumentBaseURI());
+        List<SchemaReference> references = new ArrayList<SchemaReference>(schema.getIncludes());
+        references.addAll(schema.getRedefines());
+        for (List<SchemaReference> imports : ((Map<String, List<SchemaReference>>) schema.getImports()).values()) {
+            references.addAll(imports);
+        }
+        for (SchemaReference reference : references) {
+            if (reference.getReferencedSchema() != null) {
+                addSchema(uris, reference.getReferencedSchema(), visited);
+            }
+        }
+    }
+
+    /**
+     *
+     * @param uris
+     *              The URLs.
+     * @param uri
+     *              The URL to add, ignored if <tt>null</tt>.
+     */
+    private static void addUri(final Set<String> uris, final String uri) {
+        if (uri != null) {
+            uris.add(uri);
+        }
+    }
+
+    /**
+     * Locator fetching each document imported by the WSDL document once,
+     * and keeping its content.
+     */
+    private static final class ImportLocator implements WSDLLocator {
+
+        /**
+         * The URL of the WSDL document.
+         */
+        private final String baseUri;
+
+        /**
+         * The contents of the documents read, by URL.
+         */
+        private final Map<String, byte []> contents;
+
+        /**
+         * The URL of the last document imported.
+         */
+        private String latestImportUri;
+
+        /**
+         * The exception of the last import which could not be fetched, or
+         * <tt>null</tt>.
+         */
+        private IOException failure;
+
+        /**
+         * Constructor.
+         *
+         * @param baseUri
+         *              The URL of the WSDL document.
+         * @param contents
+         *              The contents of the documents read, by URL, with the
+         *              content of the WSDL document.
+         */
+        ImportLocator(final String baseUri, final Map<String, byte []> contents) {
+            this.baseUri = baseUri;
+            this.contents = contents;
+        }
+
+        @Override
+        public InputSource getBaseInputSource() {
+            return getInputSource(baseUri);
+        }
+
+        @Override
+        public InputSource getImportInputSource(final String parentLocation, final String importLocation) {
+            try {
+                URL url = StringUtils.getURL((parentLocation == null) ? null : new URL(parentLocation), importLocation);
+                latestImportUri = url.toString();
+                if (!contents.containsKey(latestImportUri)) {
+                    contents.put(latestImportUri, fetch(url));
+                }
+                return getInputSource(latestImportUri);
+            } catch (IOException e) {
+                failure = e;
+                return null;
+            }
+        }
+
+        /**
+         *
+         * @param documentUri
+         *              The URL of a document read.
+         * @return The input source of its content.
+         */
+        private InputSource getInputSource(final String documentUri) {
+            InputSource source = new InputSource(new ByteArrayInputStream(contents.get(documentUri)));
+            source.setSystemId(documentUri);
+            return source;
+        }
+
+        @Override
+        public String getBaseURI() {
+            return baseUri;
+        }
+
+        @Override
+        public String getLatestImportURI() {
+            return latestImportUri;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
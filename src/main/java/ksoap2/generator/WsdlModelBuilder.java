@@ -0,0 +1,775 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import org.apache.axis.wsdl.toJava.Utils;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.wsdl.Binding;
+import javax.wsdl.BindingInput;
+import javax.wsdl.BindingOperation;
+import javax.wsdl.Definition;
+import javax.wsdl.Import;
+import javax.wsdl.Message;
+import javax.wsdl.Operation;
+import javax.wsdl.Part;
+import javax.wsdl.PortType;
+import javax.wsdl.Service;
+import javax.wsdl.Types;
+import javax.wsdl.extensions.UnknownExtensibilityElement;
+import javax.wsdl.extensions.schema.Schema;
+import javax.wsdl.extensions.schema.SchemaReference;
+import javax.wsdl.extensions.soap.SOAPBinding;
+import javax.wsdl.extensions.soap.SOAPBody;
+import javax.wsdl.extensions.soap.SOAPOperation;
+import javax.xml.namespace.QName;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class to build the model of the client straight from the WSDL document and
+ * its schemas, without generating, compiling and loading the axis classes.
+ * <p>
+ * The Java names follow the mapping of axis, so the generated code is the
+ * same as the one generated through axis. Only the document/literal wrapped
+ * and the rpc styles, and the complex types made of a sequence of elements
+ * are supported; any other construct raises {@link UnsupportedWsdlException}
+ * so that the caller can fall back to axis.
+ *
+ */
+public final class WsdlModelBuilder {
+
+    /**
+     * The namespace of XML schema.
+     */
+    private static final String XSD_NS = "http://www.w3.org/2001/XMLSchema";
+
+    /**
+     * The default style of the SOAP binding.
+     */
+    private static final String DOCUMENT_STYLE = "document";
+
+    /**
+     * The rpc style of the SOAP binding.
+     */
+    private static final String RPC_STYLE = "rpc";
+
+    /**
+     * The literal use of the SOAP body.
+     */
+    private static final String LITERAL_USE = "literal";
+
+    /**
+     * The built-in schema types, mapped as axis does.
+     */
+    private static Map <String, Class<?>> builtinTypes = new HashMap <String, Class<?>>();
+
+    static {
+        builtinTypes.put("string", String.class);
+        builtinTypes.put("boolean", boolean.class);
+        builtinTypes.put("byte", byte.class);
+        builtinTypes.put("short", short.class);
+        builtinTypes.put("int", int.class);
+        builtinTypes.put("long", long.class);
+        builtinTypes.put("float", float.class);
+        builtinTypes.put("double", double.class);
+        builtinTypes.put("decimal", BigDecimal.class);
+        builtinTypes.put("integer", BigInteger.class);
+        builtinTypes.put("base64Binary", byte[].class);
+        builtinTypes.put("hexBinary", byte[].class);
+        builtinTypes.put("dateTime", Calendar.class);
+        builtinTypes.put("date", Date.class);
+        builtinTypes.put("time", org.apache.axis.types.Time.class);
+        builtinTypes.put("QName", QName.class);
+        builtinTypes.put("anyType", Object.class);
+        builtinTypes.put("anyURI", org.apache.axis.types.URI.class);
+        builtinTypes.put("unsignedLong", org.apache.axis.types.UnsignedLong.class);
+        builtinTypes.put("unsignedInt", org.apache.axis.types.UnsignedInt.class);
+        builtinTypes.put("unsignedShort", org.apache.axis.types.UnsignedShort.class);
+        builtinTypes.put("unsignedByte", org.apache.axis.types.UnsignedByte.class);
+    }
+
+    /**
+     * The wrapper classes of the primitive types, used for the nillable and
+     * optional elements.
+     */
+    private static Map <Class<?>, Class<?>> wrapperTypes = new HashMap <Class<?>, Class<?>>();
+
+    static {
+        wrapperTypes.put(boolean.class, Boolean.class);
+        wrapperTypes.put(byte.class, Byte.class);
+        wrapperTypes.put(short.class, Short.class);
+        wrapperTypes.put(int.class, Integer.class);
+        wrapperTypes.put(long.class, Long.class);
+        wrapperTypes.put(float.class, Float.class);
+        wrapperTypes.put(double.class, Double.class);
+    }
+
+    /**
+     * The WSDL document.
+     */
+    private final Definition definition;
+
+    /**
+     * The global elements of all the schemas.
+     */
+    private final Map<QName, Element> elements = new HashMap<QName, Element>();
+
+    /**
+     * The global simple and complex types of all the schemas.
+     */
+    private final Map<QName, Element> types = new HashMap<QName, Element>();
+
+    /**
+     * The types already mapped to Java.
+     */
+    private final Map<QName, JavaType> resolvedTypes = new HashMap<QName, JavaType>();
+
+    /**
+     * The complex types to generate.
+     */
+    private final List<BeanModel> beans = new ArrayList<BeanModel>();
+
+    /**
+     * The names of the classes to generate, to detect the name clashes which
+     * axis would resolve by renaming the classes.
+     */
+    private final Set<String> classNames = new HashSet<String>();
+
+    /**
+     * Constructor.
+     *
+     * @param definition
+     *              The WSDL document.
+     */
+    public WsdlModelBuilder(final Definition definition) {
+        this.definition = definition;
+    }
+
+    /**
+     * Builds the model of the client.
+     *
+     * @return The model.
+     * @throws GeneratorException
+     *              The generation exception, {@link UnsupportedWsdlException}
+     *              if the WSDL document has to be processed by axis.
+     */
+    public ClientModel build() throws GeneratorException {
+        Util.checkNull(definition);
+        indexDefinition(definition, new HashSet<Definition>(), new HashSet<Schema>());
+        List<ServiceModel> services = new ArrayList<ServiceModel>();
+        for (Binding binding : getSoapBindings()) {
+            services.add(buildService(binding));
+        }
+        if (services.isEmpty()) {
+            throw new UnsupportedWsdlException("no SOAP binding");
+        }
+        return new ClientModel(services, beans);
+    }
+
+    /**
+     * Indexes the global elements and types of the schemas of the WSDL
+     * document and of the imported ones.
+     *
+     * @param def
+     *              The WSDL document.
+     * @param visited
+     *              The WSDL documents already indexed.
+     * @param visitedSchemas
+     *              The schemas already indexed.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    @SuppressWarnings("unchecked")
+    private void indexDefinition(final Definition def, final Set<Definition> visited, final Set<Schema> visitedSchemas) throws GeneratorException {
+        if (!visited.add(def)) {
+            return;
+        }
+        Types wsdlTypes = def.getTypes();
+        if (wsdlTypes != null) {
+            for (Object extension : wsdlTypes.getExtensibilityElements()) {
+                if (extension instanceof Schema) {
+                    indexSchema((Schema) extension, visitedSchemas);
+                } else if (extension instanceof UnknownExtensibilityElement) {
+                    indexSchemaElement(((UnknownExtensibilityElement) extension).getElement());
+                }
+            }
+        }
+        for (List<Import> imports : ((Map<String, List<Import>>) def.getImports()).values()) {
+            for (Import imported : imports) {
+                if (imported.getDefinition() != null) {
+                    indexDefinition(imported.getDefinition(), visited, visitedSchemas);
+                }
+            }
+        }
+    }
+
+    /**
+     * Indexes the schema and the schemas it imports or includes.
+     *
+     * @param schema
+     *              The schema.
+     * @param visited
+     *              The schemas already indexed.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    @SuppressWarnings("unchecked")
+    private void indexSchema(final Schema schema, final Set<Schema> visited) throws GeneratorException {
+        if (!visited.add(schema)) {
+            return;
+        }
+        if (!schema.getRedefines().isEmpty()) {
+            throw new UnsupportedWsdlException("xsd:redefine");
+        }
+        indexSchemaElement(schema.getElement());
+        List<SchemaReference> references = new ArrayList<SchemaReference>(schema.getIncludes());
+        for (List<SchemaReference> imports : ((Map<String, List<SchemaReference>>) schema.getImports()).values()) {
+            references.addAll(imports);
+        }
+        for (SchemaReference reference : references) {
+            if (reference.getReferencedSchema() != null) {
+                indexSchema(reference.getReferencedSchema(), visited);
+            } else if (reference.getSchemaLocationURI() != null) {
+                throw new UnsupportedWsdlException("unresolved schema " + reference.getSchemaLocationURI());
+            }
+        }
+    }
+
+    /**
+     *
+     * @param schema
+     *              The xsd:schema element.
+     */
+    private void indexSchemaElement(final Element schema) {
+        String targetNamespace = schema.getAttribute("targetNamespace");
+        for (Element child : getChildElements(schema)) {
+            QName qname = new QName(targetNamespace, child.getAttribute("name"));
+            String localName = child.getLocalName();
+            if ("element".equals(localName)) {
+                elements.put(qname, child);
+            } else if ("complexType".equals(localName) || "simpleType".equals(localName)) {
+                types.put(qname, child);
+            }
+        }
+    }
+
+    /**
+     *
+     * @return The SOAP bindings, one for each port type, sorted by name.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Binding> getSoapBindings() {
+        List<Binding> bindings = new ArrayList<Binding>();
+        Set<QName> portTypes = new HashSet<QName>();
+        List<Binding> allBindings = new ArrayList<Binding>(
+                ((Map<QName, Binding>) definition.getAllBindings()).values());
+        allBindings.sort(Comparator.comparing(binding -> binding.getQName().toString()));
+        for (Binding binding : allBindings) {
+            if ((getExtension(binding.getExtensibilityElements(), SOAPBinding.class) != null)
+                    && (binding.getPortType() != null)
+                    && portTypes.add(binding.getPortType().getQName())) {
+                bindings.add(binding);
+            }
+        }
+        return bindings;
+    }
+
+    /**
+     * Builds the service of the port type of the binding.
+     *
+     * @param binding
+     *              The SOAP binding.
+     * @return The service.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    @SuppressWarnings("unchecked")
+    private ServiceModel buildService(final Binding binding) throws GeneratorException {
+        PortType portType = binding.getPortType();
+        if (portType.isUndefined()) {
+            throw new UnsupportedWsdlException("undefined port type " + portType.getQName());
+        }
+        String packageName = Utils.makePackageName(portType.getQName().getNamespaceURI());
+        String className = Utils.xmlNameToJavaClass(portType.getQName().getLocalPart());
+        checkClassName(packageName, className);
+        // axis renames the interface if one binding or service has the same name
+        List<QName> names = new ArrayList<QName>(((Map<QName, Binding>) definition.getAllBindings()).keySet());
+        names.addAll(((Map<QName, Service>) definition.getAllServices()).keySet());
+        for (QName name : names) {
+            if (className.equals(Utils.xmlNameToJavaClass(name.getLocalPart()))
+                    && packageName.equals(Utils.makePackageName(name.getNamespaceURI()))) {
+                throw new UnsupportedWsdlException("name clash on " + className);
+            }
+        }
+
+        String style = DOCUMENT_STYLE;
+        SOAPBinding soapBinding = getExtension(binding.getExtensibilityElements(), SOAPBinding.class);
+        if (soapBinding.getStyle() != null) {
+            style = soapBinding.getStyle();
+        }
+        Set<String> operationNames = new HashSet<String>();
+        List<OperationModel> operations = new ArrayList<OperationModel>();
+        for (Operation operation : (List<Operation>) portType.getOperations()) {
+            if (!operationNames.add(operation.getName())) {
+                throw new UnsupportedWsdlException("overloaded operation " + operation.getName());
+            }
+            operations.add(buildOperation(binding, operation, style));
+        }
+        String bindingPackage = Utils.makePackageName(binding.getQName().getNamespaceURI());
+        return new ServiceModel(packageName.isEmpty() ? className : packageName + "." + className,
+                bindingPackage, operations);
+    }
+
+    /**
+     *
+     * @param binding
+     *              The SOAP binding.
+     * @param operation
+     *              The operation of the port type.
+     * @param defaultStyle
+     *              The style of the binding.
+     * @return The operation.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    private OperationModel buildOperation(final Binding binding, final Operation operation, final String defaultStyle) throws GeneratorException {
+        String name = operation.getName();
+        BindingOperation bindingOperation = binding.getBindingOperation(name, null, null);
+        if ((bindingOperation == null) || (operation.getInput() == null)) {
+            throw new UnsupportedWsdlException("operation " + name);
+        }
+        if (!operation.getFaults().isEmpty()) {
+            throw new UnsupportedWsdlException("faults of operation " + name);
+        }
+        String style = defaultStyle;
+        SOAPOperation soapOperation = getExtension(bindingOperation.getExtensibilityElements(), SOAPOperation.class);
+        if ((soapOperation != null) && (soapOperation.getStyle() != null)) {
+            style = soapOperation.getStyle();
+        }
+        BindingInput bindingInput = bindingOperation.getBindingInput();
+        SOAPBody soapBody = (bindingInput == null) ? null
+                : getExtension(bindingInput.getExtensibilityElements(), SOAPBody.class);
+        if (soapBody == null) {
+            throw new UnsupportedWsdlException("SOAP body of operation " + name);
+        }
+        String soapAction = (soapOperation == null) ? null : soapOperation.getSoapActionURI();
+        if ((soapAction != null) && soapAction.isEmpty()) {
+            soapAction = null;
+        }
+        if (RPC_STYLE.equals(style)) {
+            return buildRpcOperation(operation, soapBody, soapAction);
+        }
+        if (!LITERAL_USE.equals(soapBody.getUse())) {
+            throw new UnsupportedWsdlException("encoded document of operation " + name);
+        }
+        return buildWrappedOperation(operation, soapAction);
+    }
+
+    /**
+     * Builds the operation of the document/literal wrapped style, whose
+     * parameters are the children of the wrapper element.
+     *
+     * @param operation
+     *              The operation.
+     * @param soapAction
+     *              The SOAP action, or <tt>null</tt>.
+     * @return The operation.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    private OperationModel buildWrappedOperation(final Operation operation, final String soapAction) throws GeneratorException {
+        String name = operation.getName();
+        Element input = getWrapperElement(operation.getInput().getMessage());
+        if ((input == null) || !name.equals(input.getAttribute("name"))) {
+            throw new UnsupportedWsdlException("not wrapped operation " + name);
+        }
+        Set<String> inputNames = new HashSet<String>();
+        List<ParameterModel> parameters = new ArrayList<ParameterModel>();
+        for (Element child : getSequence(getAnonymousType(input))) {
+            inputNames.add(child.getAttribute("name"));
+            parameters.add(new ParameterModel(Utils.xmlNameToJava(child.getAttribute("name")),
+                    resolveElementType(child)));
+        }
+        JavaType returnType = JavaType.of(void.class);
+        if (operation.getOutput() != null) {
+            Element output = getWrapperElement(operation.getOutput().getMessage());
+            if (output == null) {
+                throw new UnsupportedWsdlException("not wrapped output of operation " + name);
+            }
+            List<Element> children = getSequence(getAnonymousType(output));
+            if (children.size() > 1) {
+                throw new UnsupportedWsdlException("several outputs of operation " + name);
+            }
+            if (children.size() == 1) {
+                if (inputNames.contains(children.get(0).getAttribute("name"))) {
+                    throw new UnsupportedWsdlException("inout parameter of operation " + name);
+                }
+                returnType = resolveElementType(children.get(0));
+            }
+        }
+        String namespace = getTargetNamespace(input);
+        return new OperationModel(Utils.xmlNameToJava(name), name, Modifier.PUBLIC,
+                returnType, parameters, namespace, soapAction);
+    }
+
+    /**
+     * Builds the operation of the rpc style, whose parameters are the parts
+     * of the messages.
+     *
+     * @param operation
+     *              The operation.
+     * @param soapBody
+     *              The SOAP body of the input.
+     * @param soapAction
+     *              The SOAP action, or <tt>null</tt>.
+     * @return The operation.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    @SuppressWarnings("unchecked")
+    private OperationModel buildRpcOperation(final Operation operation, final SOAPBody soapBody,
+            final String soapAction) throws GeneratorException {
+        String name = operation.getName();
+        List<Part> inputs = operation.getInput().getMessage().getOrderedParts(null);
+        List<String> inputNames = new ArrayList<String>();
+        List<ParameterModel> parameters = new ArrayList<ParameterModel>();
+        for (Part part : inputs) {
+            if (part.getTypeName() == null) {
+                throw new UnsupportedWsdlException("element part of rpc operation " + name);
+            }
+            inputNames.add(part.getName());
+            parameters.add(new ParameterModel(Utils.xmlNameToJava(part.getName()),
+                    resolveType(part.getTypeName())));
+        }
+        List<String> ordering = operation.getParameterOrdering();
+        if ((ordering != null) && !ordering.equals(inputNames)) {
+            throw new UnsupportedWsdlException("parameter order of operation " + name);
+        }
+        JavaType returnType = JavaType.of(void.class);
+        if (operation.getOutput() != null) {
+            List<Part> outputs = operation.getOutput().getMessage().getOrderedParts(null);
+            if (outputs.size() > 1) {
+                throw new UnsupportedWsdlException("several outputs of operation " + name);
+            }
+            if (outputs.size() == 1) {
+                Part part = outputs.get(0);
+                if ((part.getTypeName() == null) || inputNames.contains(part.getName())) {
+                    throw new UnsupportedWsdlException("output of rpc operation " + name);
+                }
+                returnType = resolveType(part.getTypeName());
+            }
+        }
+        String namespace = soapBody.getNamespaceURI();
+        if (namespace == null) {
+            namespace = definition.getTargetNamespace();
+        }
+        return new OperationModel(Utils.xmlNameToJava(name), name, Modifier.PUBLIC,
+                returnType, parameters, namespace, soapAction);
+    }
+
+    /**
+     *
+     * @param message
+     *              The message.
+     * @return The element of the single part of the message, or
+     * <tt>null</tt> if the message is not made of one element.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    @SuppressWarnings("unchecked")
+    private Element getWrapperElement(final Message message) throws GeneratorException {
+        Collection<Part> parts = message.getParts().values();
+        if (parts.size() != 1) {
+            return null;
+        }
+        QName elementName = parts.iterator().next().getElementName();
+        if (elementName == null) {
+            return null;
+        }
+        Element element = elements.get(elementName);
+        if (element == null) {
+            throw new UnsupportedWsdlException("undefined element " + elementName);
+        }
+        return element;
+    }
+
+    /**
+     *
+     * @param element
+     *              The element.
+     * @return The anonymous complex type of the element.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    private Element getAnonymousType(final Element element) throws GeneratorException {
+        for (Element child : getChildElements(element)) {
+            if ("complexType".equals(child.getLocalName())) {
+                return child;
+            }
+        }
+        throw new UnsupportedWsdlException("element " + element.getAttribute("name")
+                + " without anonymous complex type");
+    }
+
+    /**
+     * Gets the elements of the complex type, which must be only made of a
+     * sequence (or all) of elements.
+     *
+     * @param complexType
+     *              The complex type.
+     * @return The elements.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    private List<Element> getSequence(final Element complexType) throws GeneratorException {
+        List<Element> sequence = new ArrayList<Element>();
+        for (Element child : getChildElements(complexType)) {
+            String localName = child.getLocalName();
+            if ("sequence".equals(localName) || "all".equals(localName)) {
+                for (Element element : getChildElements(child)) {
+                    if (!"element".equals(element.getLocalName())) {
+                        throw new UnsupportedWsdlException("xsd:" + element.getLocalName()
+                                + " in " + describe(complexType));
+                    }
+                    sequence.add(element);
+                }
+            } else {
+                throw new UnsupportedWsdlException("xsd:" + localName + " in " + describe(complexType));
+            }
+        }
+        return sequence;
+    }
+
+    /**
+     * Maps the type of the element to Java, taking care of the optional,
+     * nillable and repeated elements.
+     *
+     * @param element
+     *              The element.
+     * @return The Java type.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    private JavaType resolveElementType(final Element element) throws GeneratorException {
+        String name = element.getAttribute("name");
+        if (element.hasAttribute("ref") || !getChildElements(element).isEmpty()) {
+            throw new UnsupportedWsdlException("element " + name + " without named type");
+        }
+        JavaType type = JavaType.of(Object.class);
+        if (element.hasAttribute("type")) {
+            type = resolveType(getQName(element, element.getAttribute("type")));
+        }
+        if (type.isPrimitive() && ("0".equals(element.getAttribute("minOccurs"))
+                || "true".equals(element.getAttribute("nillable")))) {
+            for (Map.Entry<Class<?>, Class<?>> entry : wrapperTypes.entrySet()) {
+                if (type.is(entry.getKey())) {
+                    type = JavaType.of(entry.getValue());
+                    break;
+                }
+            }
+        }
+        if (isRepeated(element)) {
+            type = type.arrayOf();
+        }
+        return type;
+    }
+
+    /**
+     * Maps the schema type to Java. The complex type which is only made of
+     * one repeated element is mapped to an array, the other ones to the
+     * complex types to generate.
+     *
+     * @param qname
+     *              The name of the schema type.
+     * @return The Java type.
+     * @throws GeneratorException
+     *              The generation exception.
+     */
+    private JavaType resolveType(final QName qname) throws GeneratorException {
+        JavaType resolved = resolvedTypes.get(qname);
+        if (resolved != null) {
+            return resolved;
+        }
+        if (XSD_NS.equals(qname.getNamespaceURI())) {
+            Class<?> clazz = builtinTypes.get(qname.getLocalPart());
+            if (clazz == null) {
+                throw new UnsupportedWsdlException("xsd:" + qname.getLocalPart());
+            }
+            resolved = JavaType.of(clazz);
+            resolvedTypes.put(qname, resolved);
+            return resolved;
+        }
+        Element type = types.get(qname);
+        if (type == null) {
+            throw new UnsupportedWsdlException("undefined type " + qname);
+        }
+        if (!"complexType".equals(type.getLocalName())) {
+            throw new UnsupportedWsdlException("simple type " + qname);
+        }
+        List<Element> sequence = getSequence(type);
+        if ((sequence.size() == 1) && isRepeated(sequence.get(0))) {
+            resolved = resolveElementType(sequence.get(0));
+            resolvedTypes.put(qname, resolved);
+            return resolved;
+        }
+        String packageName = Utils.makePackageName(qname.getNamespaceURI());
+        String simpleName = Utils.xmlNameToJavaClass(qname.getLocalPart());
+        checkClassName(packageName, simpleName);
+        resolved = JavaType.generated(packageName, simpleName);
+        // registered before the attributes, for the recursive types
+        resolvedTypes.put(qname, resolved);
+        List<PropertyModel> properties = new ArrayList<PropertyModel>();
+        for (Element element : sequence) {
+            JavaType propertyType = resolveElementType(element);
+            properties.add(new PropertyModel(Utils.xmlNameToJava(element.getAttribute("name")),
+                    Modifier.PRIVATE, propertyType, propertyType.isGenerated()));
+        }
+        beans.add(new BeanModel(resolved.getCanonicalName(), properties, properties.size()));
+        return resolved;
+    }
+
+    /**
+     *
+     * @param element
+     *              The element.
+     * @return <tt>true</tt> if the element may occur more than once, and
+     * <tt>false</tt> otherwise.
+     */
+    private boolean isRepeated(final Element element) {
+        String maxOccurs = element.getAttribute("maxOccurs");
+        return "unbounded".equals(maxOccurs)
+                || (!maxOccurs.isEmpty() && (Integer.parseInt(maxOccurs) > 1));
+    }
+
+    /**
+     * Registers the name of a class to generate.
+     *
+     * @param packageName
+     *              The package name.
+     * @param simpleName
+     *              The simple name.
+     * @throws GeneratorException
+     *              The generation exception if the name is already used.
+     */
+    private void checkClassName(final String packageName, final String simpleName) throws GeneratorException {
+        if (!classNames.add((packageName + "." + simpleName).toLowerCase())) {
+            throw new UnsupportedWsdlException("name clash on " + simpleName);
+        }
+    }
+
+    /**
+     *
+     * @param element
+     *              The element of the schema.
+     * @return The target namespace of the schema declaring the element.
+     */
+    private String getTargetNamespace(final Element element) {
+        Node node = element;
+        while ((node != null) && !"schema".equals(node.getLocalName())) {
+            node = node.getParentNode();
+        }
+        return (node == null) ? "" : ((Element) node).getAttribute("targetNamespace");
+    }
+
+    /**
+     *
+     * @param element
+     *              The element holding the prefixed name.
+     * @param prefixedName
+     *              The prefixed name, for example <tt>xsd:int</tt>.
+     * @return The qualified name.
+     */
+    private static QName getQName(final Element element, final String prefixedName) {
+        int index = prefixedName.indexOf(':');
+        String prefix = (index < 0) ? null : prefixedName.substring(0, index);
+        String namespace = element.lookupNamespaceURI(prefix);
+        return new QName(namespace == null ? "" : namespace, prefixedName.substring(index + 1));
+    }
+
+    /**
+     *
+     * @param parent
+     *              The parent element.
+     * @return The child elements, except the annotations.
+     */
+    private static List<Element> getChildElements(final Element parent) {
+        List<Element> children = new ArrayList<Element>();
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if ((node instanceof Element) && !"annotation".equals(node.getLocalName())) {
+                children.add((Element) node);
+            }
+        }
+        return children;
+    }
+
+    /**
+     *
+     * @param complexType
+     *              The complex type.
+     * @return The description of the complex type in the messages.
+     */
+    private static String describe(final Element complexType) {
+        String name = complexType.getAttribute("name");
+        if (name.isEmpty() && (complexType.getParentNode() instanceof Element)) {
+            name = ((Element) complexType.getParentNode()).getAttribute("name");
+        }
+        return name;
+    }
+
+    /**
+     *
+     * @param <T>
+     *              The type of the extension.
+     * @param extensions
+     *              The extensibility elements.
+     * @param type
+     *              The type of the extension.
+     * @return The first extension of the given type, or <tt>null</tt>.
+     */
+    static <T> T getExtension(final List<?> extensions, final Class<T> type) {
+        for (Object extension : extensions) {
+            if (type.isInstance(extension)) {
+                return type.cast(extension);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ Ksoap2-generator-stub: the generating to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) in J2ME/CLDC 1.1 and Android
+ (http://code.google.com/p/ksoap2-android/).
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+package ksoap2.generator;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits for a change of the WSDL documents and their schemas. The local
+ * files are watched through the folders holding them, the remote documents
+ * are polled: the generation checks them against the WSDL cache, which
+ * revalidates them with a conditional request.
+ *
+ */
+final class WsdlWatcher {
+
+    /**
+     * The time to wait for the other events of a change, an editor saving a
+     * file often writes it several times.
+     */
+    private static final long QUIET_MILLIS = 200;
+
+    /**
+     * The watch service.
+     */
+    private final WatchService watchService;
+
+    /**
+     * The names of the watched files, by folder.
+     */
+    private final Map<Path, Set<Path>> files = new HashMap<Path, Set<Path>>();
+
+    /**
+     * The polling interval of the remote documents, in seconds.
+     */
+    private final int pollSeconds;
+
+    /**
+     * Whether remote documents are watched.
+     */
+    private boolean remote;
+
+    /**
+     * Constructor.
+     *
+     * @param pollSeconds
+     *              The polling interval of the remote documents, in seconds.
+     * @throws GeneratorException
+     *              The exception if the watch service cannot be created.
+     */
+    WsdlWatcher(final int pollSeconds) throws GeneratorException {
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            throw new GeneratorException(e);
+        }
+        this.pollSeconds = Math.max(1, pollSeconds);
+    }
+
+    /**
+     * Sets the documents to watch, the documents of the last call which are
+     * not listed anymore are ignored.
+     *
+     * @param uris
+     *              The URLs of the documents.
+     * @throws GeneratorException
+     *              The exception if a folder cannot be watched.
+     */
+    void watch(final Iterable<String> uris) throws GeneratorException {
+        for (Set<Path> names : files.values()) {
+            names.clear();
+        }
+        remote = false;
+        for (String uri : uris) {
+            Path file = getLocalFile(uri);
+            if (file == null) {
+                remote = true;
+                continue;
+            }
+            Path folder = file.getParent();
+            Set<Path> names = files.get(folder);
+            if (names == null) {
+                try {
+                    folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                } catch (IOException e) {
+                    throw new GeneratorException("cannot watch the folder " + folder, e);
+                }
+                names = new HashSet<Path>();
+                files.put(folder, names);
+            }
+            names.add(file.getFileName());
+        }
+    }
+
+    /**
+     * Waits until a watched file changes or, if remote documents are
+     * watched, until the polling interval elapses.
+     *
+     * @return The description of the change.
+     * @throws InterruptedException
+     *              The exception if the thread is interrupted.
+     */
+    String awaitChange() throws InterruptedException {
+        while (true) {
+            WatchKey key = remote ? watchService.poll(pollSeconds, TimeUnit.SECONDS) : watchService.take();
+            if (key == null) {
+                return "polling the remote documents";
+            }
+            Path changed = getChangedFile(key);
+            if (changed != null) {
+                // drains the other events of the change
+                while ((key = watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    getChangedFile(key);
+                }
+                return changed + " changed";
+            }
+        }
+    }
+
+    /**
+     * Closes the watch service.
+     */
+    void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // nothing left to release
+        }
+    }
+
+    /**
+     * Gets the watched file a key signals, and resets the key.
+     *
+     * @param key
+     *              The key.
+     * @return The first watched file which changed, or <tt>null</tt> if the
+     *              events are about other files.
+     */
+    private Path getChangedFile(final WatchKey key) {
+        Path folder = (Path) key.watchable();
+        Set<Path> names = files.get(folder);
+        Path changed = null;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if ((changed == null) && (names != null)
+                    && ((event.kind() == StandardWatchEventKinds.OVERFLOW) || names.contains(context))) {
+                changed = (context instanceof Path) ? folder.resolve((Path) context) : folder;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     *
+     * @param uri
+     *              The URL of a document.
+     * @return The local file of the document, or <tt>null</tt> if it is a
+     *              remote document.
+     */
+    private static Path getLocalFile(final String uri) {
+        try {
+            URI parsed = new URI(uri);
+            if ("file".equals(parsed.getScheme())) {
+                return Paths.get(parsed).toAbsolutePath();
+            }
+            if ((parsed.getScheme() != null) && (parsed.getScheme().length() > 1)) {
+                return null;
+            }
+        } catch (URISyntaxException e) {
+            // a file path
+        }
+        return Paths.get(uri).toAbsolutePath();
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ Ksoap2-generator-stub: the generator to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) on J2ME/CLDC 1.1.
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the generation of several WSDL documents in one run, given by
+ * several <tt>-w</tt> options or by a batch file.
+ *
+ */
+public final class TestForBatch extends AbstractTest {
+
+    /**
+     * The folder of the generated folders.
+     */
+    private Path folder;
+
+    @Before
+    public void createFolder() throws Exception {
+        folder = Files.createTempDirectory("batch");
+        ClassLoader loader = GeneratorLoader.getLoader();
+        Thread.currentThread().setContextClassLoader(loader);
+    }
+
+    @After
+    public void removeFolder() throws Exception {
+        FileManager.removeFolder(folder.toString());
+    }
+
+    /**
+     *
+     * @param name
+     *              The name of the WSDL document.
+     * @return The path of the WSDL document.
+     */
+    private static String wsdl(final String name) {
+        return prefixPath + separatorChar + name + ".wsdl";
+    }
+
+    /**
+     * Checks that the service of a WSDL document is generated.
+     *
+     * @param generatedFolder
+     *              The generated folder.
+     * @param name
+     *              The name of the WSDL document.
+     */
+    private static void assertGenerated(final Path generatedFolder, final String name) {
+        String packageName = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+        assertTrue(name, Files.isRegularFile(generatedFolder.resolve(Paths.get("ksoap2", "generator",
+                packageName, name + ".java"))));
+    }
+
+    @Test
+    public void generate() throws Exception {
+        Path first = folder.resolve("first");
+        Path second = folder.resolve("second");
+        new Wsdl2J2me(new String[] {"--no-cache", "-j", "2",
+                "-w", wsdl("ForInt"), "-g", first.toString(),
+                "-w", wsdl("ForLong"), "-g", second.toString(),
+                "-w", wsdl("ForString"), "-g", first.toString()}).run();
+        assertGenerated(first, "ForInt");
+        assertGenerated(second, "ForLong");
+        assertGenerated(first, "ForString");
+    }
+
+    @Test
+    public void generateBatchFile() throws Exception {
+        Path first = folder.resolve("first");
+        Path second = folder.resolve("second");
+        Path batch = folder.resolve("batch.txt");
+        String lines = "# the WSDL documents\n"
+                + wsdl("ForInt") + " " + first + "\n"
+                + "\n"
+                + wsdl("ForComplex") + "\n";
+        Files.write(batch, lines.getBytes(StandardCharsets.UTF_8));
+        new Wsdl2J2me(new String[] {"--no-cache", "--batch", batch.toString(),
+                "-w", wsdl("ForLong"), "-g", second.toString()}).run();
+        assertGenerated(first, "ForInt");
+        assertGenerated(second, "ForLong");
+        assertGenerated(second, "ForComplex");
+    }
+}
@@ -44,8 +44,6 @@ public class TestForByte extends AbstractTest {
                 + "generate-test-sources"};
         ClassLoader loader = GeneratorLoader.getLoader();
         Thread.currentThread().setContextClassLoader(loader);
-        ServiceClientGenerator.HTTP_TRANSPORT = ServiceClientGenerator
-                .HTTP_TRANSPORT_J2ME;
-        new Wsdl2J2me(args).run();
+        new Wsdl2J2me(args, ServiceClientGenerator.HTTP_TRANSPORT_J2ME).run();
     }
 }
@@ -0,0 +1,101 @@
+/**
+ Ksoap2-generator-stub: the generator to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) on J2ME/CLDC 1.1.
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests web services using complex types for the parameter types or return
+ * type, generated both from the WSDL document and through axis: both give
+ * the same code.
+ *
+ */
+public final class TestForComplex extends AbstractTest {
+
+    @Test
+    public void generate() throws Exception {
+        String [] args = new String[] {"-w", prefixPath + separatorChar
+                + "ForComplex.wsdl", "-g", System.getProperty("user.dir")
+                + separatorChar + "target" + separatorChar
+                + "generate-test-sources"};
+        ClassLoader loader = GeneratorLoader.getLoader();
+        Thread.currentThread().setContextClassLoader(loader);
+        new Wsdl2J2me(args, ServiceClientGenerator.HTTP_TRANSPORT_J2ME).run();
+    }
+
+    @Test
+    public void generateWithAxis() throws Exception {
+        ClassLoader loader = GeneratorLoader.getLoader();
+        Thread.currentThread().setContextClassLoader(loader);
+        Path wsdlFolder = Files.createTempDirectory("complex");
+        Path axisFolder = Files.createTempDirectory("complex-axis");
+        try {
+            new Wsdl2J2me(new String[] {"-w", prefixPath + separatorChar + "ForComplex.wsdl",
+                    "-g", wsdlFolder.toString(), "--no-cache"}, ServiceClientGenerator.HTTP_TRANSPORT_J2ME).run();
+            new Wsdl2J2me(new String[] {"-w", prefixPath + separatorChar + "ForComplex.wsdl",
+                    "-g", axisFolder.toString(), "--no-cache", "-a"}, ServiceClientGenerator.HTTP_TRANSPORT_J2ME).run();
+            List<String> names = getSourceNames(wsdlFolder);
+            assertTrue(names.size() > 2);
+            assertEquals(names.size(), getSourceNames(axisFolder).size());
+            for (String name : names) {
+                Path path = wsdlFolder.relativize(Paths.get(name));
+                assertArrayEquals(path.toString(), Files.readAllBytes(Paths.get(name)),
+                        Files.readAllBytes(axisFolder.resolve(path)));
+            }
+        } finally {
+            FileManager.removeFolder(wsdlFolder.toString());
+            FileManager.removeFolder(axisFolder.toString());
+        }
+    }
+
+    /**
+     *
+     * @param folder
+     *              The generated folder.
+     * @return The generated source files, without the state files of the
+     *              generation.
+     */
+    private List<String> getSourceNames(final Path folder) throws Exception {
+        List<String> names = new ArrayList<String>();
+        for (String name : FileManager.getFileNames(folder.toString())) {
+            if (name.endsWith(".java")) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,232 @@
+/**
+ Ksoap2-generator-stub: the generator to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) on J2ME/CLDC 1.1.
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the generations through the {@link GeneratorEngine}, without the
+ * command line.
+ *
+ */
+public final class TestForEngine extends AbstractTest {
+
+    /**
+     * The folder of the generated code.
+     */
+    private Path folder;
+
+    /**
+     * The engine, shared by the tests.
+     */
+    private GeneratorEngine engine;
+
+    @Before
+    public void createEngine() throws Exception {
+        folder = Files.createTempDirectory("engine");
+        engine = new GeneratorEngine(GeneratorLoader.getLoader());
+    }
+
+    @After
+    public void removeFolder() throws Exception {
+        FileManager.removeFolder(folder.toString());
+    }
+
+    /**
+     * Generates a WSDL document in a background thread.
+     *
+     * @param executor
+     *              The executor.
+     * @param wsdl
+     *              The name of the WSDL document.
+     * @param httpTransport
+     *              The HTTP transport class.
+     * @return The number of documents generated.
+     * @throws Exception
+     *              The exception.
+     */
+    private Future<Integer> submit(final ExecutorService executor, final String wsdl,
+            final String httpTransport) throws Exception {
+        return submit(executor, wsdl, httpTransport, false);
+    }
+
+    /**
+     * Generates a WSDL document in a background thread.
+     *
+     * @param executor
+     *              The executor.
+     * @param wsdl
+     *              The name of the WSDL document.
+     * @param httpTransport
+     *              The HTTP transport class, the name of the folder.
+     * @param axis
+     *              Whether the code is generated through axis.
+     * @return The number of documents generated.
+     * @throws Exception
+     *              The exception.
+     */
+    private Future<Integer> submit(final ExecutorService executor, final String wsdl,
+            final String httpTransport, final boolean axis) throws Exception {
+        final GeneratorOptions options = new GeneratorOptions.Builder()
+                .addWsdl(prefixPath + separatorChar + wsdl, folder.resolve(httpTransport).toString())
+                .setHttpTransport(httpTransport)
+                .setCacheFolder(null)
+                .setAxis(axis)
+                .build();
+        return executor.submit(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return engine.generate(options);
+            }
+        });
+    }
+
+    @Test
+    public void concurrentTargets() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> j2me = submit(executor, "ForInt.wsdl", ServiceClientGenerator.HTTP_TRANSPORT_J2ME);
+            Future<Integer> android = submit(executor, "ForInt.wsdl", ServiceClientGenerator.HTTP_TRANSPORT_ANDROID);
+            assertEquals(1, j2me.get().intValue());
+            assertEquals(1, android.get().intValue());
+        } finally {
+            executor.shutdownNow();
+        }
+        String j2me = read(ServiceClientGenerator.HTTP_TRANSPORT_J2ME);
+        assertTrue(j2me, j2me.contains("import org.ksoap2.transport.HttpTransport;"));
+        String android = read(ServiceClientGenerator.HTTP_TRANSPORT_ANDROID);
+        assertTrue(android, android.contains("import org.ksoap2.transport.HttpTransportSE;"));
+    }
+
+    @Test
+    public void concurrentAxis() throws Exception {
+        Set<String> temps = listTemps();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> j2me = submit(executor, "ForInt.wsdl", ServiceClientGenerator.HTTP_TRANSPORT_J2ME, true);
+            Future<Integer> android = submit(executor, "ForInt.wsdl", ServiceClientGenerator.HTTP_TRANSPORT_ANDROID, true);
+            assertEquals(1, j2me.get().intValue());
+            assertEquals(1, android.get().intValue());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(read(ServiceClientGenerator.HTTP_TRANSPORT_J2ME).contains("say2"));
+        assertTrue(read(ServiceClientGenerator.HTTP_TRANSPORT_ANDROID).contains("say2"));
+        assertEquals("the work folders are removed", temps, listTemps());
+    }
+
+    /**
+     *
+     * @return The names of the work folders in the temp folder.
+     * @throws Exception
+     *              The exception.
+     */
+    private Set<String> listTemps() throws Exception {
+        Set<String> names = new TreeSet<String>();
+        DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get(System.getProperty("java.io.tmpdir")), "__ksoap2*");
+        try {
+            for (Path path : stream) {
+                names.add(path.getFileName().toString());
+            }
+        } finally {
+            stream.close();
+        }
+        return names;
+    }
+
+    /**
+     *
+     * @param httpTransport
+     *              The HTTP transport class, the name of the folder.
+     * @return The service generated in the folder.
+     * @throws Exception
+     *              The exception.
+     */
+    private String read(final String httpTransport) throws Exception {
+        return new String(Files.readAllBytes(folder.resolve(httpTransport).resolve("ksoap2")
+                .resolve("generator").resolve("forInt").resolve("ForInt.java")), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void invalidOptions() throws Exception {
+        try {
+            new GeneratorOptions.Builder().build();
+            fail("no WSDL document");
+        } catch (GeneratorException e) {
+            assertEquals("no WSDL document to generate", e.getMessage());
+        }
+        try {
+            new GeneratorOptions.Builder().addWsdl("a.wsdl", "target").setCacheFolder(null).setOffline(true).build();
+            fail("offline without cache");
+        } catch (GeneratorException e) {
+            assertEquals("the offline mode needs the cache", e.getMessage());
+        }
+        try {
+            new Wsdl2J2me(new String[0]).run();
+            fail("no argument");
+        } catch (GeneratorException e) {
+            assertEquals("invalid arguments", e.getMessage());
+        }
+    }
+
+    @Test
+    public void noService() throws Exception {
+        Path wsdl = folder.resolve("NoService.wsdl");
+        Files.write(wsdl, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<wsdl:definitions targetNamespace=\"http://noService.generator.ksoap2\""
+                + " xmlns:wsdl=\"http://schemas.xmlsoap.org/wsdl/\"/>\n").getBytes(StandardCharsets.UTF_8));
+        GeneratorOptions options = new GeneratorOptions.Builder()
+                .addWsdl(wsdl.toString(), folder.resolve("generated").toString())
+                .setCacheFolder(null)
+                .build();
+        // thrown, not counted as an up to date document
+        try {
+            engine.generate(options);
+            fail("no web services interface");
+        } catch (GeneratorException e) {
+            assertEquals("no web services interface generated by axis", e.getMessage());
+        }
+    }
+}
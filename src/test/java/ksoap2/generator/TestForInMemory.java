@@ -0,0 +1,144 @@
+/**
+ Ksoap2-generator-stub: the generator to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) on J2ME/CLDC 1.1.
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+
+package ksoap2.generator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the code generated through axis with the classes compiled in
+ * memory is the same as with the classes compiled to a jar.
+ *
+ */
+public final class TestForInMemory extends AbstractTest {
+
+    /**
+     * The folder generated with the jar.
+     */
+    private Path jarFolder;
+
+    /**
+     * The folder generated in memory.
+     */
+    private Path memoryFolder;
+
+    @Before
+    public void createFolders() throws Exception {
+        jarFolder = Files.createTempDirectory("jar");
+        memoryFolder = Files.createTempDirectory("memory");
+        ClassLoader loader = GeneratorLoader.getLoader();
+        Thread.currentThread().setContextClassLoader(loader);
+    }
+
+    @After
+    public void removeFolders() throws Exception {
+        FileManager.removeFolder(jarFolder.toString());
+        FileManager.removeFolder(memoryFolder.toString());
+    }
+
+    /**
+     * Generates the code of a WSDL document through axis.
+     *
+     * @param wsdl
+     *              The name of the WSDL document.
+     * @param folder
+     *              The generated folder.
+     * @param inMemory
+     *              Whether the axis classes are compiled in memory.
+     */
+    private void run(final String wsdl, final Path folder, final boolean inMemory) throws Exception {
+        List<String> args = new ArrayList<String>();
+        args.add("-w");
+        args.add(prefixPath + separatorChar + wsdl);
+        args.add("-g");
+        args.add(folder.toString());
+        args.add("--no-cache");
+        args.add("-a");
+        if (inMemory) {
+            args.add("-m");
+        }
+        new Wsdl2J2me(args.toArray(new String[args.size()])).run();
+    }
+
+    /**
+     * Generates a WSDL document both ways and compares the code.
+     *
+     * @param wsdl
+     *              The name of the WSDL document.
+     */
+    private void compare(final String wsdl) throws Exception {
+        run(wsdl, jarFolder, false);
+        run(wsdl, memoryFolder, true);
+        List<String> names = getSourceNames(jarFolder);
+        assertTrue(names.size() > 1);
+        assertEquals(names.size(), getSourceNames(memoryFolder).size());
+        for (String name : names) {
+            Path path = jarFolder.relativize(Paths.get(name));
+            assertArrayEquals(path.toString(), Files.readAllBytes(Paths.get(name)),
+                    Files.readAllBytes(memoryFolder.resolve(path)));
+        }
+    }
+
+    @Test
+    public void generateComplex() throws Exception {
+        compare("ForComplex.wsdl");
+    }
+
+    @Test
+    public void generateServices() throws Exception {
+        compare("ForServices.wsdl");
+    }
+
+    /**
+     *
+     * @param folder
+     *              The generated folder.
+     * @return The generated source files, without the state files of the
+     *              generation.
+     */
+    private List<String> getSourceNames(final Path folder) throws Exception {
+        List<String> names = new ArrayList<String>();
+        for (String name : FileManager.getFileNames(folder.toString())) {
+            if (name.endsWith(".java")) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ Ksoap2-generator-stub: the generator to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) on J2ME/CLDC 1.1.
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+
+package ksoap2.generator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the incremental generation: an unchanged WSDL document is not
+ * generated again, only the types whose schema changed are, files with the
+ * same content are not rewritten and the types removed from the schema are
+ * deleted.
+ *
+ */
+public final class TestForIncremental extends AbstractTest {
+
+    /**
+     * The folder of the WSDL document and its schema.
+     */
+    private Path wsdlFolder;
+
+    /**
+     * The generated folder.
+     */
+    private Path generatedFolder;
+
+    @Before
+    public void copyWsdl() throws Exception {
+        wsdlFolder = Files.createTempDirectory("wsdl");
+        generatedFolder = Files.createTempDirectory("generated");
+        for (String name : new String[] {"ForImport.wsdl", "ForImport.xsd"}) {
+            Files.copy(Paths.get(prefixPath, name), wsdlFolder.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+        }
+        ClassLoader loader = GeneratorLoader.getLoader();
+        Thread.currentThread().setContextClassLoader(loader);
+    }
+
+    @After
+    public void removeFolders() throws Exception {
+        FileManager.removeFolder(wsdlFolder.toString());
+        FileManager.removeFolder(generatedFolder.toString());
+    }
+
+    /**
+     * Generates the code from the copied WSDL document.
+     */
+    private void run(final String... options) throws Exception {
+        String [] args = new String[] {"-w", wsdl(), "-g", generatedFolder.toString(), "--no-cache"};
+        String [] allArgs = new String[args.length + options.length];
+        System.arraycopy(args, 0, allArgs, 0, args.length);
+        System.arraycopy(options, 0, allArgs, args.length, options.length);
+        new Wsdl2J2me(allArgs).run();
+    }
+
+    /**
+     *
+     * @return The path of the copied WSDL document.
+     */
+    private String wsdl() {
+        return wsdlFolder.resolve("ForImport.wsdl").toString();
+    }
+
+    /**
+     * Replaces a part of the copied schema.
+     *
+     * @param target
+     *              The text to replace.
+     * @param replacement
+     *              The replacement.
+     */
+    private void editSchema(final String target, final String replacement) throws Exception {
+        Path xsd = wsdlFolder.resolve("ForImport.xsd");
+        Charset utf8 = Charset.forName("UTF-8");
+        String schema = new String(Files.readAllBytes(xsd), utf8);
+        assertTrue(schema.contains(target));
+        Files.write(xsd, schema.replace(target, replacement).getBytes(utf8));
+    }
+
+    /**
+     *
+     * @param simpleName
+     *              The simple name of the generated type.
+     * @return The source file of the type.
+     */
+    private File source(final String simpleName) {
+        return generatedFolder.resolve(Paths.get("ksoap2", "generator", "forImport", "types",
+                simpleName + ".java")).toFile();
+    }
+
+    @Test
+    public void generate() throws Exception {
+        run();
+        assertTrue(FileManager.getStateFile(generatedFolder.toString(), wsdl(), Fingerprint.EXTENSION).isFile());
+        assertTrue(source("Person").setLastModified(0));
+        assertTrue(source("Address").setLastModified(0));
+
+        run(); // up to date
+        assertEquals(0, source("Person").lastModified());
+        assertEquals(0, source("Address").lastModified());
+
+        editSchema("name=\"age\" type=\"xsd:int\"", "name=\"age\" type=\"xsd:long\"");
+        run();
+        assertTrue(source("Person").lastModified() > 0);
+        assertTrue(new String(Files.readAllBytes(source("Person").toPath()), "UTF-8").contains("long age;"));
+        assertEquals(0, source("Address").lastModified());
+
+        assertTrue(source("Address").delete());
+        run(); // a generated type is missing
+        assertTrue(source("Address").isFile());
+    }
+
+    @Test
+    public void writeIfChanged() throws Exception {
+        run();
+        assertTrue(source("Person").setLastModified(0));
+
+        run("--force"); // the same content is not written again
+        assertEquals(0, source("Person").lastModified());
+    }
+
+    @Test
+    public void pruneStaleFiles() throws Exception {
+        File own = generatedFolder.resolve("Own.java").toFile();
+        assertTrue(own.createNewFile());
+        run();
+        assertTrue(source("Address").isFile());
+
+        editSchema("type=\"types:Address\"", "type=\"xsd:string\"");
+        run();
+        assertFalse(source("Address").exists()); // no more generated
+        assertTrue(source("Person").isFile());
+        assertTrue(own.isFile()); // never generated
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ Ksoap2-generator-stub: the generator to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) on J2ME/CLDC 1.1.
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the complex types generated in parallel are the same as those
+ * generated one at a time.
+ *
+ */
+public final class TestForParallel extends AbstractTest {
+
+    /**
+     * The folder generated one type at a time.
+     */
+    private Path sequentialFolder;
+
+    /**
+     * The folder generated in parallel.
+     */
+    private Path parallelFolder;
+
+    @Before
+    public void createFolders() throws Exception {
+        sequentialFolder = Files.createTempDirectory("sequential");
+        parallelFolder = Files.createTempDirectory("parallel");
+        ClassLoader loader = GeneratorLoader.getLoader();
+        Thread.currentThread().setContextClassLoader(loader);
+    }
+
+    @After
+    public void removeFolders() throws Exception {
+        FileManager.removeFolder(sequentialFolder.toString());
+        FileManager.removeFolder(parallelFolder.toString());
+    }
+
+    /**
+     * Generates the code of a WSDL document.
+     *
+     * @param folder
+     *              The generated folder.
+     * @param threads
+     *              The number of threads.
+     */
+    private void run(final Path folder, final int threads) throws Exception {
+        String [] args = new String[] {"-w", prefixPath + separatorChar + "ForComplex.wsdl",
+                "-g", folder.toString(), "--no-cache", "-j", String.valueOf(threads)};
+        new Wsdl2J2me(args).run();
+    }
+
+    @Test
+    public void generate() throws Exception {
+        run(sequentialFolder, 1);
+        run(parallelFolder, 4);
+        List<String> names = getSourceNames(sequentialFolder);
+        assertTrue(names.size() > 2);
+        assertEquals(names.size(), getSourceNames(parallelFolder).size());
+        for (String name : names) {
+            Path path = sequentialFolder.relativize(Paths.get(name));
+            assertArrayEquals(path.toString(), Files.readAllBytes(Paths.get(name)),
+                    Files.readAllBytes(parallelFolder.resolve(path)));
+        }
+    }
+
+    /**
+     *
+     * @param folder
+     *              The generated folder.
+     * @return The generated source files, without the state files of the
+     *              generation.
+     */
+    private List<String> getSourceNames(final Path folder) throws Exception {
+        List<String> names = new ArrayList<String>();
+        for (String name : FileManager.getFileNames(folder.toString())) {
+            if (name.endsWith(".java")) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ Ksoap2-generator-stub: the generator to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) on J2ME/CLDC 1.1.
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+
+package ksoap2.generator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the JSON report of the phases of a generation, written with the
+ * <tt>--report</tt> option.
+ *
+ */
+public final class TestForReport extends AbstractTest {
+
+    /**
+     * The folder of the generated code and the report.
+     */
+    private Path folder;
+
+    @Before
+    public void createFolder() throws Exception {
+        folder = Files.createTempDirectory("report");
+        ClassLoader loader = GeneratorLoader.getLoader();
+        Thread.currentThread().setContextClassLoader(loader);
+    }
+
+    @After
+    public void removeFolder() throws Exception {
+        FileManager.removeFolder(folder.toString());
+    }
+
+    /**
+     * Generates a WSDL document with a report.
+     *
+     * @param report
+     *              The path of the report.
+     * @return The report.
+     * @throws Exception
+     *              The exception.
+     */
+    private String generate(final Path report) throws Exception {
+        new Wsdl2J2me(new String[] {"--no-cache", "-w", prefixPath + separatorChar + "ForComplex.wsdl",
+                "-g", folder.resolve("generated").toString(), "--report", report.toString()}).run();
+        return new String(Files.readAllBytes(report), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void report() throws Exception {
+        String json = generate(folder.resolve("report.json"));
+        assertTrue(json, json.contains("\"outcome\": \"native\""));
+        for (String phase : new String[] {"check", "fetch", "parse", "model", "emit ksoap2"}) {
+            assertTrue(phase, json.contains("{\"name\": \"" + phase + "\", \"wallMillis\": "));
+        }
+        assertTrue(json, json.contains("{\"className\": \"ksoap2.generator.forComplex.Person\", \"emitMillis\": "));
+        assertTrue(json, !json.contains("\"written\": 0,"));
+
+        json = generate(folder.resolve("again.json"));
+        assertTrue(json, json.contains("\"outcome\": \"up to date\""));
+        assertTrue(json, json.contains("\"types\": [\n      ]"));
+    }
+
+    @Test
+    public void quote() {
+        assertEquals("\"a\\\"b\\\\c\\n\\u0001\"", GenerationReport.quote("a\"b\\c\n\u0001"));
+        assertEquals("null", GenerationReport.quote(null));
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ Ksoap2-generator-stub: the generator to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) on J2ME/CLDC 1.1.
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.wsdl.Definition;
+import javax.xml.namespace.QName;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests a WSDL document declaring several services, generated through axis.
+ *
+ */
+public final class TestForServices extends AbstractTest {
+
+    /**
+     * The folder of the generated code.
+     */
+    private Path folder;
+
+    @Before
+    public void createFolder() throws Exception {
+        folder = Files.createTempDirectory("services");
+        ClassLoader loader = GeneratorLoader.getLoader();
+        Thread.currentThread().setContextClassLoader(loader);
+    }
+
+    @After
+    public void removeFolder() throws Exception {
+        FileManager.removeFolder(folder.toString());
+    }
+
+    @Test
+    public void generateWithAxis() throws Exception {
+        new Wsdl2J2me(new String[] {"--no-cache", "-w", prefixPath + separatorChar + "ForServices.wsdl",
+                "-g", folder.toString(), "-a"}).run();
+        Path generated = folder.resolve("ksoap2").resolve("generator").resolve("forServices");
+        assertTrue(Files.isRegularFile(generated.resolve("ForGreeting.java")));
+        assertTrue(Files.isRegularFile(generated.resolve("ForCounting.java")));
+    }
+
+    @Test
+    public void generateSharedOperationWithAxis() throws Exception {
+        Path wsdl = folder.resolve("shared.wsdl");
+        Files.write(wsdl, TestForSoapOperationIndex.SHARED_WSDL.getBytes(StandardCharsets.UTF_8));
+        new Wsdl2J2me(new String[] {"--no-cache", "-w", wsdl.toString(), "-g", folder.toString(), "-a"}).run();
+        Path generated = folder.resolve("ksoap2").resolve("generator").resolve("shared");
+        // each service calls the operation of its own port type
+        String left = new String(Files.readAllBytes(generated.resolve("Left.java")), StandardCharsets.UTF_8);
+        assertTrue(left.contains("\"urn:left#Echo\""));
+        assertFalse(left.contains("urn:right"));
+        String right = new String(Files.readAllBytes(generated.resolve("Right.java")), StandardCharsets.UTF_8);
+        assertTrue(right.contains("\"urn:right#Echo\""));
+        assertFalse(right.contains("urn:left"));
+    }
+
+    @Test
+    public void generateFromDefinition() throws Exception {
+        WsdlDocument wsdl = WsdlDocument.read(prefixPath + separatorChar + "ForServices.wsdl");
+        // the counting service is removed from the definition only, not from its DOM
+        Definition definition = wsdl.getDefinition();
+        String namespace = definition.getTargetNamespace();
+        definition.removeService(new QName(namespace, "ForCountingService"));
+        definition.removeBinding(new QName(namespace, "ForCountingSoapBinding"));
+        definition.removePortType(new QName(namespace, "ForCounting"));
+        Map<String, QName> portTypes = AxisWsdl2Java.generate(folder.toString(), wsdl);
+        // axis used the definition already read instead of parsing the document again
+        assertEquals(Collections.singletonMap("ksoap2.generator.forServices.ForGreeting",
+                new QName(namespace, "ForGreeting")), portTypes);
+        Path generated = folder.resolve("ksoap2").resolve("generator").resolve("forServices");
+        assertTrue(Files.isRegularFile(generated.resolve("ForGreeting.java")));
+        assertFalse(Files.exists(generated.resolve("ForCounting.java")));
+    }
+}
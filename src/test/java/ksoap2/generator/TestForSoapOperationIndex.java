@@ -0,0 +1,186 @@
+/**
+ Ksoap2-generator-stub: the generator to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) on J2ME/CLDC 1.1.
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+
+package ksoap2.generator;
+
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the namespaces and the SOAP actions of the operations, resolved
+ * from the SOAP bindings.
+ *
+ */
+public final class TestForSoapOperationIndex extends AbstractTest {
+
+    /**
+     * A rpc WSDL document whose operations declare their SOAP action.
+     */
+    private static final String RPC_WSDL = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<wsdl:definitions targetNamespace=\"http://rpc.generator.ksoap2\" xmlns:impl=\"http://rpc.generator.ksoap2\""
+            + " xmlns:wsdl=\"http://schemas.xmlsoap.org/wsdl/\" xmlns:wsdlsoap=\"http://schemas.xmlsoap.org/wsdl/soap/\""
+            + " xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\">\n"
+            + " <wsdl:message name=\"echoRequest\"><wsdl:part name=\"value\" type=\"xsd:string\"/></wsdl:message>\n"
+            + " <wsdl:message name=\"echoResponse\"><wsdl:part name=\"echoReturn\" type=\"xsd:string\"/></wsdl:message>\n"
+            + " <wsdl:portType name=\"Rpc\">\n"
+            + "  <wsdl:operation name=\"Echo\"><wsdl:input message=\"impl:echoRequest\"/>"
+            + "<wsdl:output message=\"impl:echoResponse\"/></wsdl:operation>\n"
+            + "  <wsdl:operation name=\"Ping\"><wsdl:input message=\"impl:echoRequest\"/>"
+            + "<wsdl:output message=\"impl:echoResponse\"/></wsdl:operation>\n"
+            + " </wsdl:portType>\n"
+            + " <wsdl:binding name=\"RpcSoapBinding\" type=\"impl:Rpc\">\n"
+            + "  <wsdlsoap:binding style=\"rpc\" transport=\"http://schemas.xmlsoap.org/soap/http\"/>\n"
+            + "  <wsdl:operation name=\"Echo\"><wsdlsoap:operation soapAction=\"urn:rpc#Echo\"/>\n"
+            + "   <wsdl:input><wsdlsoap:body use=\"literal\" namespace=\"urn:echo\"/></wsdl:input>\n"
+            + "   <wsdl:output><wsdlsoap:body use=\"literal\" namespace=\"urn:echo\"/></wsdl:output></wsdl:operation>\n"
+            + "  <wsdl:operation name=\"Ping\"><wsdlsoap:operation soapAction=\"\"/>\n"
+            + "   <wsdl:input><wsdlsoap:body use=\"literal\"/></wsdl:input>\n"
+            + "   <wsdl:output><wsdlsoap:body use=\"literal\"/></wsdl:output></wsdl:operation>\n"
+            + " </wsdl:binding>\n"
+            + "</wsdl:definitions>\n";
+
+    /**
+     * A rpc WSDL document whose two port types declare an operation of the
+     * same name, bound to distinct SOAP actions and namespaces.
+     */
+    static final String SHARED_WSDL = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<wsdl:definitions targetNamespace=\"http://shared.generator.ksoap2\" xmlns:impl=\"http://shared.generator.ksoap2\""
+            + " xmlns:wsdl=\"http://schemas.xmlsoap.org/wsdl/\" xmlns:wsdlsoap=\"http://schemas.xmlsoap.org/wsdl/soap/\""
+            + " xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\">\n"
+            + " <wsdl:message name=\"echoRequest\"><wsdl:part name=\"value\" type=\"xsd:string\"/></wsdl:message>\n"
+            + " <wsdl:message name=\"echoResponse\"><wsdl:part name=\"echoReturn\" type=\"xsd:string\"/></wsdl:message>\n"
+            + sharedPortType("Left") + sharedPortType("Right")
+            + sharedBinding("Left") + sharedBinding("Right")
+            + sharedService("Left") + sharedService("Right")
+            + "</wsdl:definitions>\n";
+
+    /**
+     *
+     * @param name
+     *              The name of the port type.
+     * @return The port type declaring the Echo operation.
+     */
+    private static String sharedPortType(final String name) {
+        return " <wsdl:portType name=\"" + name + "\">\n"
+                + "  <wsdl:operation name=\"Echo\"><wsdl:input message=\"impl:echoRequest\"/>"
+                + "<wsdl:output message=\"impl:echoResponse\"/></wsdl:operation>\n"
+                + " </wsdl:portType>\n";
+    }
+
+    /**
+     *
+     * @param name
+     *              The name of the port type.
+     * @return The binding of the port type, whose SOAP action and namespace
+     *              are named after it.
+     */
+    private static String sharedBinding(final String name) {
+        String urn = "urn:" + name.toLowerCase();
+        return " <wsdl:binding name=\"" + name + "SoapBinding\" type=\"impl:" + name + "\">\n"
+                + "  <wsdlsoap:binding style=\"rpc\" transport=\"http://schemas.xmlsoap.org/soap/http\"/>\n"
+                + "  <wsdl:operation name=\"Echo\"><wsdlsoap:operation soapAction=\"" + urn + "#Echo\"/>\n"
+                + "   <wsdl:input><wsdlsoap:body use=\"literal\" namespace=\"" + urn + "\"/></wsdl:input>\n"
+                + "   <wsdl:output><wsdlsoap:body use=\"literal\" namespace=\"" + urn + "\"/></wsdl:output></wsdl:operation>\n"
+                + " </wsdl:binding>\n";
+    }
+
+    /**
+     *
+     * @param name
+     *              The name of the port type.
+     * @return The service of the binding of the port type.
+     */
+    private static String sharedService(final String name) {
+        return " <wsdl:service name=\"" + name + "Service\">\n"
+                + "  <wsdl:port binding=\"impl:" + name + "SoapBinding\" name=\"" + name + "\">\n"
+                + "   <wsdlsoap:address location=\"http://localhost:8080/Ws2Ksoap/services/" + name + "\"/>\n"
+                + "  </wsdl:port>\n"
+                + " </wsdl:service>\n";
+    }
+
+    @Test
+    public void documentStyle() throws Exception {
+        SoapOperationIndex index = SoapOperationIndex.of(WsdlDocument.read(prefixPath + separatorChar
+                + "ForImport.wsdl").getDefinition());
+        // the element of the input, not the imported schema of the types
+        QName portType = new QName("http://forImport.generator.ksoap2", "ForImport");
+        SoapOperationIndex.Entry operation = index.get(portType, "save");
+        assertEquals("http://forImport.generator.ksoap2", operation.getNamespace());
+        assertNull(operation.getSoapAction());
+        assertNull(index.get(portType, "unknown"));
+        assertNull(index.get(new QName("http://forImport.generator.ksoap2", "Unknown"), "save"));
+    }
+
+    @Test
+    public void rpcStyle() throws Exception {
+        Path wsdl = Files.createTempFile("rpc", ".wsdl");
+        try {
+            Files.write(wsdl, RPC_WSDL.getBytes(StandardCharsets.UTF_8));
+            SoapOperationIndex index = SoapOperationIndex.of(WsdlDocument.read(wsdl.toString()).getDefinition());
+            QName portType = new QName("http://rpc.generator.ksoap2", "Rpc");
+            // the case of the Java method is restored
+            SoapOperationIndex.Entry echo = index.get(portType, "echo");
+            assertEquals("Echo", echo.getOperationName());
+            assertEquals("urn:echo", echo.getNamespace());
+            assertEquals("urn:rpc#Echo", echo.getSoapAction());
+            SoapOperationIndex.Entry ping = index.get(portType, "ping");
+            assertEquals("http://rpc.generator.ksoap2", ping.getNamespace());
+            assertNull(ping.getSoapAction());
+            // the order of the port type
+            assertEquals(0, index.getPosition(portType, "echo"));
+            assertEquals(1, index.getPosition(portType, "Ping"));
+            assertEquals(Integer.MAX_VALUE, index.getPosition(portType, "unknown"));
+        } finally {
+            Files.delete(wsdl);
+        }
+    }
+
+    @Test
+    public void sharedOperation() throws Exception {
+        Path wsdl = Files.createTempFile("shared", ".wsdl");
+        try {
+            Files.write(wsdl, SHARED_WSDL.getBytes(StandardCharsets.UTF_8));
+            SoapOperationIndex index = SoapOperationIndex.of(WsdlDocument.read(wsdl.toString()).getDefinition());
+            // each port type keeps the operation of its own binding
+            SoapOperationIndex.Entry left = index.get(new QName("http://shared.generator.ksoap2", "Left"), "echo");
+            assertEquals("urn:left", left.getNamespace());
+            assertEquals("urn:left#Echo", left.getSoapAction());
+            SoapOperationIndex.Entry right = index.get(new QName("http://shared.generator.ksoap2", "Right"), "echo");
+            assertEquals("urn:right", right.getNamespace());
+            assertEquals("urn:right#Echo", right.getSoapAction());
+        } finally {
+            Files.delete(wsdl);
+        }
+    }
+}
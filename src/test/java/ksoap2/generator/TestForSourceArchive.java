@@ -0,0 +1,199 @@
+/**
+ Ksoap2-generator-stub: the generator to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) on J2ME/CLDC 1.1.
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the generation into a source archive instead of the source files.
+ *
+ */
+public final class TestForSourceArchive extends AbstractTest {
+
+    /**
+     * The folder of the generated code and the report.
+     */
+    private Path folder;
+
+    @Before
+    public void createFolder() throws Exception {
+        folder = Files.createTempDirectory("archive");
+    }
+
+    @After
+    public void removeFolder() throws Exception {
+        FileManager.removeFolder(folder.toString());
+    }
+
+    /**
+     * Generates the code of ForComplex natively.
+     *
+     * @param generated
+     *              The generated folder.
+     * @param srcjar
+     *              The name of the source archive, or <tt>null</tt>.
+     * @param stored
+     *              Whether the entries are stored.
+     * @param threads
+     *              The number of threads.
+     * @return The report.
+     * @throws Exception
+     *              The exception.
+     */
+    private String generate(final Path generated, final String srcjar, final boolean stored, final int threads)
+            throws Exception {
+        Path report = folder.resolve("report.json");
+        GeneratorOptions options = new GeneratorOptions.Builder()
+                .addWsdl(prefixPath + separatorChar + "ForComplex.wsdl", generated.toString())
+                .setSourceArchive(srcjar, stored)
+                .setCacheFolder(null)
+                .setThreads(threads)
+                .setReport(report.toString())
+                .build();
+        new GeneratorEngine(GeneratorLoader.getLoader()).generate(options);
+        return new String(Files.readAllBytes(report), StandardCharsets.UTF_8);
+    }
+
+    /**
+     *
+     * @param archive
+     *              The archive.
+     * @return The content of the entries, by name.
+     * @throws Exception
+     *              The exception.
+     */
+    private static TreeMap<String, String> read(final Path archive) throws Exception {
+        TreeMap<String, String> entries = new TreeMap<String, String>();
+        ZipFile zip = new ZipFile(archive.toFile());
+        try {
+            Enumeration<? extends ZipEntry> e = zip.entries();
+            while (e.hasMoreElements()) {
+                ZipEntry entry = e.nextElement();
+                entries.put(entry.getName(), FileManager.getContent(zip.getInputStream(entry)));
+            }
+        } finally {
+            zip.close();
+        }
+        return entries;
+    }
+
+    @Test
+    public void generate() throws Exception {
+        Path files = folder.resolve("files");
+        generate(files, null, false, 1);
+        Path generated = folder.resolve("generated");
+        generate(generated, "client.srcjar", false, 1);
+        Path archive = generated.resolve("client.srcjar");
+
+        // the same code as the source files, without them
+        TreeMap<String, String> expected = new TreeMap<String, String>();
+        for (String file : FileManager.getFileNames(files.toString())) {
+            String path = files.relativize(new File(file).toPath()).toString().replace(separatorChar, '/');
+            if (path.endsWith(".java")) {
+                expected.put(path, new String(Files.readAllBytes(new File(file).toPath()), StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(expected, read(archive));
+        assertFalse(generated.resolve("ksoap2").toFile().exists());
+
+        String json = generate(generated, "client.srcjar", false, 1);
+        assertTrue(json, json.contains("\"outcome\": \"up to date\""));
+
+        // the same archive whatever the number of threads
+        byte [] bytes = Files.readAllBytes(archive);
+        generate(folder.resolve("parallel"), "client.srcjar", false, 4);
+        assertArrayEquals(bytes, Files.readAllBytes(folder.resolve("parallel").resolve("client.srcjar")));
+    }
+
+    @Test
+    public void stored() throws Exception {
+        Path generated = folder.resolve("generated");
+        generate(generated, "client.srcjar", true, 1);
+        ZipFile zip = new ZipFile(generated.resolve("client.srcjar").toFile());
+        try {
+            Enumeration<? extends ZipEntry> e = zip.entries();
+            assertTrue(e.hasMoreElements());
+            while (e.hasMoreElements()) {
+                assertEquals(ZipEntry.STORED, e.nextElement().getMethod());
+            }
+        } finally {
+            zip.close();
+        }
+    }
+
+    @Test
+    public void replacesFiles() throws Exception {
+        Path generated = folder.resolve("generated");
+        generate(generated, null, false, 1);
+        assertTrue(generated.resolve("ksoap2").toFile().isDirectory());
+        generate(generated, "client.srcjar", false, 1);
+        // the source files of the previous generation are removed
+        assertFalse(generated.resolve("ksoap2").toFile().exists());
+        assertTrue(generated.resolve("client.srcjar").toFile().isFile());
+    }
+
+    @Test
+    public void clientJarWithoutArchive() throws Exception {
+        try {
+            new GeneratorOptions.Builder().addWsdl("a.wsdl", "target")
+                    .setClientJar("client.jar", "ksoap2.jar")
+                    .build();
+            fail("the client jar without the source archive");
+        } catch (GeneratorException e) {
+            assertEquals("the client jar needs the source archive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void sameArchive() throws Exception {
+        try {
+            new GeneratorOptions.Builder().addWsdl("a.wsdl", "target").addWsdl("b.wsdl", "target")
+                    .setSourceArchive("client.srcjar", false)
+                    .build();
+            fail("two WSDL documents in the same archive");
+        } catch (GeneratorException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("two WSDL documents in the same archive: "));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ Ksoap2-generator-stub: the generator to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) on J2ME/CLDC 1.1.
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the generation of several targets from a single read of the WSDL
+ * document.
+ *
+ */
+public final class TestForTargets extends AbstractTest {
+
+    /**
+     * The folder of the generated code and the report.
+     */
+    private Path folder;
+
+    @Before
+    public void createFolder() throws Exception {
+        folder = Files.createTempDirectory("targets");
+    }
+
+    @After
+    public void removeFolder() throws Exception {
+        FileManager.removeFolder(folder.toString());
+    }
+
+    /**
+     * Generates the J2ME and Android targets with axis.
+     *
+     * @param report
+     *              The path of the report.
+     * @return The report.
+     * @throws Exception
+     *              The exception.
+     */
+    private String generate(final Path report) throws Exception {
+        GeneratorOptions options = new GeneratorOptions.Builder()
+                .addWsdl(prefixPath + separatorChar + "ForComplex.wsdl", folder.resolve("generated").toString())
+                .addTarget(ServiceClientGenerator.HTTP_TRANSPORT_J2ME, "j2me")
+                .addTarget(ServiceClientGenerator.HTTP_TRANSPORT_ANDROID, "android")
+                .setAxis(true)
+                .setCacheFolder(null)
+                .setReport(report.toString())
+                .build();
+        new GeneratorEngine(GeneratorLoader.getLoader()).generate(options);
+        return new String(Files.readAllBytes(report), StandardCharsets.UTF_8);
+    }
+
+    /**
+     *
+     * @param text
+     *              The text.
+     * @param part
+     *              The part searched.
+     * @return The number of occurrences of the part in the text.
+     */
+    private static int count(final String text, final String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    @Test
+    public void generate() throws Exception {
+        String json = generate(folder.resolve("report.json"));
+        // the front half once, the emission once per target
+        assertEquals(json, 1, count(json, "{\"name\": \"parse\", "));
+        assertEquals(json, 1, count(json, "{\"name\": \"compile\", "));
+        assertEquals(json, 2, count(json, "{\"name\": \"emit ksoap2\", "));
+        for (String target : new String[] {"j2me", "android"}) {
+            Path service = folder.resolve("generated").resolve(target).resolve("ksoap2").resolve("generator")
+                    .resolve("forComplex").resolve("ForComplex.java");
+            String code = new String(Files.readAllBytes(service), StandardCharsets.UTF_8);
+            String transport = "j2me".equals(target) ? ServiceClientGenerator.HTTP_TRANSPORT_J2ME
+                    : ServiceClientGenerator.HTTP_TRANSPORT_ANDROID;
+            assertTrue(code, code.contains("import org.ksoap2.transport." + transport + ";"));
+        }
+
+        json = generate(folder.resolve("again.json"));
+        assertTrue(json, json.contains("\"outcome\": \"up to date\""));
+    }
+
+    @Test
+    public void sameFolder() throws Exception {
+        try {
+            new GeneratorOptions.Builder().addWsdl("a.wsdl", "target")
+                    .addTarget(ServiceClientGenerator.HTTP_TRANSPORT_J2ME, "client")
+                    .addTarget(ServiceClientGenerator.HTTP_TRANSPORT_ANDROID, "client")
+                    .build();
+            fail("two targets in the same folder");
+        } catch (GeneratorException e) {
+            assertEquals("two targets in the same folder: client", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ Ksoap2-generator-stub: the generator to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) on J2ME/CLDC 1.1.
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the watch mode: the code is generated again when the schema of the
+ * WSDL document changes.
+ *
+ */
+public final class TestForWatch extends AbstractTest {
+
+    /**
+     * The time to wait for a generation, in milliseconds.
+     */
+    private static final long TIMEOUT = 20000;
+
+    /**
+     * The folder of the WSDL document and its schema.
+     */
+    private Path wsdlFolder;
+
+    /**
+     * The generated folder.
+     */
+    private Path generatedFolder;
+
+    @Before
+    public void copyWsdl() throws Exception {
+        wsdlFolder = Files.createTempDirectory("wsdl");
+        generatedFolder = Files.createTempDirectory("generated");
+        for (String name : new String[] {"ForImport.wsdl", "ForImport.xsd"}) {
+            Files.copy(Paths.get(prefixPath, name), wsdlFolder.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @After
+    public void removeFolders() throws Exception {
+        FileManager.removeFolder(wsdlFolder.toString());
+        FileManager.removeFolder(generatedFolder.toString());
+    }
+
+    /**
+     * Waits until the generated type contains the text.
+     *
+     * @param file
+     *              The source file of the type.
+     * @param text
+     *              The text.
+     * @return <tt>true</tt> if the type contains the text in time.
+     */
+    private static boolean awaitContent(final Path file, final String text) throws Exception {
+        long end = System.currentTimeMillis() + TIMEOUT;
+        while (System.currentTimeMillis() < end) {
+            if (Files.isRegularFile(file)
+                    && new String(Files.readAllBytes(file), StandardCharsets.UTF_8).contains(text)) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+
+    @Test
+    public void regenerate() throws Exception {
+        final ClassLoader loader = GeneratorLoader.getLoader();
+        final String [] args = new String[] {"-w", wsdlFolder.resolve("ForImport.wsdl").toString(),
+                "-g", generatedFolder.toString(), "--no-cache", "--watch"};
+        Thread watcher = new Thread() {
+            @Override
+            public void run() {
+                Thread.currentThread().setContextClassLoader(loader);
+                try {
+                    new Wsdl2J2me(args).run();
+                } catch (Exception e) {
+                    // interrupted
+                }
+            }
+        };
+        watcher.setDaemon(true);
+        watcher.start();
+        try {
+            Path person = generatedFolder.resolve(Paths.get("ksoap2", "generator", "forImport", "types",
+                    "Person.java"));
+            assertTrue(awaitContent(person, "int age"));
+            Thread.sleep(500); // the watch starts after the generation
+            Path xsd = wsdlFolder.resolve("ForImport.xsd");
+            String schema = new String(Files.readAllBytes(xsd), StandardCharsets.UTF_8);
+            Files.write(xsd, schema.replace("name=\"age\" type=\"xsd:int\"", "name=\"age\" type=\"xsd:long\"")
+                    .getBytes(StandardCharsets.UTF_8));
+            assertTrue(awaitContent(person, "long age"));
+        } finally {
+            watcher.interrupt();
+            watcher.join(TIMEOUT);
+        }
+    }
+}
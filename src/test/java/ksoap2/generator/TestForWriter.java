@@ -0,0 +1,86 @@
+/**
+ Ksoap2-generator-stub: the generator to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) on J2ME/CLDC 1.1.
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+package ksoap2.generator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that a complex type written to any target is the same as the one
+ * saved in the generated folder, and that the files are saved in UTF-8.
+ *
+ */
+public final class TestForWriter extends AbstractTest {
+
+    /**
+     * The generated folder.
+     */
+    private Path generatedFolder;
+
+    @Before
+    public void createFolder() throws Exception {
+        generatedFolder = Files.createTempDirectory("generated");
+    }
+
+    @After
+    public void removeFolder() throws Exception {
+        FileManager.removeFolder(generatedFolder.toString());
+    }
+
+    @Test
+    public void generate() throws Exception {
+        WsdlDocument wsdl = WsdlDocument.read(prefixPath + separatorChar + "ForComplex.wsdl");
+        ClientModel model = new WsdlModelBuilder(wsdl.getDefinition()).build();
+        new WsClientGenerator(model, generatedFolder.toString()).run();
+        assertTrue(model.getBeans().size() > 0);
+        for (BeanModel bean : model.getBeans()) {
+            StringBuilder code = new StringBuilder();
+            new ComplexTypeGenerator(bean, new Writer(code), null).run();
+            Path file = generatedFolder.resolve(FileManager.getSourcePath(bean.getClassName()));
+            assertEquals(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), code.toString());
+        }
+    }
+
+    @Test
+    public void saveUtf8() throws Exception {
+        String content = "package cafe;\n\npublic final class Menu {\n    String caf\u00e9 = \"cr\u00e8me\";\n}\n";
+        Writer writer = new Writer();
+        writer.append(content);
+        FileManager.createFileInJ2me("cafe.Menu", writer, generatedFolder.toString());
+        Path file = generatedFolder.resolve(FileManager.getSourcePath("cafe.Menu"));
+        assertEquals(content, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        assertEquals(1, file.getParent().toFile().list().length); // no temp file left
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ Ksoap2-generator-stub: the generator to generate web services client using
+ ksoap2 (http://ksoap2.sourceforge.net/) on J2ME/CLDC 1.1.
+ 
+ Copyright: Copyright (C) 2010
+ Contact: kinhnc@gmail.com
+
+ This library is free software; you can redistribute it and/or
+ modify it under the terms of the GNU Lesser General Public
+ License as published by the Free Software Foundation; either
+ version 2.1 of the License, or any later version.
+
+ This library is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ Lesser General Public License for more details.
+
+ You should have received a copy of the GNU Lesser General Public
+ License along with this library; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ USA 
+
+ Initial developer(s): Cong Kinh Nguyen.
+ Contributor(s):
+ */
+
+
+package ksoap2.generator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the cache of the WSDL documents fetched over HTTP, against a local
+ * HTTP server serving the test resources with an ETag.
+ *
+ */
+public final class TestForWsdlCache extends AbstractTest {
+
+    /**
+     * The local HTTP server.
+     */
+    private HttpServer server;
+
+    /**
+     * The status codes returned by the server.
+     */
+    private final List<Integer> statuses = Collections.synchronizedList(new ArrayList<Integer>());
+
+    /**
+     * The folder of the cache.
+     */
+    private String cacheFolder;
+
+    @Before
+    public void startServer() throws Exception {
+        cacheFolder = Files.createTempDirectory("wsdl-cache").toString();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+
+            public void handle(final HttpExchange exchange) throws IOException {
+                File file = new File(prefixPath, exchange.getRequestURI().getPath().substring(1));
+                int status;
+                byte [] body = new byte[0];
+                if (!file.isFile()) {
+                    status = 404;
+                } else {
+                    body = Files.readAllBytes(file.toPath());
+                    String etag = "\"" + WsdlCache.sha256(body) + "\"";
+                    exchange.getResponseHeaders().set("ETag", etag);
+                    status = etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match")) ? 304 : 200;
+                }
+                statuses.add(status);
+                if (status == 200) {
+                    exchange.sendResponseHeaders(status, body.length);
+                    OutputStream output = exchange.getResponseBody();
+                    output.write(body);
+                    output.close();
+                } else {
+                    exchange.sendResponseHeaders(status, -1);
+                }
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void stopServer() throws Exception {
+        server.stop(0);
+        FileManager.removeFolder(cacheFolder);
+    }
+
+    /**
+     *
+     * @param name
+     *              The name of the test resource.
+     * @return The URL of the resource on the local server.
+     */
+    private URL url(final String name) throws Exception {
+        return new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/" + name);
+    }
+
+    @Test
+    public void fetch() throws Exception {
+        byte [] expected = Files.readAllBytes(Paths.get(prefixPath, "ForInt.wsdl"));
+
+        WsdlCache cache = new WsdlCache(cacheFolder, false);
+        assertArrayEquals(expected, cache.fetch(url("ForInt.wsdl")));
+        assertEquals(1, cache.getMisses());
+        assertEquals(Collections.singletonList(200), statuses);
+
+        assertArrayEquals(expected, cache.fetch(url("ForInt.wsdl"))); // fetched once per run
+        assertEquals(1, statuses.size());
+
+        cache = new WsdlCache(cacheFolder, false);
+        assertArrayEquals(expected, cache.fetch(url("ForInt.wsdl")));
+        assertEquals(1, cache.getRevalidations());
+        assertEquals(304, (int) statuses.get(1));
+
+        WsdlCache offline = new WsdlCache(cacheFolder, true);
+        assertArrayEquals(expected, offline.fetch(url("ForInt.wsdl")));
+        assertEquals(1, offline.getHits());
+        assertEquals(2, statuses.size());
+    }
+
+    @Test(expected = IOException.class)
+    public void fetchOfflineMissing() throws Exception {
+        new WsdlCache(cacheFolder, true).fetch(url("ForInt.wsdl"));
+    }
+
+    @Test
+    public void generateOffline() throws Exception {
+        String generatedFolder = System.getProperty("user.dir") + separatorChar + "target"
+                + separatorChar + "generate-test-sources";
+        ClassLoader loader = GeneratorLoader.getLoader();
+        Thread.currentThread().setContextClassLoader(loader);
+        String [] args = new String[] {"-w", url("ForImport.wsdl").toString(), "-g",
+                generatedFolder, "--cache", cacheFolder};
+        new Wsdl2J2me(args).run();
+        assertEquals(2, statuses.size()); // the WSDL document and its schema
+
+        server.stop(0);
+        args = new String[] {"-w", url("ForImport.wsdl").toString(), "-g",
+                generatedFolder, "--cache", cacheFolder, "--offline"};
+        new Wsdl2J2me(args).run();
+        assertEquals(2, statuses.size());
+        assertTrue(new File(generatedFolder, "ksoap2" + separatorChar + "generator" + separatorChar
+                + "forImport" + separatorChar + "ForImport.java").isFile());
+    }
+
+    @Test
+    public void generateWithAxis() throws Exception {
+        String generatedFolder = Files.createTempDirectory("wsdl-axis").toString();
+        try {
+            ClassLoader loader = GeneratorLoader.getLoader();
+            Thread.currentThread().setContextClassLoader(loader);
+            String [] args = new String[] {"-w", url("ForImport.wsdl").toString(), "-g",
+                    generatedFolder, "--cache", cacheFolder, "-a"};
+            new Wsdl2J2me(args).run();
+            // axis builds its model from the definition already read, so
+            // neither the WSDL document nor its schema is fetched again
+            assertEquals(Arrays.asList(200, 200), statuses);
+            assertTrue(new File(generatedFolder, "ksoap2" + separatorChar + "generator" + separatorChar
+                    + "forImport" + separatorChar + "ForImport.java").isFile());
+        } finally {
+            FileManager.removeFolder(generatedFolder);
+        }
+    }
+
+    @Test
+    public void generateWithAxisWithoutCache() throws Exception {
+        String generatedFolder = Files.createTempDirectory("wsdl-axis").toString();
+        try {
+            ClassLoader loader = GeneratorLoader.getLoader();
+            Thread.currentThread().setContextClassLoader(loader);
+            String [] args = new String[] {"-w", url("ForImport.wsdl").toString(), "-g",
+                    generatedFolder, "--no-cache", "-a"};
+            new Wsdl2J2me(args).run();
+            // axis reads the imported schema from the WSDL document read
+            assertEquals(Arrays.asList(200, 200), statuses);
+        } finally {
+            FileManager.removeFolder(generatedFolder);
+        }
+    }
+}